@@ -1,16 +1,21 @@
 package com.bullhorn.dataloader;
 
-import org.apache.commons.httpclient.HttpClient;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 
+import com.bullhorn.dataloader.rest.AssociationPreloader;
 import com.bullhorn.dataloader.rest.Cache;
+import com.bullhorn.dataloader.rest.CallRetrier;
 import com.bullhorn.dataloader.rest.CompleteUtil;
+import com.bullhorn.dataloader.rest.HttpTransport;
+import com.bullhorn.dataloader.rest.Prefetcher;
 import com.bullhorn.dataloader.rest.Preloader;
 import com.bullhorn.dataloader.rest.RestApiExtension;
 import com.bullhorn.dataloader.rest.RestSession;
 import com.bullhorn.dataloader.service.ActionFactory;
 import com.bullhorn.dataloader.service.ProcessRunner;
+import com.bullhorn.dataloader.util.CallRateLimiter;
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhorn.dataloader.util.StringConsts;
@@ -28,7 +33,6 @@ public class Main {
     }
 
     public static void main(String[] args) {
-        HttpClient httpClient = new HttpClient();
         PrintUtil printUtil = new PrintUtil();
         Timer timer = new Timer();
 
@@ -36,13 +40,21 @@ public class Main {
             PropertyFileUtil propertyFileUtil = new PropertyFileUtil("dataloader.properties",
                 System.getenv(), System.getProperties(), args, printUtil);
             RestApiExtension restApiExtension = new RestApiExtension(printUtil);
-            RestSession restSession = new RestSession(restApiExtension, propertyFileUtil, printUtil);
+            ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(propertyFileUtil, printUtil);
+            CallRateLimiter callRateLimiter = new CallRateLimiter(propertyFileUtil);
+            CallRetrier callRetrier = new CallRetrier(propertyFileUtil, printUtil);
+            HttpTransport httpTransport = new HttpTransport(propertyFileUtil, concurrencyLimiter);
+            RestSession restSession = new RestSession(restApiExtension, concurrencyLimiter, callRateLimiter, callRetrier,
+                httpTransport, propertyFileUtil, printUtil);
             Preloader preloader = new Preloader(restSession, printUtil);
-            CompleteUtil completeUtil = new CompleteUtil(restSession, httpClient, propertyFileUtil, printUtil, timer);
-            ThreadPoolUtil threadPoolUtil = new ThreadPoolUtil(propertyFileUtil);
+            CompleteUtil completeUtil = new CompleteUtil(restSession, httpTransport.getHttpClient(), propertyFileUtil,
+                printUtil, timer);
+            ThreadPoolUtil threadPoolUtil = new ThreadPoolUtil(propertyFileUtil, concurrencyLimiter);
             Cache cache = new Cache(propertyFileUtil);
-            ProcessRunner processRunner = new ProcessRunner(restSession, preloader, printUtil, propertyFileUtil,
-                threadPoolUtil, cache, completeUtil);
+            Prefetcher prefetcher = new Prefetcher(restSession, cache, propertyFileUtil, printUtil);
+            AssociationPreloader associationPreloader = new AssociationPreloader(restSession, cache, propertyFileUtil, printUtil);
+            ProcessRunner processRunner = new ProcessRunner(restSession, preloader, prefetcher, associationPreloader,
+                printUtil, propertyFileUtil, threadPoolUtil, cache, callRetrier, httpTransport, completeUtil);
             ActionFactory actionFactory = new ActionFactory(printUtil, propertyFileUtil, completeUtil, restSession,
                 processRunner, System.in, timer);
 
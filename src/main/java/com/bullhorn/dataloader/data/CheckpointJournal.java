@@ -0,0 +1,140 @@
+package com.bullhorn.dataloader.data;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import org.apache.commons.io.FilenameUtils;
+
+import com.bullhorn.dataloader.enums.Command;
+
+/**
+ * An append-only journal of the rows in a file that have finished processing, so that an interrupted run can be
+ * resumed without processing those rows again.
+ * <p>
+ * The journal is kept next to the results files, with one line per finished row: the row number, the action and the
+ * Bullhorn id, such as `2101,INSERT,5483`. Rows are only added to the journal once their results have been written
+ * and flushed to the results files, so a row in the journal is never missing from the results.
+ * <p>
+ * When resuming, the rows that finished without failing in earlier runs are read into a bitmap of row numbers, so that
+ * checking each row is a single bit lookup. Failed rows are not skipped, so that they are tried again.
+ */
+public class CheckpointJournal implements Closeable {
+
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    private final BitSet completedRows = new BitSet();
+    private final Writer writer;
+
+    /**
+     * Returns the path of the journal for the given input file and command, which stays the same from run to run.
+     *
+     * @param inputFilePath The path of the input CSV to read
+     * @param command       The command used to process the CSV file
+     * @return The path to the journal file
+     */
+    public static String getJournalFilePath(String inputFilePath, Command command) {
+        return CsvFileWriter.RESULTS_DIR + FilenameUtils.getBaseName(inputFilePath) + "_" + command.getMethodName()
+            + JOURNAL_EXTENSION;
+    }
+
+    /**
+     * Opens the journal for the given input file, which starts a new journal unless resuming.
+     *
+     * @param command  The command used to process the CSV file
+     * @param filePath The path of the input CSV to read
+     * @param resume   True to read the rows completed by earlier runs and add to the journal, false to start over
+     * @throws IOException when reading or opening the journal file
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public CheckpointJournal(Command command, String filePath, Boolean resume) throws IOException {
+        File file = new File(getJournalFilePath(filePath, command));
+        file.getParentFile().mkdirs();
+        boolean append = resume && file.exists();
+        if (append) {
+            readCompletedRows(file);
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8));
+        if (append && !endsWithNewline(file)) {
+            // The last run was stopped part way through writing a line
+            writer.write("\n");
+        }
+    }
+
+    /**
+     * Returns true if the row finished without failing in an earlier run.
+     */
+    public boolean isComplete(Integer rowNumber) {
+        return completedRows.get(rowNumber);
+    }
+
+    /**
+     * Returns the number of rows that finished without failing in earlier runs.
+     */
+    public int getCompletedRowCount() {
+        return completedRows.cardinality();
+    }
+
+    /**
+     * Adds a finished row to the journal. The row is not on disk until the journal is flushed.
+     */
+    synchronized void record(Integer rowNumber, Result result) throws IOException {
+        writer.write(rowNumber + "," + result.getAction() + "," + result.getBullhornId() + "\n");
+    }
+
+    synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Reads the row numbers that finished without failing, ignoring any line that was not completely written.
+     */
+    private void readCompletedRows(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+            StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                if (values.length == 3) {
+                    try {
+                        int rowNumber = Integer.parseInt(values[0]);
+                        Result.Action action = Result.Action.valueOf(values[1]);
+                        Integer.parseInt(values[2]);
+                        if (action == Result.Action.FAILURE) {
+                            completedRows.clear(rowNumber);
+                        } else {
+                            completedRows.set(rowNumber);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // Skip the partial line
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean endsWithNewline(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            if (randomAccessFile.length() == 0) {
+                return true;
+            }
+            randomAccessFile.seek(randomAccessFile.length() - 1);
+            return randomAccessFile.read() == '\n';
+        }
+    }
+}
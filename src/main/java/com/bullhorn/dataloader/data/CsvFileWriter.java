@@ -1,11 +1,17 @@
 package com.bullhorn.dataloader.data;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FilenameUtils;
 
@@ -15,8 +21,16 @@ import com.csvreader.CsvWriter;
 
 /**
  * A thread-safe file writer for outputting results into both a success and a failure CSV file.
+ * <p>
+ * By default, rows from all task threads are handed off to a queue, and a single writer thread writes them out in
+ * batches, flushing to disk every so many rows or every so often, and once more when closed. This keeps task threads
+ * from waiting on each other and on the disk for every row. In durable mode, each row is written and flushed to disk
+ * by the task thread before it moves on, so that no results are lost if the process is killed.
+ * <p>
+ * When given a checkpoint journal, rows are added to the journal only after they have been flushed to the results
+ * files.
  */
-public class CsvFileWriter {
+public class CsvFileWriter implements Closeable {
 
     public static final String RESULTS_DIR = "results/";
     private static final String ACTION_COLUMN = "dataloader_action";
@@ -26,14 +40,24 @@ public class CsvFileWriter {
     private static final String TIPS_TO_RESOLVE_COLUMN = "tips_to_resolve";
     private static final String SUCCESS_CSV = "_success.csv";
     private static final String FAILURE_CSV = "_failure.csv";
-    public static String successFilePath;
-    public static String failureFilePath;
+    private static final Integer QUEUE_CAPACITY = 1000;
+    private static final Integer FLUSH_ROW_COUNT = 100;
+    private static final Integer FLUSH_INTERVAL_MSEC = 1000;
+    private static final QueuedRow END_OF_ROWS = new QueuedRow(null, null);
 
     private final Command command;
     private final String[] headers;
+    private final String successFilePath;
+    private final String failureFilePath;
+    private final Boolean durable;
+    private final CheckpointJournal checkpointJournal;
+    private final DeltaIndex deltaIndex;
+    private final BlockingQueue<QueuedRow> queue;
+    private final Thread writerThread;
 
     private CsvWriter successCsv = null;
     private CsvWriter failureCsv = null;
+    private volatile IOException writeError = null;
 
     /**
      * Returns the correctly formatted filePath for the results file
@@ -61,28 +85,218 @@ public class CsvFileWriter {
      * @param command  The Command object to execute during this run
      * @param filePath The full path to the Entity file to read in
      * @param headers  The headers read in from the input CSV file
+     * @param durable  True to flush every row to disk before returning, false to write rows in batches
+     */
+    public CsvFileWriter(Command command, String filePath, String[] headers, Boolean durable) {
+        this(command, filePath, headers, durable, null, null);
+    }
+
+    /**
+     * Creates the results files, and records each row in the given journal once its results are on disk, and in the
+     * given delta index as it is written.
+     *
+     * @param command           The Command object to execute during this run
+     * @param filePath          The full path to the Entity file to read in
+     * @param headers           The headers read in from the input CSV file
+     * @param durable           True to flush every row to disk before returning, false to write rows in batches
+     * @param checkpointJournal The journal of finished rows, or null for none
+     * @param deltaIndex        The index of rows loaded during this run, or null for none
      */
     @SuppressWarnings("ResultOfMethodCallIgnored")
-    public CsvFileWriter(Command command, String filePath, String[] headers) {
+    public CsvFileWriter(Command command, String filePath, String[] headers, Boolean durable,
+                         CheckpointJournal checkpointJournal, DeltaIndex deltaIndex) {
         this.command = command;
         this.headers = headers;
+        this.durable = durable;
+        this.checkpointJournal = checkpointJournal;
+        this.deltaIndex = deltaIndex;
 
         successFilePath = getResultsFilePath(filePath, command, Result.Status.SUCCESS);
         failureFilePath = getResultsFilePath(filePath, command, Result.Status.FAILURE);
 
         File resultsDir = new File(RESULTS_DIR);
         resultsDir.mkdirs();
+
+        if (durable) {
+            queue = null;
+            writerThread = null;
+        } else {
+            queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            writerThread = new Thread(this::writeQueuedRows, "results-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    public String getSuccessFilePath() {
+        return successFilePath;
+    }
+
+    public String getFailureFilePath() {
+        return failureFilePath;
     }
 
     /**
      * Given the input for a row record and the output from REST, this method will output the results of the operation
      * to the results files. Prepends columns to the result files: id,action for success, failureText for failure.
+     * <p>
+     * Unless durable, the row is only queued up here, and is written to disk by the writer thread. If the queue is
+     * full, this waits for the writer thread to catch up.
      *
      * @param row    the original CSV record
      * @param result the resulting status from REST
      * @throws IOException when writing to disk
      */
-    public synchronized void writeRow(Row row, Result result) throws IOException {
+    public void writeRow(Row row, Result result) throws IOException {
+        if (deltaIndex != null) {
+            deltaIndex.record(row, result);
+        }
+        if (durable) {
+            writeRowDurably(row, result);
+        } else {
+            enqueue(new QueuedRow(row, result));
+        }
+    }
+
+    /**
+     * Writes out any remaining rows, flushes them to disk and closes the results files. Must be called once all rows
+     * have been written.
+     *
+     * @throws IOException when writing to disk, including any earlier error on the writer thread
+     */
+    @Override
+    public void close() throws IOException {
+        if (!durable) {
+            enqueue(END_OF_ROWS);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing results files");
+            }
+        }
+        synchronized (this) {
+            if (successCsv != null) {
+                successCsv.close();
+            }
+            if (failureCsv != null) {
+                failureCsv.close();
+            }
+        }
+        checkForWriteError();
+    }
+
+    private synchronized void writeRowDurably(Row row, Result result) throws IOException {
+        CsvWriter csvWriter = writeRecord(row, result);
+        csvWriter.flush();
+        if (checkpointJournal != null) {
+            checkpointJournal.record(row.getNumber(), result);
+            checkpointJournal.flush();
+        }
+    }
+
+    /**
+     * Hands the row off to the writer thread, as long as the writer thread is still able to write.
+     */
+    private void enqueue(QueuedRow queuedRow) throws IOException {
+        checkWriterThread();
+        try {
+            while (!queue.offer(queuedRow, FLUSH_INTERVAL_MSEC, TimeUnit.MILLISECONDS)) {
+                checkWriterThread();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing results files");
+        }
+    }
+
+    private void checkForWriteError() throws IOException {
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    /**
+     * Fails instead of waiting on a queue that is no longer being emptied, since the writer thread only stops once it
+     * has seen the end of rows, or on an error.
+     */
+    private void checkWriterThread() throws IOException {
+        boolean isAlive = writerThread.isAlive();
+        checkForWriteError();
+        if (!isAlive) {
+            throw new IOException("The results writer thread has stopped");
+        }
+    }
+
+    /**
+     * The writer thread, which writes out queued rows as they arrive, and flushes them to disk after enough rows or
+     * enough time has passed, and once more at the end.
+     */
+    private void writeQueuedRows() {
+        List<QueuedRow> batch = new ArrayList<>();
+        List<QueuedRow> unflushedRows = new ArrayList<>();
+        long lastFlushTime = System.currentTimeMillis();
+        boolean endOfRows = false;
+        try {
+            while (!endOfRows) {
+                QueuedRow queuedRow = queue.poll(FLUSH_INTERVAL_MSEC, TimeUnit.MILLISECONDS);
+                if (queuedRow != null) {
+                    batch.add(queuedRow);
+                    queue.drainTo(batch);
+                }
+                for (QueuedRow rowInBatch : batch) {
+                    if (rowInBatch == END_OF_ROWS) {
+                        endOfRows = true;
+                    } else {
+                        writeRecord(rowInBatch.row, rowInBatch.result);
+                        unflushedRows.add(rowInBatch);
+                    }
+                }
+                batch.clear();
+
+                long now = System.currentTimeMillis();
+                if (endOfRows || unflushedRows.size() >= FLUSH_ROW_COUNT
+                    || (!unflushedRows.isEmpty() && now - lastFlushTime >= FLUSH_INTERVAL_MSEC)) {
+                    flush();
+                    journal(unflushedRows);
+                    unflushedRows.clear();
+                    lastFlushTime = now;
+                }
+            }
+        } catch (IOException e) {
+            writeError = e;
+        } catch (InterruptedException e) {
+            writeError = new InterruptedIOException("Interrupted while writing results files");
+        } catch (RuntimeException e) {
+            writeError = new IOException("Error writing results files: " + e, e);
+        }
+    }
+
+    /**
+     * Adds the rows that were just flushed to the results files to the journal.
+     */
+    private void journal(List<QueuedRow> flushedRows) throws IOException {
+        if (checkpointJournal != null && !flushedRows.isEmpty()) {
+            for (QueuedRow flushedRow : flushedRows) {
+                checkpointJournal.record(flushedRow.row.getNumber(), flushedRow.result);
+            }
+            checkpointJournal.flush();
+        }
+    }
+
+    private synchronized void flush() throws IOException {
+        if (successCsv != null) {
+            successCsv.flush();
+        }
+        if (failureCsv != null) {
+            failureCsv.flush();
+        }
+    }
+
+    /**
+     * Writes the row to the success or failure file without flushing, and returns the writer that was used.
+     */
+    private synchronized CsvWriter writeRecord(Row row, Result result) throws IOException {
         CsvWriter csvWriter;
         List<String> values = row.getValues();
 
@@ -110,12 +324,12 @@ public class CsvFileWriter {
         }
 
         csvWriter.writeRecord(values.toArray(new String[0]));
-        csvWriter.flush();
+        return csvWriter;
     }
 
     private CsvWriter getOrCreateSuccessCsvWriter() throws IOException {
         if (successCsv == null) {
-            FileWriter fileWriter = new FileWriter(successFilePath);
+            BufferedWriter fileWriter = new BufferedWriter(new FileWriter(successFilePath));
             successCsv = new CsvWriter(fileWriter, ',');
 
             List<String> headerList = new ArrayList<>(Arrays.asList(headers));
@@ -136,7 +350,7 @@ public class CsvFileWriter {
 
     private CsvWriter getOrCreateFailureCsvWriter() throws IOException {
         if (failureCsv == null) {
-            FileWriter fileWriter = new FileWriter(failureFilePath);
+            BufferedWriter fileWriter = new BufferedWriter(new FileWriter(failureFilePath));
             failureCsv = new CsvWriter(fileWriter, ',');
 
             List<String> headerList = new ArrayList<>(Arrays.asList(headers));
@@ -151,4 +365,17 @@ public class CsvFileWriter {
         }
         return failureCsv;
     }
+
+    /**
+     * A row and its result, waiting to be written by the writer thread.
+     */
+    private static class QueuedRow {
+        private final Row row;
+        private final Result result;
+
+        QueuedRow(Row row, Result result) {
+            this.row = row;
+            this.result = result;
+        }
+    }
 }
@@ -0,0 +1,285 @@
+package com.bullhorn.dataloader.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.io.FilenameUtils;
+
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.google.common.base.Strings;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * An on-disk index of the rows of a file that were loaded successfully, used to skip the rows that have not changed
+ * since the last run of the same file.
+ * <p>
+ * Each row is identified by a 64 bit hash of its exist field values, and the index maps that to a 64 bit hash of all
+ * of the row's columns and values, along with the Bullhorn id of the record. The index of the previous run is held as
+ * sorted arrays of primitives, so that checking a row is a binary search, and the file takes 20 bytes per row.
+ * <p>
+ * The rows that succeed during this run are collected into a new index, which replaces the previous one once the file
+ * has finished loading. Rows that fail are left out, so they are loaded again next time. Rows without values for all
+ * of the exist fields, and rows whose exist field values appear more than once in the file, are never skipped.
+ * <p>
+ * The index records the entity and the Bullhorn instance that the file was loaded into, which is the login of the
+ * user, and is ignored when loading the file as another entity or into another instance. Deleting records of an
+ * entity removes every index for that entity, since the records that an index lists may no longer exist.
+ */
+public class DeltaIndex {
+
+    private static final String DELTA_EXTENSION = ".delta";
+    private static final int FORMAT_VERSION = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final File file;
+    private final String entityName;
+    private final long targetHash;
+    private final List<String> existFields;
+
+    // The rows of the previous run, sorted by key
+    private long[] previousKeys = new long[0];
+    private long[] previousContentHashes = new long[0];
+    private int[] previousIds = new int[0];
+
+    // The rows that succeeded during this run, in the order they finished
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] contentHashes = new long[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Returns the path of the delta index for the given input file, which stays the same from run to run.
+     *
+     * @param inputFilePath The path of the input CSV to load
+     * @return The path to the delta index file
+     */
+    public static String getDeltaFilePath(String inputFilePath) {
+        return CsvFileWriter.RESULTS_DIR + FilenameUtils.getBaseName(inputFilePath) + "_load" + DELTA_EXTENSION;
+    }
+
+    /**
+     * Removes the index of every file that was loaded as the given entity, so that the next load of those files
+     * loads every row.
+     *
+     * @param entityInfo The entity whose records are being deleted
+     * @return The number of indexes removed
+     * @throws IOException when reading an index
+     */
+    public static int invalidate(EntityInfo entityInfo) throws IOException {
+        File[] deltaFiles = new File(CsvFileWriter.RESULTS_DIR).listFiles((dir, name) -> name.endsWith(DELTA_EXTENSION));
+        int count = 0;
+        if (deltaFiles != null) {
+            for (File deltaFile : deltaFiles) {
+                if (entityInfo.getEntityName().equals(readEntityName(deltaFile)) && deltaFile.delete()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads the index of the previous run of the given file, if there is one, and it was loaded as the same entity
+     * into the same Bullhorn instance.
+     *
+     * @param filePath    The path of the input CSV to load
+     * @param entityInfo  The entity that the file is loaded as
+     * @param existFields The fields that identify a record, whose values identify a row from run to run
+     * @param target      The login that identifies the Bullhorn instance, such as the username and login url
+     * @throws IOException when reading the previous index
+     */
+    public DeltaIndex(String filePath, EntityInfo entityInfo, List<String> existFields, String target) throws IOException {
+        this.file = new File(getDeltaFilePath(filePath));
+        this.entityName = entityInfo.getEntityName();
+        this.targetHash = HASH_FUNCTION.hashString(Strings.nullToEmpty(target), StandardCharsets.UTF_8).asLong();
+        this.existFields = existFields;
+        if (file.isFile()) {
+            read();
+        }
+    }
+
+    /**
+     * Returns the Bullhorn id of the record if the row is exactly the same as when it was last loaded, or null if the
+     * row is new, has changed, or cannot be identified.
+     */
+    public Integer getUnchangedId(Row row) {
+        Long key = getKey(row);
+        if (key == null) {
+            return null;
+        }
+        int index = Arrays.binarySearch(previousKeys, key);
+        if (index < 0 || previousContentHashes[index] != getContentHash(row)) {
+            return null;
+        }
+        return previousIds[index];
+    }
+
+    /**
+     * Adds the row to the new index if it was loaded successfully.
+     */
+    public void record(Row row, Result result) {
+        Result.Action action = result.getAction();
+        if (action != Result.Action.INSERT && action != Result.Action.UPDATE && action != Result.Action.UNCHANGED
+            && action != Result.Action.UP_TO_DATE) {
+            return;
+        }
+        Long key = getKey(row);
+        if (key == null) {
+            return;
+        }
+        long contentHash = getContentHash(row);
+        synchronized (this) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                contentHashes = Arrays.copyOf(contentHashes, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            keys[size] = key;
+            contentHashes[size] = contentHash;
+            ids[size] = result.getBullhornId();
+            size++;
+        }
+    }
+
+    /**
+     * Replaces the index of the previous run with the rows that succeeded during this run. The new index is written
+     * to a temporary file first, so that the previous index is kept if writing is interrupted.
+     *
+     * @throws IOException when writing the index
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public synchronized void save() throws IOException {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+
+        file.getParentFile().mkdirs();
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(tempFile)))) {
+            outputStream.writeInt(FORMAT_VERSION);
+            outputStream.writeUTF(entityName);
+            outputStream.writeLong(targetHash);
+            outputStream.writeInt(countUniqueKeys(order));
+            for (int i = 0; i < size; ++i) {
+                if (isUniqueKey(order, i)) {
+                    outputStream.writeLong(keys[order[i]]);
+                    outputStream.writeLong(contentHashes[order[i]]);
+                    outputStream.writeInt(ids[order[i]]);
+                }
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns the number of rows in the index of the previous run.
+     */
+    public int getPreviousRowCount() {
+        return previousKeys.length;
+    }
+
+    private void read() throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (inputStream.readInt() != FORMAT_VERSION || !inputStream.readUTF().equals(entityName)
+                || inputStream.readLong() != targetHash) {
+                return;
+            }
+            int count = inputStream.readInt();
+            long[] fileKeys = new long[count];
+            long[] fileContentHashes = new long[count];
+            int[] fileIds = new int[count];
+            for (int i = 0; i < count; ++i) {
+                fileKeys[i] = inputStream.readLong();
+                fileContentHashes[i] = inputStream.readLong();
+                fileIds[i] = inputStream.readInt();
+            }
+            previousKeys = fileKeys;
+            previousContentHashes = fileContentHashes;
+            previousIds = fileIds;
+        } catch (EOFException e) {
+            // An incomplete index is ignored, and every row is loaded
+        }
+    }
+
+    /**
+     * Returns the entity that the index was saved for, or null if the file is not an index in the current format.
+     */
+    private static String readEntityName(File deltaFile) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(deltaFile)))) {
+            return inputStream.readInt() == FORMAT_VERSION ? inputStream.readUTF() : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the hash of the exist field values of the row, or null if any of them are missing.
+     */
+    private Long getKey(Row row) {
+        if (existFields.isEmpty()) {
+            return null;
+        }
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        for (String existField : existFields) {
+            String value = row.getValue(existField);
+            if (Strings.isNullOrEmpty(value)) {
+                return null;
+            }
+            putString(hasher, existField.toLowerCase());
+            putString(hasher, value);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private long getContentHash(Row row) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        for (Cell cell : row.getCells()) {
+            putString(hasher, cell.getName());
+            putString(hasher, cell.getValue());
+        }
+        return hasher.hash().asLong();
+    }
+
+    /**
+     * Adds the string followed by its length, so that the boundaries between strings are part of the hash.
+     */
+    private static void putString(Hasher hasher, String value) {
+        String nonNullValue = Strings.nullToEmpty(value);
+        hasher.putString(nonNullValue, StandardCharsets.UTF_8).putInt(nonNullValue.length());
+    }
+
+    private int countUniqueKeys(Integer[] order) {
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (isUniqueKey(order, i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isUniqueKey(Integer[] order, int position) {
+        long key = keys[order[position]];
+        return (position == 0 || keys[order[position - 1]] != key)
+            && (position == size - 1 || keys[order[position + 1]] != key);
+    }
+}
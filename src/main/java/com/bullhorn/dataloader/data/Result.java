@@ -113,6 +113,28 @@ public class Result {
         return new Result(Status.SUCCESS, Action.EXPORT, bullhornId);
     }
 
+    /**
+     * Unchanged convenience constructor, for rows that are the same as the last time the file was loaded, which are
+     * skipped without looking up the record
+     *
+     * @param bullhornId The bullhorn internal ID of the record
+     * @return The new Result object
+     */
+    public static Result unchanged(Integer bullhornId) {
+        return new Result(Status.SUCCESS, Action.UNCHANGED, bullhornId);
+    }
+
+    /**
+     * Up to date convenience constructor, for rows where the existing record already holds every value in the row, so
+     * that no update call was made
+     *
+     * @param bullhornId The bullhorn internal ID of the record
+     * @return The new Result object
+     */
+    public static Result upToDate(Integer bullhornId) {
+        return new Result(Status.SUCCESS, Action.UP_TO_DATE, bullhornId);
+    }
+
     /**
      * Failure convenience constructor that converts any exception to the correct error info and details
      *
@@ -253,6 +275,8 @@ public class Result {
         CONVERT,
         SKIP,
         EXPORT,
+        UNCHANGED,
+        UP_TO_DATE,
         FAILURE
     }
 
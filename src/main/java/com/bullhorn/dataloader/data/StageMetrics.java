@@ -0,0 +1,67 @@
+package com.bullhorn.dataloader.data;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responsible for tracking the throughput of one stage of processing a file, such as reading rows, and the time that
+ * the stage spent waiting on the stages before and after it. A stage that spends most of its time waiting for output
+ * is faster than the stage after it, and a stage that is waiting for input is faster than the stage before it.
+ */
+public class StageMetrics {
+
+    private final String name;
+    private final AtomicLong rows = new AtomicLong(0);
+    private final AtomicLong busyNanos = new AtomicLong(0);
+    private final AtomicLong inputWaitNanos = new AtomicLong(0);
+    private final AtomicLong outputWaitNanos = new AtomicLong(0);
+
+    public StageMetrics(String name) {
+        this.name = name;
+    }
+
+    public void incrementRows() {
+        rows.incrementAndGet();
+    }
+
+    public void addBusyNanos(long nanos) {
+        busyNanos.addAndGet(nanos);
+    }
+
+    public void addInputWaitNanos(long nanos) {
+        inputWaitNanos.addAndGet(nanos);
+    }
+
+    public void addOutputWaitNanos(long nanos) {
+        outputWaitNanos.addAndGet(nanos);
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getBusyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+    }
+
+    public long getInputWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(inputWaitNanos.get());
+    }
+
+    public long getOutputWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(outputWaitNanos.get());
+    }
+
+    /**
+     * Returns a one line summary of the stage for the log, like: "Reader: 1,000 rows, busy 120 ms, waited 0 ms for
+     * input and 4,500 ms for output"
+     */
+    public String getSummary() {
+        NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+        return name + ": " + numberFormat.format(getRows()) + " rows, busy " + numberFormat.format(getBusyMillis())
+            + " ms, waited " + numberFormat.format(getInputWaitMillis()) + " ms for input and "
+            + numberFormat.format(getOutputWaitMillis()) + " ms for output";
+    }
+}
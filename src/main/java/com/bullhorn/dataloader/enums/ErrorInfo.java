@@ -32,6 +32,8 @@ public enum ErrorInfo {
     // 200's - Connection Errors (Errors connecting to the Bullhorn API)
     LOGIN_FAILED(201, "Login Failed", "Check that your credentials are valid and your internet connection is good."),
     CONNECTION_TIMEOUT(202, "Internet Connectivity Issues", "Check your internet connection or try again later."),
+    API_THROTTLED(203, "Too Many Requests", "Lower numThreads, or set readCallsPerSecond and writeCallsPerSecond to stay under "
+        + "the API call limit."),
 
     // 300's - Lookup Errors (Errors finding existing data in Bullhorn)
     MISSING_RECORD(301, "Record Not Found", "Update duplicate check settings or remove row from file."),
@@ -7,28 +7,42 @@ import com.google.common.base.CaseFormat;
  */
 public enum Property {
 
+    ADAPTIVE_CONCURRENCY("adaptiveConcurrency"),
     AUTHORIZE_URL("authorizeUrl"),
+    CACHE_MAX_ENTRIES("cacheMaxEntries"),
     CACHING("caching"),
+    CALL_TIMEOUT_SECONDS("callTimeoutSeconds"),
     CLIENT_ID("clientId"),
     CLIENT_SECRET("clientSecret"),
     DATE_FORMAT("dateFormat"),
+    DELTA_LOAD("deltaLoad"),
+    DURABLE_RESULTS("durableResults"),
     ENTITY("entity"),
     EXECUTE_FORM_TRIGGERS("executeFormTriggers"),
     LIST_DELIMITER("listDelimiter"),
     LOGIN_URL("loginUrl"),
+    MAX_RETRIES("maxRetries"),
+    NUM_PARALLEL_FILES("numParallelFiles"),
     NUM_THREADS("numThreads"),
+    ONLY_UPDATE_CHANGED_FIELDS("onlyUpdateChangedFields"),
+    PAGE_FETCH_THREADS("pageFetchThreads"),
     PASSWORD("password"),
+    PRELOAD_ASSOCIATIONS("preloadAssociations"),
     PROCESS_EMPTY_ASSOCIATIONS("processEmptyAssociations"),
+    READ_CALLS_PER_SECOND("readCallsPerSecond"),
     RESULTS_FILE_ENABLED("resultsFileEnabled"),
+    RESULTS_FILE_MAX_ERRORS("resultsFileMaxErrors"),
     RESULTS_FILE_PATH("resultsFilePath"),
     RESULTS_FILE_WRITE_INTERVAL_MSEC("resultsFileWriteIntervalMsec"),
+    RESUME("resume"),
     SINGLE_BYTE_ENCODING("singleByteEncoding"),
     SKIP_DUPLICATES("skipDuplicates"),
     TOKEN_URL("tokenUrl"),
     USERNAME("username"),
     VERBOSE("verbose"),
     WAIT_SECONDS_BETWEEN_FILES_IN_DIRECTORY("waitSecondsBetweenFilesInDirectory"),
-    WILDCARD_MATCHING("wildcardMatching");
+    WILDCARD_MATCHING("wildcardMatching"),
+    WRITE_CALLS_PER_SECOND("writeCallsPerSecond");
 
     private final String propertyName;
 
@@ -0,0 +1,153 @@
+package com.bullhorn.dataloader.rest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Combines the existing association lookups that many rows make at the same time into a single call.
+ * <p>
+ * Every row that loads a To-Many column first looks up the associations that its record already has, which is one
+ * call per row per column. When several rows look up the same association field of the same entity at the same time,
+ * one of them makes a single call for all of their records, and hands each row its own associations. This works like a
+ * group commit, with no waiting period: a lookup that arrives while no call is in flight for its field makes its call
+ * right away, and lookups that arrive while a call is in flight queue up to be sent together in the next call. When
+ * rows are processed one at a time, each lookup is made on its own, exactly as before.
+ * <p>
+ * If the combined call fails, or does not return the complete associations for a record, that row falls back to its
+ * own lookup, so that errors are still reported against the row that caused them.
+ */
+class AssociationBatcher {
+
+    static final Integer MAX_ENTITIES_PER_CALL = 100;
+
+    // The lookups for each entity and association field, which are batched separately
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the existing associations for one record, looked up together with other records when possible.
+     *
+     * @param key        identifies the entity, association field and fields requested, so only like lookups combine
+     * @param entityId   the record to get the associations of
+     * @param batchCall  looks up the associations of several records, returning only the ones that are complete
+     * @param singleCall looks up the associations of this record on its own
+     * @return the associations of the record
+     */
+    @SuppressWarnings("unchecked")
+    <E> List<E> getAssociations(String key, Integer entityId, Function<Set<Integer>, Map<Integer, List<E>>> batchCall,
+                                Supplier<List<E>> singleCall) {
+        Lane lane = lanes.computeIfAbsent(key, k -> new Lane());
+        Lookup lookup = new Lookup(entityId);
+        synchronized (lane) {
+            lane.pending.add(lookup);
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            List<Lookup> batch = new ArrayList<>();
+            synchronized (lane) {
+                while (!lookup.done && lane.inFlight) {
+                    try {
+                        lane.wait();
+                    } catch (InterruptedException e) {
+                        // The call in flight always finishes, so keep waiting for it
+                        interrupted = true;
+                    }
+                }
+                if (lookup.done) {
+                    break;
+                }
+                lane.inFlight = true;
+                Iterator<Lookup> iterator = lane.pending.iterator();
+                while (iterator.hasNext() && batch.size() < MAX_ENTITIES_PER_CALL) {
+                    batch.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+            try {
+                callForBatch(batch, lookup, batchCall, singleCall);
+            } finally {
+                synchronized (lane) {
+                    batch.forEach(batchLookup -> batchLookup.done = true);
+                    lane.inFlight = false;
+                    lane.notifyAll();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (lookup.error != null) {
+            throw lookup.error;
+        }
+        return lookup.associations != null ? (List<E>) lookup.associations : singleCall.get();
+    }
+
+    /**
+     * Returns the number of lookups waiting for the call in flight for the given key.
+     */
+    int getPendingCount(String key) {
+        Lane lane = lanes.get(key);
+        if (lane == null) {
+            return 0;
+        }
+        synchronized (lane) {
+            return lane.pending.size();
+        }
+    }
+
+    /**
+     * Makes one call for all lookups in the batch. A batch of only this thread's own lookup is a single call, which
+     * keeps the error of the call with the row. Any lookup left without associations falls back to its own call.
+     */
+    private <E> void callForBatch(List<Lookup> batch, Lookup ownLookup,
+                                  Function<Set<Integer>, Map<Integer, List<E>>> batchCall, Supplier<List<E>> singleCall) {
+        if (batch.size() == 1 && batch.get(0) == ownLookup) {
+            try {
+                ownLookup.associations = singleCall.get();
+            } catch (RuntimeException e) {
+                ownLookup.error = e;
+            }
+            return;
+        }
+        if (batch.size() > 1) {
+            Set<Integer> entityIds = new LinkedHashSet<>();
+            batch.forEach(batchLookup -> entityIds.add(batchLookup.entityId));
+            try {
+                Map<Integer, List<E>> associationsMap = batchCall.apply(entityIds);
+                batch.forEach(batchLookup -> batchLookup.associations = associationsMap.get(batchLookup.entityId));
+            } catch (RuntimeException e) {
+                // Each row makes its own call instead, and reports its own error if that fails too
+            }
+        }
+    }
+
+    /**
+     * The lookups waiting for one entity and association field, and whether a call is being made for them.
+     */
+    private static class Lane {
+        private final List<Lookup> pending = new ArrayList<>();
+        private boolean inFlight = false;
+    }
+
+    /**
+     * One row's lookup, which is done once a call has been made for it, successful or not.
+     */
+    private static class Lookup {
+        private final Integer entityId;
+        private boolean done = false;
+        private List<?> associations = null;
+        private RuntimeException error = null;
+
+        private Lookup(Integer entityId) {
+            this.entityId = entityId;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bullhorn.dataloader.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Level;
+
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.data.CsvFileReader;
+import com.bullhorn.dataloader.data.Row;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.FindUtil;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhorn.dataloader.util.StringConsts;
+import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
+import com.bullhornsdk.data.model.entity.core.type.QueryEntity;
+import com.bullhornsdk.data.model.entity.core.type.SearchEntity;
+import com.bullhornsdk.data.model.parameter.standard.ParamFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Resolves all of the association values in a file before it is loaded, so that rows find their associations in the
+ * cache instead of making a lookup call per row.
+ * <p>
+ * Association columns, like `owner.id` or `primarySkills.name`, usually contain a small number of distinct values that
+ * are repeated across many rows. When the preloadAssociations property is enabled, the file is read once before
+ * loading in order to collect the distinct values of each association column. These are looked up in groups, like:
+ * (name='Java' OR name='SQL'), and the records found are added to the cache in the same form as the lookup that each
+ * task makes for its association cell. Values that do not exist are reported before the load begins, and are left out
+ * of the cache, so those rows still make their own lookup and report their own error.
+ */
+public class AssociationPreloader {
+
+    public static final Integer MAX_VALUES_PER_CALL = 100;
+    private static final Integer MAX_MISSING_VALUES_TO_PRINT = 10;
+
+    private final RestSession restSession;
+    private final Cache cache;
+    private final PropertyFileUtil propertyFileUtil;
+    private final PrintUtil printUtil;
+
+    public AssociationPreloader(RestSession restSession, Cache cache, PropertyFileUtil propertyFileUtil, PrintUtil printUtil) {
+        this.restSession = restSession;
+        this.cache = cache;
+        this.propertyFileUtil = propertyFileUtil;
+        this.printUtil = printUtil;
+    }
+
+    /**
+     * Reads the given file and adds the associations of all rows to the cache.
+     * <p>
+     * Only applies when the preloadAssociations property is enabled, since it requires reading the file twice, and
+     * only when caching without wildcard matching, since only exact values can be cached.
+     *
+     * @param entityInfo the type of entity in the file
+     * @param filePath   the file that is about to be loaded
+     */
+    public void preload(EntityInfo entityInfo, String filePath) throws IOException {
+        if (!propertyFileUtil.getPreloadAssociations() || !propertyFileUtil.getCaching()
+            || propertyFileUtil.getWildcardMatching()) {
+            return;
+        }
+
+        // The distinct cell values of each association column, with the field of the first row that had that value
+        Map<String, Map<String, Field>> columnToValuesMap = new LinkedHashMap<>();
+        Set<String> invalidColumns = Sets.newHashSet();
+        CsvFileReader csvFileReader = new CsvFileReader(filePath, propertyFileUtil, printUtil);
+        while (csvFileReader.readRecord()) {
+            Row row = csvFileReader.getRow();
+            for (Cell cell : row.getCells()) {
+                if (cell.isAssociation() && !cell.isAddress() && !cell.getValue().isEmpty()
+                    && !invalidColumns.contains(cell.getName())) {
+                    try {
+                        Field field = new Field(entityInfo, cell, false, propertyFileUtil.getDateParser());
+                        if ((field.isToOne() || field.isToMany()) && field.getFieldEntity() != EntityInfo.PERSON) {
+                            columnToValuesMap.computeIfAbsent(cell.getName(), k -> new LinkedHashMap<>())
+                                .putIfAbsent(cell.getValue(), field);
+                        } else {
+                            invalidColumns.add(cell.getName());
+                        }
+                    } catch (RuntimeException e) {
+                        // Invalid columns are reported by each task
+                        invalidColumns.add(cell.getName());
+                    }
+                }
+            }
+        }
+        csvFileReader.close();
+
+        for (Map.Entry<String, Map<String, Field>> entry : columnToValuesMap.entrySet()) {
+            try {
+                preloadColumn(entityInfo, entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                printUtil.log(Level.WARN, "Failed to preload associations for column '" + entry.getKey() + "': " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Looks up all distinct values of one association column, and caches the result for each distinct cell value.
+     *
+     * @param entityInfo      the type of entity in the file
+     * @param columnName      the name of the association column
+     * @param valueToFieldMap the distinct cell values of the column, each with the field of a row that has that value
+     */
+    private void preloadColumn(EntityInfo entityInfo, String columnName, Map<String, Field> valueToFieldMap) throws Exception {
+        Field firstField = valueToFieldMap.values().iterator().next();
+        EntityInfo fieldEntity = firstField.getFieldEntity();
+        String listDelimiter = propertyFileUtil.getListDelimiter();
+
+        // The same fields and fields parameter that findActiveEntities uses for an association lookup
+        List<Field> activeFields = Lists.newArrayList();
+        Set<String> returnFields = Sets.newHashSet(StringConsts.ID, firstField.getFieldParameterName(false));
+        if (fieldEntity.isSoftDeletable()) {
+            Cell isDeletedCell = new Cell(StringConsts.IS_DELETED, FindUtil.getIsDeletedValue(fieldEntity, false));
+            Field isDeletedField = new Field(fieldEntity, isDeletedCell, true, propertyFileUtil.getDateParser());
+            activeFields.add(isDeletedField);
+            returnFields.add(isDeletedField.getFieldParameterName(false));
+        }
+
+        // Look up each individual value once, even if it shows up in many different to-many cells
+        List<String> values = valueToFieldMap.values().stream()
+            .flatMap(field -> getValues(field, listDelimiter).stream())
+            .distinct().collect(Collectors.toList());
+        Map<String, List<BullhornEntity>> valueToEntitiesMap = new LinkedHashMap<>();
+        for (List<String> valuesInCall : Lists.partition(values, MAX_VALUES_PER_CALL)) {
+            List<Field> fields = valuesInCall.stream()
+                .map(value -> new Field(entityInfo, new Cell(columnName, value), false, propertyFileUtil.getDateParser()))
+                .collect(Collectors.toList());
+            List<BullhornEntity> entities = findEntities(fieldEntity, fields, activeFields, returnFields);
+
+            // Lookups match values regardless of case, so a record named 'Java' is found for the value 'java'
+            Map<String, List<String>> lowerCaseToValuesMap = valuesInCall.stream()
+                .collect(Collectors.groupingBy(String::toLowerCase));
+            for (BullhornEntity entity : entities) {
+                String value = firstField.getStringValueFromEntity(entity, listDelimiter);
+                List<String> matchingValues = value == null ? Collections.emptyList()
+                    : lowerCaseToValuesMap.getOrDefault(value.toLowerCase(), Collections.emptyList());
+                for (String matchingValue : matchingValues) {
+                    valueToEntitiesMap.computeIfAbsent(matchingValue, k -> new ArrayList<>()).add(entity);
+                }
+            }
+        }
+
+        // Only cache cells where every value was found, the rest are looked up and reported by each task as usual
+        for (Map.Entry<String, Field> entry : valueToFieldMap.entrySet()) {
+            List<String> cellValues = getValues(entry.getValue(), listDelimiter);
+            if (cellValues.stream().allMatch(valueToEntitiesMap::containsKey)) {
+                List<BullhornEntity> entities = cellValues.stream()
+                    .flatMap(value -> valueToEntitiesMap.get(value).stream())
+                    .collect(Collectors.toList());
+                List<Field> lookupFields = Lists.newArrayList(entry.getValue());
+                lookupFields.addAll(activeFields);
+                cache.setEntry(fieldEntity, lookupFields, Sets.newHashSet(returnFields), entities);
+            }
+        }
+
+        List<String> missingValues = values.stream().filter(value -> !valueToEntitiesMap.containsKey(value))
+            .collect(Collectors.toList());
+        if (!missingValues.isEmpty()) {
+            String missingValuesString = missingValues.stream().limit(MAX_MISSING_VALUES_TO_PRINT)
+                .map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+            if (missingValues.size() > MAX_MISSING_VALUES_TO_PRINT) {
+                missingValuesString += " and " + (missingValues.size() - MAX_MISSING_VALUES_TO_PRINT) + " more";
+            }
+            printUtil.printAndLog("WARNING: Cannot find " + missingValues.size() + " " + fieldEntity.getEntityName()
+                + " records for column '" + columnName + "': " + missingValuesString);
+        }
+        printUtil.log(Level.INFO, "Preloaded " + (values.size() - missingValues.size()) + " of " + values.size()
+            + " " + fieldEntity.getEntityName() + " values for column '" + columnName + "'");
+    }
+
+    /**
+     * Returns the individual values of a cell, which is a list of values for To-Many fields.
+     */
+    private List<String> getValues(Field field, String listDelimiter) {
+        return field.isToMany() ? field.split(listDelimiter) : Lists.newArrayList(field.getStringValue());
+    }
+
+    /**
+     * Makes the same search or query call that the tasks would make, for several values at once.
+     */
+    @SuppressWarnings("unchecked")
+    private <B extends BullhornEntity, S extends SearchEntity, Q extends QueryEntity> List<BullhornEntity> findEntities(
+        EntityInfo fieldEntity, List<Field> fields, List<Field> activeFields, Set<String> returnFields) {
+        RestApi restApi = restSession.getRestApi();
+        if (fieldEntity.isSearchEntity()) {
+            String searchString = FindUtil.getLuceneSearchForAnyValue(fields, propertyFileUtil, false);
+            if (!activeFields.isEmpty()) {
+                searchString += " AND " + FindUtil.getLuceneSearch(activeFields, propertyFileUtil, false);
+            }
+            List<B> list = (List<B>) restApi.searchForList((Class<S>) fieldEntity.getEntityClass(),
+                searchString, Sets.newHashSet(returnFields), ParamFactory.searchParams());
+            return (List<BullhornEntity>) list;
+        } else {
+            String where = FindUtil.getSqlQueryForAnyValue(fields, propertyFileUtil, false);
+            if (!activeFields.isEmpty()) {
+                where += " AND " + FindUtil.getSqlQuery(activeFields, propertyFileUtil, false);
+            }
+            List<B> list = (List<B>) restApi.queryForList((Class<Q>) fieldEntity.getEntityClass(),
+                where, Sets.newHashSet(returnFields), ParamFactory.queryParams());
+            return (List<BullhornEntity>) list;
+        }
+    }
+}
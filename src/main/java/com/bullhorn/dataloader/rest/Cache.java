@@ -1,19 +1,31 @@
 package com.bullhorn.dataloader.rest;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
-import com.google.common.collect.Maps;
 
 /**
  * Cache takes the parts of a query or search call and boils it down to a bucket of cached data:
  * Entity Type -> Fields Requested -> Search Criteria -> Individual Search Value
+ * <p>
+ * Thread safe without a global lock: every layer is a concurrent map, so lookups from all task threads run in parallel
+ * and never block, and only writers to the same bucket entry ever contend with each other.
+ * <p>
+ * Misses are coalesced: when several threads miss on the same lookup at the same time, only the first one makes the
+ * rest call, and the others wait for its result instead of firing duplicate calls.
  */
 public class Cache {
 
@@ -26,10 +38,15 @@ public class Cache {
      * ------> Bucket of field values to entities
      */
     private final Map<EntityInfo, Map<String, Map<String, CacheBucket>>> entityInfoMap;
+
+    // The lookups that are currently being loaded, keyed by the full lookup, for other threads to wait on
+    private final Map<String, CompletableFuture<List<BullhornEntity>>> inFlightLookups;
+
     private final PropertyFileUtil propertyFileUtil;
 
     public Cache(PropertyFileUtil propertyFileUtil) {
-        entityInfoMap = Maps.newHashMap();
+        entityInfoMap = new ConcurrentHashMap<>();
+        inFlightLookups = new ConcurrentHashMap<>();
         this.propertyFileUtil = propertyFileUtil;
     }
 
@@ -45,38 +62,146 @@ public class Cache {
      * @param returnFields      the fields parameter (ex: id,name)
      * @return null if no cached entry exists, empty list if records were searched for and not found, one or more records if found previously
      */
-    public synchronized List<BullhornEntity> getEntry(EntityInfo entityInfo,
-                                                      List<Field> entityExistFields,
-                                                      Set<String> returnFields) {
-        List<BullhornEntity> entities = null;
-        Map<String, Map<String, CacheBucket>> returnFieldsMap = entityInfoMap.get(entityInfo);
-        if (returnFieldsMap != null) {
-            String returnFieldsString = returnFields.stream().sorted().collect(Collectors.joining(","));
-            Map<String, CacheBucket> searchNameMap = returnFieldsMap.get(returnFieldsString);
-            if (searchNameMap != null) {
-                String searchNameString = entityExistFields.stream().map(field -> field.getCell().getName()).collect(Collectors.joining(","));
-                CacheBucket cacheBucket = searchNameMap.get(searchNameString);
-                if (cacheBucket != null) {
-                    entities = cacheBucket.get(entityExistFields);
-                }
+    public List<BullhornEntity> getEntry(EntityInfo entityInfo,
+                                         List<Field> entityExistFields,
+                                         Set<String> returnFields) {
+        // The bucket is created by the lookup, so that the first miss for a bucket is counted too
+        CacheBucket cacheBucket = getBucket(entityInfo, entityExistFields, returnFields);
+        return cacheBucket != null ? cacheBucket.get(entityExistFields) : null;
+    }
+
+    public void setEntry(EntityInfo entityInfo,
+                         List<Field> entityExistFields,
+                         Set<String> returnFields,
+                         List<BullhornEntity> entities) throws InvocationTargetException, IllegalAccessException {
+        CacheBucket cacheBucket = getBucket(entityInfo, entityExistFields, returnFields);
+        if (cacheBucket != null) {
+            cacheBucket.set(entityExistFields, entities);
+        }
+    }
+
+    /**
+     * Loads an entry that is missing from the cache using the given loader, which makes the rest call, and caches it.
+     * <p>
+     * Only one thread at a time loads any given lookup. If another thread is already loading the same lookup, this waits
+     * for that result instead of calling the loader. If the loader fails, the error is thrown to every waiting thread,
+     * and nothing is cached, so that the next lookup tries again.
+     *
+     * @param entityInfo        the entity name to search for (ex: /Candidate)
+     * @param entityExistFields the fields and values that make up the query/where clause (ex: status:"Active")
+     * @param returnFields      the fields parameter (ex: id,name)
+     * @param loader            the rest call to make if the lookup is not cached or in flight
+     * @return the entities from the cache, the in flight lookup, or the loader
+     */
+    public List<BullhornEntity> loadEntry(EntityInfo entityInfo,
+                                          List<Field> entityExistFields,
+                                          Set<String> returnFields,
+                                          Supplier<List<BullhornEntity>> loader) throws InvocationTargetException, IllegalAccessException {
+        String lookupKey = entityInfo.getEntityName() + "?" + getReturnFieldsString(returnFields)
+            + "?" + getSearchNameString(entityInfo, entityExistFields)
+            + "?" + CacheBucket.getSimpleCacheKey(entityExistFields, propertyFileUtil.getListDelimiter());
+        CompletableFuture<List<BullhornEntity>> future = new CompletableFuture<>();
+        CompletableFuture<List<BullhornEntity>> inFlightLookup = inFlightLookups.putIfAbsent(lookupKey, future);
+        if (inFlightLookup != null) {
+            return waitForLookup(inFlightLookup);
+        }
+
+        try {
+            // Check again, in case a previous load for this lookup finished after the caller's cache miss
+            CacheBucket cacheBucket = getBucket(entityInfo, entityExistFields, returnFields);
+            List<BullhornEntity> entities = cacheBucket != null ? cacheBucket.peek(entityExistFields) : null;
+            if (entities == null) {
+                entities = loader.get();
+                setEntry(entityInfo, entityExistFields, returnFields, entities);
             }
+            future.complete(entities);
+            return entities;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(lookupKey, future);
+        }
+    }
+
+    /**
+     * Reports the hits, misses, evictions and size of the cache, totaled for each entity, with details for each bucket.
+     * <p>
+     * The cache is shared by all of the files of a run, so these are the totals for the run so far, not for one file.
+     * The entity totals are printed and logged, and the details of each bucket are logged only.
+     *
+     * @param printUtil for printing and logging the statistics
+     */
+    public void printStatistics(PrintUtil printUtil) {
+        if (entityInfoMap.isEmpty()) {
+            return;
         }
-        return entities;
+        printUtil.printAndLog("Cache statistics for the run so far:");
+        entityInfoMap.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(Comparator.comparing(EntityInfo::getEntityName)))
+            .forEach(entityEntry -> {
+                CacheStatistics entityStatistics = new CacheStatistics(0, 0, 0, 0, 0);
+                List<String> bucketLines = new ArrayList<>();
+                for (Map.Entry<String, Map<String, CacheBucket>> returnFieldsEntry : entityEntry.getValue().entrySet()) {
+                    for (Map.Entry<String, CacheBucket> searchNameEntry : returnFieldsEntry.getValue().entrySet()) {
+                        CacheStatistics bucketStatistics = searchNameEntry.getValue().getStatistics();
+                        entityStatistics = entityStatistics.plus(bucketStatistics);
+                        bucketLines.add("      by " + searchNameEntry.getKey() + " returning " + returnFieldsEntry.getKey()
+                            + " - " + bucketStatistics);
+                    }
+                }
+                printUtil.printAndLog("   " + entityEntry.getKey().getEntityName() + " - " + entityStatistics);
+                bucketLines.stream().sorted().forEach(printUtil::log);
+            });
     }
 
-    public synchronized void setEntry(EntityInfo entityInfo,
-                                      List<Field> entityExistFields,
-                                      Set<String> returnFields,
-                                      List<BullhornEntity> entities) throws InvocationTargetException, IllegalAccessException {
-        Map<String, Map<String, CacheBucket>> returnFieldsMap = entityInfoMap.computeIfAbsent(entityInfo, k -> Maps.newHashMap());
-        String returnFieldsString = returnFields.stream().sorted().collect(Collectors.joining(","));
-        if (!returnFieldsString.isEmpty()) {
-            Map<String, CacheBucket> searchNameMap = returnFieldsMap.computeIfAbsent(returnFieldsString, k -> Maps.newHashMap());
-            String searchNameString = entityExistFields.stream().map(field -> field.getCell().getName()).collect(Collectors.joining(","));
-            if (!searchNameString.isEmpty()) {
-                CacheBucket cacheBucket = searchNameMap.computeIfAbsent(searchNameString, k -> new CacheBucket(propertyFileUtil));
-                cacheBucket.set(entityExistFields, entities);
+    /**
+     * Blocks until another thread's lookup finishes, rethrowing the same error if that lookup failed.
+     */
+    private List<BullhornEntity> waitForLookup(CompletableFuture<List<BullhornEntity>> inFlightLookup)
+        throws InvocationTargetException, IllegalAccessException {
+        try {
+            return inFlightLookup.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof InvocationTargetException) {
+                throw (InvocationTargetException) cause;
+            } else if (cause instanceof IllegalAccessException) {
+                throw (IllegalAccessException) cause;
             }
+            throw e;
         }
     }
+
+    /**
+     * Returns the bucket for the lookup, creating it if needed, or null if the lookup is missing its return fields or
+     * search fields, which cannot be cached.
+     */
+    private CacheBucket getBucket(EntityInfo entityInfo, List<Field> entityExistFields, Set<String> returnFields) {
+        String returnFieldsString = getReturnFieldsString(returnFields);
+        String searchNameString = getSearchNameString(entityInfo, entityExistFields);
+        if (returnFieldsString.isEmpty() || searchNameString.isEmpty()) {
+            return null;
+        }
+        return entityInfoMap.computeIfAbsent(entityInfo, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(returnFieldsString, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(searchNameString, k -> new CacheBucket(propertyFileUtil));
+    }
+
+    private String getReturnFieldsString(Set<String> returnFields) {
+        return returnFields.stream().sorted().collect(Collectors.joining(","));
+    }
+
+    /**
+     * Returns the names of the search fields relative to the entity being looked up, so that looking up a record directly
+     * (ex: externalID on ClientCorporation) and looking it up as an association from another entity
+     * (ex: clientCorporation.externalID on ClientContact) share the same bucket.
+     */
+    private String getSearchNameString(EntityInfo entityInfo, List<Field> entityExistFields) {
+        return entityExistFields.stream()
+            .map(field -> field.getEntityInfo() == entityInfo ? field.getCell().getName() : field.getName())
+            .collect(Collectors.joining(","));
+    }
 }
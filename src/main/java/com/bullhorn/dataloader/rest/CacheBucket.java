@@ -2,60 +2,66 @@ package com.bullhorn.dataloader.rest;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 /**
  * Provides multiple types of caching strategies within an individual bucket, where a bucket is all searches that have the same:
  * Entity Type -> Fields Requested -> Search Criteria, such as: Lookup Candidate IDs using their ExternalID.
+ * <p>
+ * Both levels are concurrent caches, so that reads never block and cache keys are built outside of any lock. When the
+ * cacheMaxEntries property is set, each level of each bucket holds at most that many records, and the least recently
+ * used lookups are evicted to make room for new ones.
  */
 public class CacheBucket {
     // Level one strategy - match the exact search string
-    private final Map<String, List<BullhornEntity>> simpleCache;
+    private final com.google.common.cache.Cache<String, List<BullhornEntity>> simpleCache;
 
     // Level two strategy - cache individual entities found. Not as straightforward as level one since there is not a direct correlation between
     // search term and number of results. One search term, such as "Java*" can result in several returned items. If those items are indexed by
     // their name to id map, then later on, lookups for: "Javascript" and "Java" can result in the concrete call without having to make a new
     // Rest call.
-    private final Map<String, List<BullhornEntity>> individualValueCache;
+    private final com.google.common.cache.Cache<String, List<BullhornEntity>> individualValueCache;
 
     private final PropertyFileUtil propertyFileUtil;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     CacheBucket(PropertyFileUtil propertyFileUtil) {
         this.propertyFileUtil = propertyFileUtil;
-        simpleCache = Maps.newHashMap();
-        individualValueCache = Maps.newHashMap();
+        simpleCache = createCache(propertyFileUtil.getCacheMaxEntries());
+        individualValueCache = createCache(propertyFileUtil.getCacheMaxEntries());
     }
 
     public List<BullhornEntity> get(List<Field> entityExistFields) {
-        String cacheKey = getSimpleCacheKey(entityExistFields);
-        if (simpleCache.containsKey(cacheKey)) {
-            return simpleCache.get(cacheKey);
+        List<BullhornEntity> entities = getEntities(entityExistFields);
+        if (entities != null) {
+            hits.increment();
+        } else {
+            misses.increment();
         }
+        return entities;
+    }
 
-        if (entityExistFields.size() == 1) {
-            Field field = entityExistFields.get(0);
-            List<BullhornEntity> entities = Lists.newArrayList();
-            for (String searchValue : field.split(propertyFileUtil.getListDelimiter())) {
-                List<BullhornEntity> partialResults = individualValueCache.get(searchValue);
-                if (partialResults == null) {
-                    return null; // short circuit if any results are missing
-                } else {
-                    entities.addAll(partialResults);
-                }
-            }
-            return entities;
-        }
-        return null;
+    /**
+     * Returns the same as get, without counting a hit or a miss, for checking the bucket again during a single lookup.
+     */
+    List<BullhornEntity> peek(List<Field> entityExistFields) {
+        return getEntities(entityExistFields);
     }
 
     public void set(List<Field> entityExistFields, List<BullhornEntity> entities) throws InvocationTargetException, IllegalAccessException {
-        String cacheKey = getSimpleCacheKey(entityExistFields);
+        // A missing result is the same as never having cached the search
+        if (entities == null) {
+            return;
+        }
+
+        String cacheKey = getSimpleCacheKey(entityExistFields, propertyFileUtil.getListDelimiter());
         simpleCache.put(cacheKey, entities);
 
         if (entityExistFields.size() == 1) {
@@ -83,18 +89,76 @@ public class CacheBucket {
         }
     }
 
+    /**
+     * Returns the statistics for this bucket, for sizing the cacheMaxEntries property.
+     */
+    CacheStatistics getStatistics() {
+        long entries = simpleCache.size() + individualValueCache.size();
+        long records = simpleCache.asMap().values().stream().mapToLong(List::size).sum()
+            + individualValueCache.asMap().values().stream().mapToLong(List::size).sum();
+        long evictions = simpleCache.stats().evictionCount() + individualValueCache.stats().evictionCount();
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions, entries, records);
+    }
+
+    private List<BullhornEntity> getEntities(List<Field> entityExistFields) {
+        String cacheKey = getSimpleCacheKey(entityExistFields, propertyFileUtil.getListDelimiter());
+        List<BullhornEntity> cachedEntities = simpleCache.getIfPresent(cacheKey);
+        if (cachedEntities != null) {
+            return cachedEntities;
+        }
+
+        if (entityExistFields.size() == 1) {
+            Field field = entityExistFields.get(0);
+            List<BullhornEntity> entities = Lists.newArrayList();
+            for (String searchValue : field.split(propertyFileUtil.getListDelimiter())) {
+                List<BullhornEntity> partialResults = individualValueCache.getIfPresent(searchValue);
+                if (partialResults == null) {
+                    return null; // short circuit if any results are missing
+                } else {
+                    entities.addAll(partialResults);
+                }
+            }
+            return entities;
+        }
+        return null;
+    }
+
+    /**
+     * Creates one level of the bucket, which is bounded by the number of records it holds if maxEntries is set.
+     * <p>
+     * The size of a lookup is the number of records it returned, since that is what takes up memory, so that one
+     * broad lookup with thousands of results counts the same as thousands of lookups with one result each.
+     * <p>
+     * A bounded level uses a single segment, since Guava splits the maximum weight evenly between segments, which would
+     * evict any lookup larger than a share of maxEntries as soon as it is stored. Only a lookup with more records than
+     * maxEntries is too large to keep. Writes to a level take the same lock, while reads still do not block.
+     *
+     * @param maxEntries the maximum number of records to hold, or 0 for no limit
+     */
+    private static com.google.common.cache.Cache<String, List<BullhornEntity>> createCache(Integer maxEntries) {
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().recordStats();
+        if (maxEntries != null && maxEntries > 0) {
+            return cacheBuilder.concurrencyLevel(1)
+                .maximumWeight(maxEntries)
+                .weigher((String key, List<BullhornEntity> entities) -> Math.max(1, entities.size()))
+                .build();
+        }
+        return cacheBuilder.build();
+    }
+
     /**
      * Return a simple string for determining if we have cached this exact search before
      * <p>
      * Handles reordering multiple values so that simple ordering doesn't cause a cache miss.
      *
      * @param entityExistFields the fields to search for
+     * @param listDelimiter     the delimiter between multiple values in a field
      * @return the string to search for in level one cache
      */
-    private String getSimpleCacheKey(List<Field> entityExistFields) {
+    static String getSimpleCacheKey(List<Field> entityExistFields, String listDelimiter) {
         if (entityExistFields.size() == 1) {
-            return entityExistFields.get(0).split(propertyFileUtil.getListDelimiter()).stream().sorted()
-                .collect(Collectors.joining(propertyFileUtil.getListDelimiter()));
+            return entityExistFields.get(0).split(listDelimiter).stream().sorted()
+                .collect(Collectors.joining(listDelimiter));
         }
         return entityExistFields.stream().map(Field::getStringValue).collect(Collectors.joining(","));
     }
@@ -0,0 +1,64 @@
+package com.bullhorn.dataloader.rest;
+
+/**
+ * A snapshot of how well the cache is working, either for a single bucket or totaled up for an entity.
+ */
+public class CacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long entries;
+    private final long records;
+
+    /**
+     * Constructor for the statistics of one bucket, or a total of several.
+     *
+     * @param hits      the number of lookups that were found in the cache
+     * @param misses    the number of lookups that were not found in the cache, and required a rest call
+     * @param evictions the number of lookups that were removed to stay within the cacheMaxEntries limit
+     * @param entries   the number of lookups currently in the cache
+     * @param records   the number of records held by those lookups, which is the estimate of the memory used
+     */
+    CacheStatistics(long hits, long misses, long evictions, long entries, long records) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.records = records;
+    }
+
+    /**
+     * Returns the total of these statistics and the given statistics.
+     */
+    CacheStatistics plus(CacheStatistics other) {
+        return new CacheStatistics(hits + other.hits, misses + other.misses, evictions + other.evictions,
+            entries + other.entries, records + other.records);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + hits + ", misses: " + misses + ", evictions: " + evictions + ", entries: " + entries
+            + ", records: " + records;
+    }
+}
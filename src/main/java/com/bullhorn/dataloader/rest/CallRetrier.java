@@ -0,0 +1,177 @@
+package com.bullhorn.dataloader.rest;
+
+import java.text.NumberFormat;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Level;
+
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhornsdk.data.exception.RestApiException;
+
+/**
+ * Retries REST calls that fail for reasons that are likely to go away on their own, instead of failing the row.
+ * <p>
+ * The SDK already retries each HTTP request a few times and refreshes an expired session, so a call that still fails
+ * here has been failing for a while. Retries wait with exponential backoff and jitter, so that threads that failed at
+ * the same time do not all retry at the same time. Which failures are retried depends on whether repeating the call is
+ * safe:
+ * - Throttled (HTTP 429) and unavailable (HTTP 503) responses are always retried, since the call was not processed
+ * - Other server errors and connection errors are only retried for calls that can safely be repeated, such as lookups
+ * and updates, but not for inserts, which could create a duplicate record if the first attempt went through, or for
+ * associations, which fail when repeated if the first attempt went through
+ * <p>
+ * A global retry budget keeps retries to a small fraction of all calls, so that an outage cannot turn into a retry storm.
+ * Once the budget is used up, failures are returned right away until enough new calls have been made.
+ */
+public class CallRetrier {
+
+    private static final long BASE_DELAY_MSEC = 500;
+    private static final long MAX_DELAY_MSEC = 30000;
+    private static final Integer MIN_RETRY_BUDGET = 10;
+    private static final Double RETRY_BUDGET_RATIO = 0.1;
+
+    private final Integer maxRetries;
+    private final long baseDelayMsec;
+    private final PrintUtil printUtil;
+    private final AtomicLong calls = new AtomicLong(0);
+    private final AtomicLong retries = new AtomicLong(0);
+    private final AtomicLong retryNanos = new AtomicLong(0);
+    private final Map<ErrorInfo, AtomicInteger> retriesByError = new ConcurrentHashMap<>();
+    private Boolean budgetExhausted = false;
+
+    public CallRetrier(PropertyFileUtil propertyFileUtil, PrintUtil printUtil) {
+        this(propertyFileUtil.getMaxRetries(), BASE_DELAY_MSEC, printUtil);
+    }
+
+    CallRetrier(Integer maxRetries, long baseDelayMsec, PrintUtil printUtil) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMsec = baseDelayMsec;
+        this.printUtil = printUtil;
+    }
+
+    /**
+     * Makes the call, and makes it again for as long as it fails in a way that can be retried.
+     *
+     * @param restCall   the call to the REST API
+     * @param repeatable whether the call can safely be made again after failing part way through
+     * @return the response of the last attempt
+     * @throws RestApiException the error of the last attempt, if it failed
+     */
+    <R> R execute(Supplier<R> restCall, boolean repeatable) {
+        calls.incrementAndGet();
+        for (int attempt = 1; ; ++attempt) {
+            long startNanos = System.nanoTime();
+            R response = null;
+            RestApiException exception = null;
+            try {
+                response = restCall.get();
+            } catch (RestApiException e) {
+                exception = e;
+            }
+
+            int statusCode = exception == null ? RestApi.getStatusCode(response) : RestApi.getStatusCode(exception);
+            ErrorInfo retryReason = getRetryReason(statusCode, exception, repeatable);
+            if (retryReason == null || attempt > maxRetries || !useRetryBudget() || !backOff(attempt, retryReason, startNanos)) {
+                if (exception != null) {
+                    throw exception;
+                }
+                return response;
+            }
+        }
+    }
+
+    /**
+     * Prints the number of retries made so far and how much time they took, if there were any.
+     *
+     * @param printUtil for printing and logging the statistics
+     */
+    public void printStatistics(PrintUtil printUtil) {
+        if (retries.get() == 0) {
+            return;
+        }
+        NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+        printUtil.printAndLog("Total calls retried: " + numberFormat.format(retries.get()) + ", taking "
+            + numberFormat.format(TimeUnit.NANOSECONDS.toMillis(retryNanos.get())) + " ms");
+        retriesByError.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(Comparator.comparing(ErrorInfo::getCode)))
+            .forEach(entry -> printUtil.printAndLog("   " + entry.getKey().getCode() + " " + entry.getKey().getTitle()
+                + " - " + numberFormat.format(entry.getValue().get())));
+    }
+
+    long getRetries() {
+        return retries.get();
+    }
+
+    Integer getRetries(ErrorInfo errorInfo) {
+        AtomicInteger count = retriesByError.get(errorInfo);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Returns the error to retry the call for, or null if the call succeeded or should not be retried.
+     */
+    private ErrorInfo getRetryReason(int statusCode, RestApiException exception, boolean repeatable) {
+        if (statusCode == 429) {
+            return ErrorInfo.API_THROTTLED;
+        } else if (statusCode == 503) {
+            return ErrorInfo.INTERNAL_SERVER_ERROR;
+        } else if (!repeatable) {
+            return null;
+        } else if (statusCode >= 500 && statusCode < 600) {
+            return ErrorInfo.INTERNAL_SERVER_ERROR;
+        } else if (exception != null && ErrorInfo.fromException(exception) == ErrorInfo.CONNECTION_TIMEOUT) {
+            return ErrorInfo.CONNECTION_TIMEOUT;
+        }
+        return null;
+    }
+
+    /**
+     * Takes one retry from the budget, which allows a minimum number of retries plus a fraction of all calls made.
+     */
+    private synchronized boolean useRetryBudget() {
+        long retryBudget = MIN_RETRY_BUDGET + (long) (calls.get() * RETRY_BUDGET_RATIO);
+        if (retries.get() >= retryBudget) {
+            if (!budgetExhausted) {
+                printUtil.log(Level.WARN, "Retry budget of " + retryBudget + " retries for " + calls.get()
+                    + " calls is used up, failed calls will not be retried until more calls succeed");
+                budgetExhausted = true;
+            }
+            return false;
+        }
+        budgetExhausted = false;
+        retries.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Waits before the next attempt, doubling the wait for each attempt, where a random half of the wait is jitter.
+     *
+     * @return false if interrupted while waiting, in which case the call should not be retried
+     */
+    private boolean backOff(int attempt, ErrorInfo retryReason, long attemptStartNanos) {
+        retriesByError.computeIfAbsent(retryReason, key -> new AtomicInteger(0)).incrementAndGet();
+        long delayMsec = Math.min(MAX_DELAY_MSEC, baseDelayMsec << Math.min(attempt - 1, 16));
+        delayMsec = delayMsec / 2 + ThreadLocalRandom.current().nextLong(delayMsec / 2 + 1);
+        printUtil.log(Level.WARN, "Retrying REST call in " + delayMsec + " ms after attempt " + attempt + " of "
+            + (maxRetries + 1) + " failed with error " + retryReason.getCode() + ": " + retryReason.getTitle());
+        try {
+            Thread.sleep(delayMsec);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            retryNanos.addAndGet(System.nanoTime() - attemptStartNanos);
+        }
+    }
+}
@@ -2,16 +2,20 @@ package com.bullhorn.dataloader.rest;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.apache.commons.httpclient.HttpClient;
-import org.apache.commons.httpclient.methods.PostMethod;
-import org.apache.commons.httpclient.methods.StringRequestEntity;
 import org.apache.commons.io.FileUtils;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -28,6 +32,13 @@ import com.bullhorn.dataloader.util.Timer;
 
 /**
  * Utility class for sending DataLoader complete call to REST and optionally outputting results file
+ * <p>
+ * Completed rows only record what the results file needs, without locking: the action totals are already kept in
+ * atomic counters, and errors are appended to a queue, up to the resultsFileMaxErrors limit. The JSON for the results
+ * file is only put together when the results file is written.
+ * <p>
+ * When several files are loaded at the same time, the results file shows the totals and results files of the file that
+ * most recently finished a row, and of each file as it completes, so the totals always match the file they are from.
  */
 public class CompleteUtil {
 
@@ -36,8 +47,10 @@ public class CompleteUtil {
     private final PropertyFileUtil propertyFileUtil;
     private final PrintUtil printUtil;
     private final Timer timer;
-    private final AtomicReference<JSONObject> resultsWrapper = new AtomicReference<>(new JSONObject());
-    private ScheduledExecutorService scheduler;
+    private final AtomicReference<FileResults> latestFileResults = new AtomicReference<>();
+    private final AtomicBoolean resultsChanged = new AtomicBoolean(false);
+    private final ConcurrentLinkedQueue<JSONObject> errors = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger errorCount = new AtomicInteger(0);
 
     public CompleteUtil(RestSession restSession,
                         HttpClient httpClient,
@@ -51,8 +64,13 @@ public class CompleteUtil {
         this.timer = timer;
 
         if (propertyFileUtil.getResultsFileEnabled()) {
-            scheduler = Executors.newScheduledThreadPool(1);
-            scheduler.scheduleAtFixedRate(this::writeResultsFile, propertyFileUtil.getResultsFileWriteIntervalMsec(),
+            // Keeps writing while other files are still loading, without keeping the process alive at the end
+            ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1, runnable -> {
+                Thread thread = new Thread(runnable, "results-file-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::writeChangedResultsFile, propertyFileUtil.getResultsFileWriteIntervalMsec(),
                 propertyFileUtil.getResultsFileWriteIntervalMsec(), TimeUnit.MILLISECONDS);
         }
     }
@@ -61,10 +79,24 @@ public class CompleteUtil {
                          String fileName,
                          EntityInfo entityInfo,
                          ActionTotals actionTotals) {
+        complete(command, fileName, entityInfo, actionTotals, timer.getDurationMillis());
+    }
+
+    /**
+     * Completes a file that was timed on its own, for files that are loaded at the same time as other files.
+     */
+    public void complete(Command command,
+                         String fileName,
+                         EntityInfo entityInfo,
+                         ActionTotals actionTotals,
+                         long durationMsec) {
         if (propertyFileUtil.getResultsFileEnabled()) {
-            // Cleanup output file timer and write final results
-            scheduler.shutdown();
-            writeResultsFile();
+            // Write the final results of this file
+            FileResults fileResults = new FileResults(actionTotals,
+                CsvFileWriter.getResultsFilePath(fileName, command, Result.Status.SUCCESS),
+                CsvFileWriter.getResultsFilePath(fileName, command, Result.Status.FAILURE));
+            latestFileResults.set(fileResults);
+            writeResultsFile(fileResults);
         }
 
         RestApi restApi = restSession.getRestApi();
@@ -85,62 +117,112 @@ public class CompleteUtil {
             jsonObject.put("totalRecords", totalRecords);
             jsonObject.put("successRecords", successRecords);
             jsonObject.put("failureRecords", failureRecords);
-            jsonObject.put("durationMsec", timer.getDurationMillis());
+            jsonObject.put("durationMsec", durationMsec);
             jsonObject.put("numThreads", propertyFileUtil.getNumThreads());
             String jsonString = jsonObject.toString();
-            StringRequestEntity stringRequestEntity = new StringRequestEntity(jsonString, "application/json", "UTF-8");
-
-            PostMethod postMethod = new PostMethod(uriBuilder.toString());
-            postMethod.setRequestEntity(stringRequestEntity);
-            httpClient.executeMethod(postMethod);
+            HttpPost httpPost = new HttpPost(uriBuilder.build());
+            httpPost.setEntity(new StringEntity(jsonString, ContentType.APPLICATION_JSON));
+            // The response handler consumes the response, which returns the connection to the pool
+            httpClient.execute(httpPost, response -> response.getStatusLine().getStatusCode());
         } catch (Exception e) {
             printUtil.log(e);
         }
     }
 
     /**
-     * Called by each individual task once a row has been processed, if we are outputting a results file. Must be
-     * synchronized, as this call can be made from multiple threads concurrently.
+     * Called by each individual task once a row has been processed, if we are outputting a results file. This call can
+     * be made from multiple threads concurrently, so it only records the totals and appends any error.
      *
-     * @param row          the row that just finished processing
-     * @param result       the results of the row processing
-     * @param actionTotals the totals so far
+     * @param row           the row that just finished processing
+     * @param result        the results of the row processing
+     * @param actionTotals  the totals so far
+     * @param csvFileWriter the writer of the results files of the row's file
      */
-    public synchronized void rowComplete(Row row, Result result, ActionTotals actionTotals) {
-        JSONObject updatedResults = new JSONObject(resultsWrapper.get(), new String[]{"errors"});
-        updatedResults.put("processed", actionTotals.getAllActionsTotal());
-        updatedResults.put("inserted", actionTotals.getActionTotal(Result.Action.INSERT));
-        updatedResults.put("updated", actionTotals.getActionTotal(Result.Action.UPDATE));
-        updatedResults.put("skipped", actionTotals.getActionTotal(Result.Action.SKIP));
-        updatedResults.put("deleted", actionTotals.getActionTotal(Result.Action.DELETE));
-        updatedResults.put("failed", actionTotals.getActionTotal(Result.Action.FAILURE));
-        updatedResults.put("successFile", CsvFileWriter.successFilePath);
-        updatedResults.put("failureFile", CsvFileWriter.failureFilePath);
-        updatedResults.put("logFile", "log/dataloader_" + StringConsts.TIMESTAMP + ".log");
-        updatedResults.put("startTime", timer.getStartTime());
-        updatedResults.put("durationMsec", timer.getDurationMillis());
+    public void rowComplete(Row row, Result result, ActionTotals actionTotals, CsvFileWriter csvFileWriter) {
+        latestFileResults.set(new FileResults(actionTotals, csvFileWriter.getSuccessFilePath(),
+            csvFileWriter.getFailureFilePath()));
+        resultsChanged.set(true);
         if (!result.isSuccess()) {
-            JSONObject error = new JSONObject();
-            error.put("row", row.getNumber());
-            error.put("id", result.getBullhornId() <= 0 ? null : result.getBullhornId());
-            error.put("errorCode", result.getErrorInfo().getCode());
-            error.put("title", result.getErrorInfo().getTitle());
-            error.put("message", result.getErrorDetails());
-            error.put("tipsToResolve", result.getErrorInfo().getTipsToResolve());
-            JSONArray errors = updatedResults.has("errors") ? updatedResults.getJSONArray("errors") : new JSONArray();
-            errors.put(error);
-            updatedResults.put("errors", errors);
+            int errorNumber = errorCount.incrementAndGet();
+            Integer maxErrors = propertyFileUtil.getResultsFileMaxErrors();
+            if (maxErrors == 0 || errorNumber <= maxErrors) {
+                JSONObject error = new JSONObject();
+                error.put("row", row.getNumber());
+                error.put("id", result.getBullhornId() <= 0 ? null : result.getBullhornId());
+                error.put("errorCode", result.getErrorInfo().getCode());
+                error.put("title", result.getErrorInfo().getTitle());
+                error.put("message", result.getErrorDetails());
+                error.put("tipsToResolve", result.getErrorInfo().getTipsToResolve());
+                errors.add(error);
+            }
+        }
+    }
+
+    /**
+     * Puts together the contents of the results file from the rows that have completed so far.
+     *
+     * @param actionTotals    the totals of the file
+     * @param successFilePath the success results file of the file
+     * @param failureFilePath the failure results file of the file
+     */
+    JSONObject getResults(ActionTotals actionTotals, String successFilePath, String failureFilePath) {
+        JSONObject results = new JSONObject();
+        results.put("processed", actionTotals.getAllActionsTotal());
+        results.put("inserted", actionTotals.getActionTotal(Result.Action.INSERT));
+        results.put("updated", actionTotals.getActionTotal(Result.Action.UPDATE));
+        results.put("unchanged", actionTotals.getActionTotal(Result.Action.UNCHANGED));
+        results.put("upToDate", actionTotals.getActionTotal(Result.Action.UP_TO_DATE));
+        results.put("skipped", actionTotals.getActionTotal(Result.Action.SKIP));
+        results.put("deleted", actionTotals.getActionTotal(Result.Action.DELETE));
+        results.put("failed", actionTotals.getActionTotal(Result.Action.FAILURE));
+        results.put("successFile", successFilePath);
+        results.put("failureFile", failureFilePath);
+        results.put("logFile", "log/dataloader_" + StringConsts.TIMESTAMP + ".log");
+        results.put("startTime", timer.getStartTime());
+        results.put("durationMsec", timer.getDurationMillis());
+        if (!errors.isEmpty()) {
+            results.put("errors", new JSONArray(errors));
+        }
+        Integer maxErrors = propertyFileUtil.getResultsFileMaxErrors();
+        if (maxErrors > 0 && errorCount.get() > maxErrors) {
+            results.put("errorsNotListed", errorCount.get() - maxErrors);
+        }
+        return results;
+    }
+
+    /**
+     * Called every resultsFileWriteIntervalMsec, to write the results file if a row has finished since the last write.
+     */
+    private void writeChangedResultsFile() {
+        FileResults fileResults = latestFileResults.get();
+        if (fileResults != null && resultsChanged.getAndSet(false)) {
+            writeResultsFile(fileResults);
         }
-        resultsWrapper.set(updatedResults);
     }
 
-    private synchronized void writeResultsFile() {
+    private synchronized void writeResultsFile(FileResults fileResults) {
         try {
-            String resultsString = resultsWrapper.get().toString(2);
+            String resultsString = getResults(fileResults.actionTotals, fileResults.successFilePath,
+                fileResults.failureFilePath).toString(2);
             File file = new File(propertyFileUtil.getResultsFilePath());
             FileUtils.writeStringToFile(file, resultsString, StandardCharsets.UTF_8);
         } catch (Exception e) {
             printUtil.printAndLog("Error writing results file: " + e);
         }
     }
+
+    /**
+     * The totals of a file along with its results files, so that they are always written together.
+     */
+    private static class FileResults {
+        private final ActionTotals actionTotals;
+        private final String successFilePath;
+        private final String failureFilePath;
+
+        FileResults(ActionTotals actionTotals, String successFilePath, String failureFilePath) {
+            this.actionTotals = actionTotals;
+            this.successFilePath = successFilePath;
+            this.failureFilePath = failureFilePath;
+        }
+    }
 }
@@ -1,10 +1,11 @@
 package com.bullhorn.dataloader.rest;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.math.BigDecimal;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.joda.time.DateTime;
@@ -12,8 +13,6 @@ import org.joda.time.format.DateTimeFormatter;
 
 import com.bullhorn.dataloader.data.Cell;
 import com.bullhorn.dataloader.enums.EntityInfo;
-import com.bullhorn.dataloader.util.AssociationUtil;
-import com.bullhorn.dataloader.util.MethodUtil;
 import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
 import com.bullhornsdk.data.model.entity.embedded.Address;
 import com.bullhornsdk.data.model.entity.embedded.OneToMany;
@@ -31,10 +30,7 @@ public class Field {
     private final Cell cell;
     private Boolean existField;
     private final DateTimeFormatter dateTimeFormatter;
-    private final Method getMethod;
-    private final Method setMethod;
-    private final Method getAssociationMethod;
-    private final Method setAssociationMethod;
+    private final FieldPlan fieldPlan;
 
     /**
      * Constructor which takes the type of entity and the raw cell data.
@@ -51,39 +47,33 @@ public class Field {
                  Cell cell,
                  Boolean existField,
                  DateTimeFormatter dateTimeFormatter) {
-        this.entityInfo = entityInfo;
+        this(FieldPlan.get(entityInfo, cell.getName()), cell, existField, dateTimeFormatter);
+    }
+
+    /**
+     * Constructor which binds the raw cell data of a single row to the compiled plan for the cell's column.
+     * <p>
+     * Raw cell data may be modified to match the correct field name if the capitalization is incorrect.
+     *
+     * @param fieldPlan         the compiled information for the column that this cell is in
+     * @param cell              the raw data from the spreadsheet
+     * @param existField        set to true if this field is to be used for determining if the entity exists (a.k.a.
+     *                          duplicate checker)
+     * @param dateTimeFormatter the format of date/time that the user has configured
+     */
+    public Field(FieldPlan fieldPlan,
+                 Cell cell,
+                 Boolean existField,
+                 DateTimeFormatter dateTimeFormatter) {
+        this.entityInfo = fieldPlan.getEntityInfo();
         this.cell = cell;
         this.existField = existField;
         this.dateTimeFormatter = dateTimeFormatter;
+        this.fieldPlan = fieldPlan;
 
-        // The getMethod/setMethod will be the direct methods on either the current entity or the associated entity.
-        // For Example:
-        //     'externalID' => <CurrentEntity>:getExternalId() / <CurrentEntity>:setExternalId()
-        //   'candidate.id' => Candidate:getId() / Candidate:setId()
-        //  'candidates.id' => Candidate:getId() / Candidate:setId()
-        this.getMethod = MethodUtil.getGetterMethod(getFieldEntity(), getName());
-        this.setMethod = MethodUtil.getSetterMethod(getFieldEntity(), getName());
-        final String verifiedFieldName = MethodUtil.getFieldNameFromMethod(getMethod, getName());
-
-        // For all non-direct fields, store the get/set methods for the association, such as getAddress()/setAddress()
-        if (cell.isAssociation()) {
-            this.getAssociationMethod = MethodUtil.getGetterMethod(entityInfo, cell.getAssociationBaseName());
-            this.setAssociationMethod = MethodUtil.getSetterMethod(entityInfo, cell.getAssociationBaseName());
-            final String verifiedAssociationBaseName = MethodUtil.getFieldNameFromMethod(getAssociationMethod, cell.getAssociationBaseName());
-
-            // Correct capitalization mistakes for the association cell
-            if (!this.cell.getAssociationBaseName().equals(verifiedAssociationBaseName)
-                || !this.cell.getAssociationFieldName().equals(verifiedFieldName)) {
-                this.cell.setAssociationNames(verifiedAssociationBaseName, verifiedFieldName);
-            }
-        } else {
-            this.getAssociationMethod = null;
-            this.setAssociationMethod = null;
-
-            // Correct capitalization mistakes for the direct cell
-            if (!this.cell.getName().equals(verifiedFieldName)) {
-                this.cell.setName(verifiedFieldName);
-            }
+        // Correct capitalization mistakes for the cell
+        if (!this.cell.getName().equals(fieldPlan.getName())) {
+            this.cell.setName(fieldPlan.getName());
         }
     }
 
@@ -113,12 +103,11 @@ public class Field {
     }
 
     public Boolean isToOne() {
-        return cell.isAssociation() && !cell.isAddress()
-            && !AssociationUtil.isToMany(entityInfo, cell.getAssociationBaseName());
+        return fieldPlan.isToOne();
     }
 
     public Boolean isToMany() {
-        return cell.isAssociation() && AssociationUtil.isToMany(entityInfo, cell.getAssociationBaseName());
+        return fieldPlan.isToMany();
     }
 
     /**
@@ -164,7 +153,7 @@ public class Field {
      * @return this entity if direct, an associated entity if To-One or To-Many.
      */
     public EntityInfo getFieldEntity() {
-        return cell.isAssociation() ? AssociationUtil.getFieldEntity(entityInfo, cell) : entityInfo;
+        return fieldPlan.getFieldEntity();
     }
 
     /**
@@ -175,7 +164,7 @@ public class Field {
      * @return cannot be null, since that would throw an exception in the constructor.
      */
     public Class getFieldType() {
-        return setMethod.getParameterTypes()[0];
+        return fieldPlan.getFieldType();
     }
 
     /**
@@ -184,7 +173,7 @@ public class Field {
      * @return the value that has been converted to the appropriate type, or null if there is an error.
      */
     public Object getValue() throws ParseException {
-        return MethodUtil.convertStringToObject(cell.getValue(), getFieldType(), dateTimeFormatter);
+        return fieldPlan.getValueConverter().convert(cell.getValue(), dateTimeFormatter);
     }
 
     /**
@@ -225,10 +214,10 @@ public class Field {
         if (cell.isAssociation() && entityInfo.getEntityClass().equals(entity.getClass())) {
             if (isToMany()) {
                 List<String> values = new ArrayList<>();
-                OneToMany toManyAssociation = (OneToMany) getAssociationMethod.invoke(entity);
+                OneToMany toManyAssociation = (OneToMany) fieldPlan.getAssociationGetter().get(entity);
                 if (toManyAssociation != null) {
                     for (Object association : toManyAssociation.getData()) {
-                        Object value = getMethod.invoke(association);
+                        Object value = fieldPlan.getGetter().get(association);
                         if (value != null) {
                             String stringValue = String.valueOf(value);
                             values.add(stringValue);
@@ -237,16 +226,16 @@ public class Field {
                 }
                 return String.join(delimiter, values);
             } else {
-                Object toOneAssociation = getAssociationMethod.invoke(entity);
+                Object toOneAssociation = fieldPlan.getAssociationGetter().get(entity);
                 if (toOneAssociation == null) {
                     return "";
                 }
-                Object value = getMethod.invoke(toOneAssociation);
+                Object value = fieldPlan.getGetter().get(toOneAssociation);
                 return value != null ? String.valueOf(value) : "";
             }
         }
 
-        Object value = getMethod.invoke(entity);
+        Object value = fieldPlan.getGetter().get(entity);
         if (value == null) {
             return "";
         }
@@ -257,6 +246,34 @@ public class Field {
         return String.valueOf(value);
     }
 
+    /**
+     * Returns true if the given entity already holds the value in the cell, so that the field can be left out of an
+     * update.
+     * <p>
+     * Values are first compared as they would be exported, which matches dates in the configured date format. Direct
+     * fields are then compared as the converted value, which matches differently written values of the same number or
+     * boolean. This does not apply to To-Many fields, which are compared as associations.
+     *
+     * @param entity    the existing entity, fetched with this field in the fields parameter
+     * @param delimiter the character(s) to split on
+     * @return true if the value is the same, false if the field needs to be updated
+     */
+    public Boolean hasSameValueOnEntity(Object entity, String delimiter) throws ParseException,
+        InvocationTargetException, IllegalAccessException {
+        if (getStringValue().equals(getStringValueFromEntity(entity, delimiter))) {
+            return true;
+        }
+        if (cell.isAssociation()) {
+            return false;
+        }
+        Object value = getValue();
+        Object currentValue = fieldPlan.getGetter().get(entity);
+        if (value instanceof BigDecimal && currentValue instanceof BigDecimal) {
+            return ((BigDecimal) value).compareTo((BigDecimal) currentValue) == 0;
+        }
+        return Objects.equals(value, currentValue);
+    }
+
     /**
      * Calls the appropriate set method on the given SDK-REST entity object in order to send the entity in a REST call.
      * <p>
@@ -266,14 +283,14 @@ public class Field {
      */
     public void populateFieldOnEntity(Object entity) throws ParseException, InvocationTargetException, IllegalAccessException {
         if (cell.isAddress()) {
-            Address address = (Address) getAssociationMethod.invoke(entity);
+            Address address = (Address) fieldPlan.getAssociationGetter().get(entity);
             if (address == null) {
                 address = new Address();
             }
-            setMethod.invoke(address, getValue());
-            setAssociationMethod.invoke(entity, address);
+            fieldPlan.getSetter().set(address, getValue());
+            fieldPlan.getAssociationSetter().set(entity, address);
         } else {
-            setMethod.invoke(entity, getValue());
+            fieldPlan.getSetter().set(entity, getValue());
         }
     }
 
@@ -286,18 +303,18 @@ public class Field {
     @SuppressWarnings("unchecked")
     public void populateAssociationOnEntity(BullhornEntity entity, BullhornEntity associatedEntity) throws
         ParseException, InvocationTargetException, IllegalAccessException {
-        setMethod.invoke(associatedEntity, getValue());
+        fieldPlan.getSetter().set(associatedEntity, getValue());
         if (isToMany()) {
-            OneToMany<BullhornEntity> oneToMany = (OneToMany<BullhornEntity>) getAssociationMethod.invoke(entity);
+            OneToMany<BullhornEntity> oneToMany = (OneToMany<BullhornEntity>) fieldPlan.getAssociationGetter().get(entity);
             if (oneToMany == null) {
                 oneToMany = new OneToMany<>();
             }
             List<BullhornEntity> associations = oneToMany.getData();
             associations.add(associatedEntity);
             oneToMany.setData(associations);
-            setAssociationMethod.invoke(entity, oneToMany);
+            fieldPlan.getAssociationSetter().set(entity, oneToMany);
         } else {
-            setAssociationMethod.invoke(entity, associatedEntity);
+            fieldPlan.getAssociationSetter().set(entity, associatedEntity);
         }
     }
 
@@ -307,7 +324,7 @@ public class Field {
      * @param entity the entity object to get the association value from.
      */
     public OneToMany getOneToManyFromEntity(BullhornEntity entity) throws InvocationTargetException, IllegalAccessException {
-        return (OneToMany) getAssociationMethod.invoke(entity);
+        return (OneToMany) fieldPlan.getAssociationGetter().get(entity);
     }
 
     /**
@@ -317,6 +334,6 @@ public class Field {
      * @param oneToMany the OneToMany object for this To-Many field
      */
     public void populateOneToManyOnEntity(BullhornEntity entity, OneToMany oneToMany) throws InvocationTargetException, IllegalAccessException {
-        setAssociationMethod.invoke(entity, oneToMany);
+        fieldPlan.getAssociationSetter().set(entity, oneToMany);
     }
 }
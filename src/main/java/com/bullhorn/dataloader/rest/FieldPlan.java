@@ -0,0 +1,164 @@
+package com.bullhorn.dataloader.rest;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.AssociationUtil;
+import com.bullhorn.dataloader.util.MethodAccessor;
+import com.bullhorn.dataloader.util.MethodUtil;
+import com.bullhorn.dataloader.util.ValueConverter;
+
+/**
+ * The compiled, row independent information about a single column of an input file for a given entity.
+ * <p>
+ * Resolving the get/set methods, the type of association and the field type of a column requires reflection over the
+ * SDK-REST entity classes. Since this information is the same for every row in a file, it is compiled once per column
+ * and shared by all of the Field objects that bind the individual cell values of each row.
+ */
+public class FieldPlan {
+
+    // This is a cached map of compiled plans per entity
+    // The key is always this entity, and each value is the map of user provided column name to compiled plan
+    private static final Map<EntityInfo, Map<String, FieldPlan>> entityToFieldPlansMap = new ConcurrentHashMap<>();
+
+    private final EntityInfo entityInfo;
+    private final EntityInfo fieldEntity;
+    private final String name;
+    private final Boolean association;
+    private final Boolean address;
+    private final Boolean toMany;
+    private final Method setMethod;
+    private final MethodAccessor getter;
+    private final MethodAccessor setter;
+    private final MethodAccessor associationGetter;
+    private final MethodAccessor associationSetter;
+    private final ValueConverter valueConverter;
+
+    /**
+     * Returns the compiled plan for the given column on the given entity, compiling it the first time through.
+     * <p>
+     * Columns that do not exist on the entity are not cached, so the error is thrown again for every row that uses it.
+     *
+     * @param entityInfo the type of entity that this column is for
+     * @param columnName the name of the column, as provided in the cell
+     * @return the compiled plan for the column
+     */
+    public static FieldPlan get(EntityInfo entityInfo, String columnName) {
+        return entityToFieldPlansMap.computeIfAbsent(entityInfo, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(columnName, k -> new FieldPlan(entityInfo, columnName));
+    }
+
+    /**
+     * Constructor which performs all reflection required for the given column.
+     *
+     * @param entityInfo the type of entity that this column is for
+     * @param columnName the name of the column, which may have incorrect capitalization
+     */
+    private FieldPlan(EntityInfo entityInfo, String columnName) {
+        Cell cell = new Cell(columnName, "");
+        this.entityInfo = entityInfo;
+        this.association = cell.isAssociation();
+        this.address = cell.isAddress();
+        this.toMany = association && AssociationUtil.isToMany(entityInfo, cell.getAssociationBaseName());
+        this.fieldEntity = association ? AssociationUtil.getFieldEntity(entityInfo, cell) : entityInfo;
+
+        // The getMethod/setMethod will be the direct methods on either the current entity or the associated entity.
+        // For Example:
+        //     'externalID' => <CurrentEntity>:getExternalId() / <CurrentEntity>:setExternalId()
+        //   'candidate.id' => Candidate:getId() / Candidate:setId()
+        //  'candidates.id' => Candidate:getId() / Candidate:setId()
+        String fieldName = association ? cell.getAssociationFieldName() : cell.getName();
+        Method getMethod = MethodUtil.getGetterMethod(fieldEntity, fieldName);
+        this.setMethod = MethodUtil.getSetterMethod(fieldEntity, fieldName);
+        this.getter = MethodAccessor.of(getMethod);
+        this.setter = MethodAccessor.of(setMethod);
+        this.valueConverter = ValueConverter.fromType(setMethod.getParameterTypes()[0]);
+        final String verifiedFieldName = MethodUtil.getFieldNameFromMethod(getMethod, fieldName);
+
+        // For all non-direct fields, store the get/set methods for the association, such as getAddress()/setAddress()
+        if (association) {
+            Method getAssociationMethod = MethodUtil.getGetterMethod(entityInfo, cell.getAssociationBaseName());
+            Method setAssociationMethod = MethodUtil.getSetterMethod(entityInfo, cell.getAssociationBaseName());
+            this.associationGetter = MethodAccessor.of(getAssociationMethod);
+            this.associationSetter = MethodAccessor.of(setAssociationMethod);
+            final String verifiedAssociationBaseName = MethodUtil.getFieldNameFromMethod(getAssociationMethod,
+                cell.getAssociationBaseName());
+            this.name = verifiedAssociationBaseName + "." + verifiedFieldName;
+        } else {
+            this.associationGetter = null;
+            this.associationSetter = null;
+            this.name = verifiedFieldName;
+        }
+    }
+
+    public EntityInfo getEntityInfo() {
+        return entityInfo;
+    }
+
+    /**
+     * Returns the type of entity that this column exists on, either direct or associated.
+     */
+    EntityInfo getFieldEntity() {
+        return fieldEntity;
+    }
+
+    /**
+     * Returns the column name with any capitalization mistakes corrected.
+     */
+    String getName() {
+        return name;
+    }
+
+    Boolean isToOne() {
+        return association && !address && !toMany;
+    }
+
+    Boolean isToMany() {
+        return toMany;
+    }
+
+    /**
+     * Returns the simple data type of the field, or of the association's field if an association.
+     */
+    Class getFieldType() {
+        return setMethod.getParameterTypes()[0];
+    }
+
+    /**
+     * Returns the converter from the string value in a cell to the field type.
+     */
+    ValueConverter getValueConverter() {
+        return valueConverter;
+    }
+
+    /**
+     * Returns the getter for the field on either the current entity or the associated entity.
+     */
+    MethodAccessor getGetter() {
+        return getter;
+    }
+
+    /**
+     * Returns the setter for the field on either the current entity or the associated entity.
+     */
+    MethodAccessor getSetter() {
+        return setter;
+    }
+
+    /**
+     * Returns the getter for the association on the current entity, such as getAddress(), or null if a direct field.
+     */
+    MethodAccessor getAssociationGetter() {
+        return associationGetter;
+    }
+
+    /**
+     * Returns the setter for the association on the current entity, such as setAddress(), or null if a direct field.
+     */
+    MethodAccessor getAssociationSetter() {
+        return associationSetter;
+    }
+}
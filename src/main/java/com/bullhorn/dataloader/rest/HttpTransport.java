@@ -0,0 +1,148 @@
+package com.bullhorn.dataloader.rest;
+
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+
+/**
+ * The HTTP connections shared by all rest calls, including the SDK-REST calls and the DataLoader complete call.
+ * <p>
+ * Connections are kept alive and reused from a pool that is sized to the number of threads that make rest calls at the
+ * same time, so that calls do not pay for a new connection and TLS handshake each time. Responses are requested and
+ * decoded with gzip compression. The number of connections opened versus reused, and the time spent waiting for a
+ * pooled connection, are printed at the end of each run to help with sizing.
+ */
+public class HttpTransport {
+
+    private static final long IDLE_CONNECTION_SECONDS = 30;
+    private static final int VALIDATE_AFTER_INACTIVITY_MSEC = 2000;
+
+    private final InstrumentedConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    public HttpTransport(PropertyFileUtil propertyFileUtil, ConcurrencyLimiter concurrencyLimiter) {
+        Integer maxConnections = getMaxConnections(propertyFileUtil, concurrencyLimiter);
+
+        connectionManager = new InstrumentedConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MSEC);
+
+        // Content compression (gzip and deflate) is enabled by default in the builder
+        int callTimeoutMsec = (int) TimeUnit.SECONDS.toMillis(propertyFileUtil.getCallTimeoutSeconds());
+        httpClient = HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom().setSocketTimeout(callTimeoutMsec).build())
+            .evictIdleConnections(IDLE_CONNECTION_SECONDS, TimeUnit.SECONDS)
+            .build();
+    }
+
+    /**
+     * One connection for each thread that can make rest calls at the same time: the task threads, which can grow up to
+     * the maximum with adaptive concurrency, the page fetch threads, and the main thread.
+     */
+    static Integer getMaxConnections(PropertyFileUtil propertyFileUtil, ConcurrencyLimiter concurrencyLimiter) {
+        return concurrencyLimiter.getMaxLimit() + propertyFileUtil.getPageFetchThreads() + 1;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Sends all calls made through the given rest template over the pooled connections.
+     */
+    public void applyTo(RestTemplate restTemplate) {
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Prints how often connections were reused and how long calls waited for a pooled connection, if any calls were made.
+     *
+     * @param printUtil for printing and logging the statistics
+     */
+    public void printStatistics(PrintUtil printUtil) {
+        long leased = connectionManager.leased.get();
+        if (leased == 0) {
+            return;
+        }
+        long opened = connectionManager.opened.get();
+        NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+        printUtil.log("HTTP connections: " + numberFormat.format(leased) + " calls, " + numberFormat.format(opened)
+            + " connections opened, " + (100 * (leased - opened) / leased) + "% of calls reused a connection, waited "
+            + numberFormat.format(TimeUnit.NANOSECONDS.toMillis(connectionManager.waitNanos.get()))
+            + " ms for a pooled connection");
+    }
+
+    long getLeasedCount() {
+        return connectionManager.leased.get();
+    }
+
+    long getOpenedCount() {
+        return connectionManager.opened.get();
+    }
+
+    Integer getMaxTotal() {
+        return connectionManager.getMaxTotal();
+    }
+
+    /**
+     * Counts each connection handed out by the pool, the time spent waiting for it, and each new connection opened.
+     */
+    private static class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final AtomicLong leased = new AtomicLong(0);
+        private final AtomicLong opened = new AtomicLong(0);
+        private final AtomicLong waitNanos = new AtomicLong(0);
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest connectionRequest = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long startNanos = System.nanoTime();
+                    try {
+                        return connectionRequest.get(timeout, timeUnit);
+                    } finally {
+                        waitNanos.addAndGet(System.nanoTime() - startNanos);
+                        leased.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return connectionRequest.cancel();
+                }
+            };
+        }
+
+        @Override
+        public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+            opened.incrementAndGet();
+            super.connect(managedConn, route, connectTimeout, context);
+        }
+    }
+}
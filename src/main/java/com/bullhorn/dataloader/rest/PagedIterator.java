@@ -0,0 +1,111 @@
+package com.bullhorn.dataloader.rest;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import com.bullhornsdk.data.model.response.list.ListWrapper;
+
+/**
+ * Iterates over the records of a lookup one page at a time, so that only the current page is held in memory.
+ * <p>
+ * Pages are pulled lazily as the records are consumed. If an executor is provided, the next page is pulled in the
+ * background while the current page is being consumed. The next page starts after the records that have been returned
+ * so far, and pages stop once the total is reached, or for calls that do not return a total, once a page comes back
+ * with fewer records than requested.
+ *
+ * @param <T> the type of record returned
+ */
+public class PagedIterator<T> implements Iterator<T> {
+
+    private final Function<Integer, ListWrapper<T>> pagePull;
+    private final Integer pageSize;
+    private final Integer maxRecords;
+    private final ExecutorService prefetchExecutorService;
+
+    private List<T> currentPage = Collections.emptyList();
+    private int currentIndex = 0;
+    private Integer nextStart = 0; // The start of the next page to pull, or null if there are no more pages
+    private CompletableFuture<ListWrapper<T>> prefetchedPage = null;
+
+    /**
+     * Constructor, which does not pull the first page until the first record is requested.
+     *
+     * @param pagePull                the call that returns the page that begins at the given start
+     * @param pageSize                the number of records requested in each page
+     * @param maxRecords              the maximum number of records to return in total
+     * @param prefetchExecutorService where to pull the next page in the background, or null to pull when needed
+     */
+    PagedIterator(Function<Integer, ListWrapper<T>> pagePull,
+                  Integer pageSize,
+                  Integer maxRecords,
+                  ExecutorService prefetchExecutorService) {
+        this.pagePull = pagePull;
+        this.pageSize = pageSize;
+        this.maxRecords = maxRecords;
+        this.prefetchExecutorService = prefetchExecutorService;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentIndex >= currentPage.size()) {
+            if (nextStart == null) {
+                return false;
+            }
+            moveToNextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.get(currentIndex++);
+    }
+
+    /**
+     * Replaces the current page with the next page, and starts pulling the page after that if there is one.
+     */
+    private void moveToNextPage() {
+        ListWrapper<T> page;
+        if (prefetchedPage != null) {
+            try {
+                page = prefetchedPage.join();
+            } catch (CompletionException e) {
+                nextStart = null;
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            } finally {
+                prefetchedPage = null;
+            }
+        } else {
+            page = pagePull.apply(nextStart);
+        }
+
+        List<T> data = page == null || page.getData() == null ? Collections.emptyList() : page.getData();
+        currentPage = data.subList(0, Math.min(data.size(), maxRecords - nextStart));
+        currentIndex = 0;
+        nextStart += currentPage.size();
+
+        if (!hasMorePages(page, data.size())) {
+            nextStart = null;
+        } else if (prefetchExecutorService != null) {
+            final Integer start = nextStart;
+            prefetchedPage = CompletableFuture.supplyAsync(() -> pagePull.apply(start), prefetchExecutorService);
+        }
+    }
+
+    private boolean hasMorePages(ListWrapper<T> page, int pageCount) {
+        if (pageCount == 0 || nextStart >= maxRecords) {
+            return false;
+        }
+        Integer total = page.getTotal();
+        return total != null ? nextStart < total : pageCount >= pageSize;
+    }
+}
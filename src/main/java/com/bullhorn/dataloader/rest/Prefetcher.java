@@ -0,0 +1,207 @@
+package com.bullhorn.dataloader.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Level;
+
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.data.Row;
+import com.bullhorn.dataloader.enums.Command;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.ArrayUtil;
+import com.bullhorn.dataloader.util.FindUtil;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhorn.dataloader.util.StringConsts;
+import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
+import com.bullhornsdk.data.model.entity.core.type.QueryEntity;
+import com.bullhornsdk.data.model.entity.core.type.SearchEntity;
+import com.bullhornsdk.data.model.parameter.standard.ParamFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Looks ahead at upcoming rows in order to find their existing records in one call, instead of one call per row.
+ * <p>
+ * Before a window of rows is handed to the tasks, the exist field values of all rows are collected into a single
+ * search or query, like: (externalID:"1" OR externalID:"2" OR externalID:"3"). The records found are added to the
+ * cache, in the same form as the lookup that each task makes for its own row, so the tasks find them without a rest
+ * call. Values that are not found are left out of the cache, so those rows still make their own lookup as usual.
+ */
+public class Prefetcher {
+
+    public static final Integer WINDOW_SIZE = 200;
+
+    private final RestSession restSession;
+    private final Cache cache;
+    private final PropertyFileUtil propertyFileUtil;
+    private final PrintUtil printUtil;
+
+    public Prefetcher(RestSession restSession, Cache cache, PropertyFileUtil propertyFileUtil, PrintUtil printUtil) {
+        this.restSession = restSession;
+        this.cache = cache;
+        this.propertyFileUtil = propertyFileUtil;
+        this.printUtil = printUtil;
+    }
+
+    /**
+     * Finds the existing records for the given rows in one call, and adds them to the cache.
+     * <p>
+     * Only applies when caching, and when records are looked up by a single, direct field: a configured exist field
+     * for load and export, or the id for delete. Any errors are logged and ignored, since each task will make its own
+     * lookup and report its own errors.
+     *
+     * @param command    the command that the tasks will run, which determines the lookup that the tasks will make
+     * @param entityInfo the type of entity in the file
+     * @param rows       the upcoming rows
+     */
+    public void prefetch(Command command, EntityInfo entityInfo, List<Row> rows) {
+        if (!propertyFileUtil.getCaching() || propertyFileUtil.getWildcardMatching() || entityInfo == EntityInfo.PERSON
+            || (command != Command.LOAD && command != Command.EXPORT && command != Command.DELETE)) {
+            return;
+        }
+
+        try {
+            Set<String> returnFields = Sets.newHashSet(StringConsts.ID);
+            Map<String, Field> valueToFieldMap = new LinkedHashMap<>();
+            List<String> fieldsParameterNames = null;
+            for (Row row : rows) {
+                Field field = getLookupField(command, entityInfo, row);
+                if (field == null) {
+                    continue;
+                }
+                // The fields parameter only depends on the headers, so it is only built again when they change
+                List<String> names = row.getNames();
+                if (!names.equals(fieldsParameterNames)) {
+                    Set<String> fieldsParameter = getFieldsParameter(command, entityInfo, row);
+                    if (fieldsParameter == null) {
+                        continue;
+                    }
+                    returnFields.addAll(fieldsParameter);
+                    fieldsParameterNames = names;
+                }
+                valueToFieldMap.putIfAbsent(field.getStringValue(), field);
+            }
+
+            // A single row is left to make its own lookup
+            if (valueToFieldMap.size() < 2) {
+                return;
+            }
+            List<Field> fields = new ArrayList<>(valueToFieldMap.values());
+            returnFields.add(fields.get(0).getFieldParameterName(true));
+
+            // Deletes only look up active records
+            List<Field> activeFields = Lists.newArrayList();
+            if (command == Command.DELETE && entityInfo.isSoftDeletable()) {
+                Cell isDeletedCell = new Cell(StringConsts.IS_DELETED, FindUtil.getIsDeletedValue(entityInfo, false));
+                Field isDeletedField = new Field(entityInfo, isDeletedCell, true, propertyFileUtil.getDateParser());
+                activeFields.add(isDeletedField);
+                returnFields.add(isDeletedField.getFieldParameterName(true));
+            }
+
+            List<BullhornEntity> entities = findEntities(entityInfo, fields, activeFields, returnFields);
+            for (Map.Entry<String, Field> entry : valueToFieldMap.entrySet()) {
+                List<BullhornEntity> matchingEntities = Lists.newArrayList();
+                for (BullhornEntity entity : entities) {
+                    String value = entry.getValue().getStringValueFromEntity(entity, propertyFileUtil.getListDelimiter());
+                    if (entry.getKey().equals(value)) {
+                        matchingEntities.add(entity);
+                    }
+                }
+                if (!matchingEntities.isEmpty()) {
+                    List<Field> lookupFields = Lists.newArrayList(entry.getValue());
+                    lookupFields.addAll(activeFields);
+                    cache.setEntry(entityInfo, lookupFields, Sets.newHashSet(returnFields), matchingEntities);
+                }
+            }
+            printUtil.log(Level.DEBUG, "Prefetched " + entities.size() + " " + entityInfo.getEntityName()
+                + " records for " + valueToFieldMap.size() + " values");
+        } catch (Exception e) {
+            printUtil.log(Level.WARN, "Failed to prefetch " + entityInfo.getEntityName() + " records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the field that the task for the given row will use to look up its existing record, which is the same for
+     * all rows except for the value, or null if the lookup for this row cannot be prefetched.
+     * <p>
+     * Only the exist field is converted, since the task converts the whole row again when it runs.
+     */
+    private Field getLookupField(Command command, EntityInfo entityInfo, Row row) {
+        try {
+            if (command == Command.DELETE) {
+                if (!row.hasValue(StringConsts.ID)) {
+                    return null;
+                }
+                Cell idCell = new Cell(StringConsts.ID, Integer.valueOf(row.getValue(StringConsts.ID)).toString());
+                return new Field(entityInfo, idCell, true, propertyFileUtil.getDateParser());
+            }
+
+            List<String> existFields = propertyFileUtil.getEntityExistFields(entityInfo);
+            List<Cell> existCells = row.getCells().stream()
+                .filter(cell -> ArrayUtil.containsIgnoreCase(existFields, cell.getName()))
+                .collect(Collectors.toList());
+            if (existCells.size() != 1) {
+                return null;
+            }
+            Field field = new Field(entityInfo, existCells.get(0), true, propertyFileUtil.getDateParser());
+            if (field.getCell().isAssociation() || field.getStringValue().isEmpty()
+                || field.split(propertyFileUtil.getListDelimiter()).size() != 1) {
+                return null;
+            }
+            return field;
+        } catch (RuntimeException e) {
+            // Rows with bad data are reported by their own task
+            return null;
+        }
+    }
+
+    /**
+     * Returns the fields parameter of the lookup for the given row, which is filled out for export, and for load when
+     * only updating changed fields, or null if the row cannot be converted.
+     */
+    private Set<String> getFieldsParameter(Command command, EntityInfo entityInfo, Row row) {
+        if (command != Command.EXPORT && (command != Command.LOAD || !propertyFileUtil.getOnlyUpdateChangedFields())) {
+            return Collections.emptySet();
+        }
+        try {
+            Record record = new Record(entityInfo, row, propertyFileUtil);
+            return record.getFieldsParameter(command == Command.EXPORT);
+        } catch (RuntimeException e) {
+            // Rows with bad data are reported by their own task
+            return null;
+        }
+    }
+
+    /**
+     * Makes the same search or query call that the tasks would make, for all of the values at once.
+     */
+    @SuppressWarnings("unchecked")
+    private <B extends BullhornEntity, S extends SearchEntity, Q extends QueryEntity> List<BullhornEntity> findEntities(
+        EntityInfo entityInfo, List<Field> fields, List<Field> activeFields, Set<String> returnFields) {
+        RestApi restApi = restSession.getRestApi();
+        if (entityInfo.isSearchEntity()) {
+            String searchString = FindUtil.getLuceneSearchForAnyValue(fields, propertyFileUtil, true);
+            if (!activeFields.isEmpty()) {
+                searchString += " AND " + FindUtil.getLuceneSearch(activeFields, propertyFileUtil, true);
+            }
+            List<B> list = (List<B>) restApi.searchForList((Class<S>) entityInfo.getEntityClass(),
+                searchString, returnFields, ParamFactory.searchParams());
+            return (List<BullhornEntity>) list;
+        } else {
+            String where = FindUtil.getSqlQueryForAnyValue(fields, propertyFileUtil, true);
+            if (!activeFields.isEmpty()) {
+                where += " AND " + FindUtil.getSqlQuery(activeFields, propertyFileUtil, true);
+            }
+            List<B> list = (List<B>) restApi.queryForList((Class<Q>) entityInfo.getEntityClass(),
+                where, returnFields, ParamFactory.queryParams());
+            return (List<BullhornEntity>) list;
+        }
+    }
+}
@@ -66,9 +66,10 @@ public class Preloader {
      * Since the REST API only allows us to set the country using `countryID`, we query for all countries by name to
      * allow the `countryName` to upload by name instead of just the internal Bullhorn country code.
      * <p>
-     * Makes rest calls and stores the private data the first time through
+     * Makes rest calls and stores the private data the first time through, synchronized for files that are loaded at
+     * the same time.
      */
-    private Map<String, Integer> getCountryNameToIdMap() {
+    private synchronized Map<String, Integer> getCountryNameToIdMap() {
         if (countryNameToIdMap == null) {
             countryNameToIdMap = createCountryNameToIdMap();
         }
@@ -88,10 +88,24 @@ public class Record {
      * @return the set of fields that will pull from Rest
      */
     public Set<String> getFieldsParameter() {
+        return getFieldsParameter(true);
+    }
+
+    /**
+     * Returns the fields parameter for either all fields, or all fields other than To-Many Associations, which are not
+     * needed when comparing a row against the current values of an existing record.
+     *
+     * @param includeToMany true to include To-Many Associations, false to leave them out
+     * @return the set of fields that will pull from Rest
+     */
+    public Set<String> getFieldsParameter(Boolean includeToMany) {
         Set<String> fieldNames = new HashSet<>();
 
         Map<String, List<String>> fieldToSubfieldMap = new HashMap<>();
         for (Field field : fields) {
+            if (!includeToMany && field.isToMany()) {
+                continue;
+            }
             if (field.getCell().isAssociation()) {
                 String baseName = field.getCell().getAssociationBaseName();
                 List<String> subFields = fieldToSubfieldMap.getOrDefault(baseName, new ArrayList<>());
@@ -1,18 +1,40 @@
 package com.bullhorn.dataloader.rest;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Level;
 
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.util.CallRateLimiter;
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
+import com.bullhorn.dataloader.util.DataLoaderException;
 import com.bullhorn.dataloader.util.FindUtil;
+import com.bullhorn.dataloader.util.MethodAccessor;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhorn.dataloader.util.StringConsts;
 import com.bullhornsdk.data.api.StandardBullhornData;
+import com.bullhornsdk.data.exception.RestApiException;
 import com.bullhornsdk.data.model.entity.association.AssociationField;
 import com.bullhornsdk.data.model.entity.core.standard.JobOrder;
 import com.bullhornsdk.data.model.entity.core.standard.Lead;
@@ -25,18 +47,23 @@ import com.bullhornsdk.data.model.entity.core.type.FileEntity;
 import com.bullhornsdk.data.model.entity.core.type.QueryEntity;
 import com.bullhornsdk.data.model.entity.core.type.SearchEntity;
 import com.bullhornsdk.data.model.entity.core.type.UpdateEntity;
+import com.bullhornsdk.data.model.entity.embedded.OneToMany;
 import com.bullhornsdk.data.model.entity.meta.MetaData;
 import com.bullhornsdk.data.model.enums.MetaParameter;
 import com.bullhornsdk.data.model.file.FileMeta;
 import com.bullhornsdk.data.model.parameter.AssociationParams;
 import com.bullhornsdk.data.model.parameter.QueryParams;
 import com.bullhornsdk.data.model.parameter.SearchParams;
+import com.bullhornsdk.data.model.parameter.standard.ParamFactory;
 import com.bullhornsdk.data.model.response.crud.CrudResponse;
 import com.bullhornsdk.data.model.response.file.FileApiResponse;
 import com.bullhornsdk.data.model.response.file.FileContent;
 import com.bullhornsdk.data.model.response.file.FileWrapper;
 import com.bullhornsdk.data.model.response.list.ListWrapper;
+import com.bullhornsdk.data.model.response.list.StandardListWrapper;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Encapsulation of the standard SDK-REST BullhornData class for interacting with Bullhorn's REST API Provides an extra layer of functionality needed
@@ -48,19 +75,38 @@ public class RestApi {
     private static final Integer MAX_ASSOCIATIONS_PER_CALL = 500;
     private static final Integer MAX_RECORDS_TO_RETURN_IN_ONE_PULL = 500;
     private static final Integer MAX_RECORDS_TO_RETURN_TOTAL = 20000;
+    private static final Integer HTTP_OK = 200;
+    private static final Pattern HTTP_STATUS_PATTERN = Pattern.compile("Http status code: (\\d{3})");
+    private static final Pattern LEADING_STATUS_PATTERN = Pattern.compile("^(\\d{3})");
     private final StandardBullhornData bullhornData;
     private final RestApiExtension restApiExtension;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final CallRateLimiter callRateLimiter;
+    private final CallRetrier callRetrier;
     private final PrintUtil printUtil;
+    private final ExecutorService pageExecutorService;
+    private final AssociationBatcher associationBatcher = new AssociationBatcher();
 
     public RestApi(StandardBullhornData bullhornData,
                    RestApiExtension restApiExtension,
+                   ConcurrencyLimiter concurrencyLimiter,
+                   CallRateLimiter callRateLimiter,
+                   CallRetrier callRetrier,
                    PropertyFileUtil propertyFileUtil,
                    PrintUtil printUtil) {
         this.bullhornData = bullhornData;
         this.restApiExtension = restApiExtension;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.callRateLimiter = callRateLimiter;
+        this.callRetrier = callRetrier;
         this.printUtil = printUtil;
 
         this.bullhornData.setExecuteFormTriggers(propertyFileUtil.getExecuteFormTriggers());
+
+        // Follow on pages are only fetched in parallel when more than one page fetch thread is configured
+        Integer pageFetchThreads = propertyFileUtil.getPageFetchThreads();
+        this.pageExecutorService = pageFetchThreads > 1 ? Executors.newFixedThreadPool(pageFetchThreads,
+            new ThreadFactoryBuilder().setNameFormat("page-fetch-%d").setDaemon(true).build()) : null;
     }
 
     // region Getters
@@ -77,13 +123,13 @@ public class RestApi {
     public <T extends BullhornEntity> MetaData<T> getMetaData(Class<T> type,
                                                               MetaParameter metaParameter,
                                                               Set<String> fieldSet) {
-        return bullhornData.getMetaData(type, metaParameter, fieldSet);
+        return read(() -> bullhornData.getMetaData(type, metaParameter, fieldSet));
     }
     // endregion
 
     // region Lookup Calls
     // The search/query calls that DataLoader uses to lookup existing data. These are wrappers around the SDK Rest API
-    // that add recursive pulls for retrieving more than the max 500 records in one pull.
+    // that add follow on pulls for retrieving more than the max 500 records in one pull.
     public <T extends SearchEntity> List<T> searchForList(Class<T> type,
                                                           String query,
                                                           Set<String> fieldSet,
@@ -101,7 +147,7 @@ public class RestApi {
         }
         List<T> list = new ArrayList<>();
         params.setCount(MAX_RECORDS_TO_RETURN_IN_ONE_PULL);
-        recursiveSearchPull(list, type, query, correctedFieldSet, params);
+        searchPull(list, type, query, correctedFieldSet, params);
         return list;
     }
 
@@ -118,23 +164,60 @@ public class RestApi {
             + ", fields: " + correctedFieldSet.stream().sorted().collect(Collectors.toList()));
         List<T> list = new ArrayList<>();
         params.setCount(MAX_RECORDS_TO_RETURN_IN_ONE_PULL);
-        recursiveQueryPull(list, type, where, correctedFieldSet, params);
+        queryPull(list, type, where, correctedFieldSet, params);
         return list;
     }
+
+    // The streaming versions of the lookup calls, which hold only one page of records in memory at a time, instead of
+    // collecting every page into one list. The next page is pulled in the background when page fetch threads are used.
+    public <T extends SearchEntity> Stream<T> searchForStream(Class<T> type,
+                                                              String query,
+                                                              Set<String> fieldSet,
+                                                              SearchParams params) {
+        Set<String> correctedFieldSet = FindUtil.getCorrectedFieldSet(fieldSet);
+        printUtil.log(Level.DEBUG, "Find(" + type.getSimpleName() + " Search Stream): " + query
+            + ", fields: " + correctedFieldSet.stream().sorted().collect(Collectors.toList()));
+        return stream(start -> {
+            SearchParams pageParams = ParamFactory.searchParams();
+            pageParams.setCount(MAX_RECORDS_TO_RETURN_IN_ONE_PULL);
+            pageParams.setSort(params.getSort());
+            pageParams.setStart(start);
+            return read(() -> bullhornData.search(type, query, correctedFieldSet, pageParams));
+        });
+    }
+
+    public <T extends QueryEntity> Stream<T> queryForStream(Class<T> type,
+                                                            String where,
+                                                            Set<String> fieldSet,
+                                                            QueryParams params) {
+        Set<String> correctedFieldSet = FindUtil.getCorrectedFieldSet(fieldSet);
+        printUtil.log(Level.DEBUG, "Find(" + type.getSimpleName() + " Query Stream): " + where
+            + ", fields: " + correctedFieldSet.stream().sorted().collect(Collectors.toList()));
+        return stream(start -> {
+            QueryParams pageParams = ParamFactory.queryParams();
+            pageParams.setCount(MAX_RECORDS_TO_RETURN_IN_ONE_PULL);
+            pageParams.setOrderBy(params.getOrderBy());
+            if (params.getUseDefaultQueryFilter() != null) {
+                pageParams.setUseDefaultQueryFilter(params.getUseDefaultQueryFilter());
+            }
+            pageParams.setStart(start);
+            return read(() -> bullhornData.query(type, where, correctedFieldSet, pageParams));
+        });
+    }
     // endregion
 
     // region CRUD Operations
     // The methods DataLoader uses to Create, Read, Update, and Delete.
     public <C extends CrudResponse, T extends CreateEntity> C insertEntity(T entity) {
         printUtil.log(Level.DEBUG, "Insert(" + entity.getClass().getSimpleName() + ")");
-        C crudResponse = bullhornData.insertEntity(entity);
+        C crudResponse = writeOnce(() -> bullhornData.insertEntity(entity));
         restApiExtension.checkForRestSdkErrorMessages(crudResponse);
         return crudResponse;
     }
 
     public <C extends CrudResponse, T extends UpdateEntity> C updateEntity(T entity) {
         printUtil.log(Level.DEBUG, "Update(" + entity.getClass().getSimpleName() + "): #" + entity.getId());
-        C crudResponse = bullhornData.updateEntity(entity);
+        C crudResponse = write(() -> bullhornData.updateEntity(entity));
         restApiExtension.checkForRestSdkErrorMessages(crudResponse);
         return crudResponse;
     }
@@ -144,7 +227,7 @@ public class RestApi {
      */
     public <C extends CrudResponse, T extends DeleteEntity> C deleteEntity(Class<T> type, Integer id) {
         printUtil.log(Level.DEBUG, "Delete(" + type.getSimpleName() + "): #" + id);
-        C crudResponse = bullhornData.deleteEntity(type, id);
+        C crudResponse = write(() -> bullhornData.deleteEntity(type, id));
         restApiExtension.checkForRestSdkErrorMessages(crudResponse);
         C postDeleteCrudResponse = restApiExtension.postDelete(this, crudResponse);
         restApiExtension.checkForRestSdkErrorMessages(postDeleteCrudResponse);
@@ -154,106 +237,364 @@ public class RestApi {
 
     // region Association Methods
     // The methods DataLoader uses for creating or deleting associations.
+    /**
+     * Returns the associations of the given records. Lookups for a single record are combined with the same lookups
+     * that other threads are making at the same time, when possible.
+     */
     public <T extends AssociationEntity, E extends BullhornEntity> List<E> getAllAssociationsList(
+        Class<T> type, Set<Integer> entityIds, AssociationField<T, E> associationName, Set<String> fieldSet,
+        AssociationParams params) {
+        if (entityIds.size() != 1) {
+            return getAllAssociationsCall(type, entityIds, associationName, fieldSet, params);
+        }
+        String key = type.getSimpleName() + "." + associationName.getAssociationFieldName() + fieldSet.stream().sorted()
+            .collect(Collectors.toList());
+        return associationBatcher.getAssociations(key, entityIds.iterator().next(),
+            batchEntityIds -> getAssociationsOfEntities(type, batchEntityIds, associationName, fieldSet),
+            () -> getAllAssociationsCall(type, entityIds, associationName, fieldSet, params));
+    }
+
+    private <T extends AssociationEntity, E extends BullhornEntity> List<E> getAllAssociationsCall(
         Class<T> type, Set<Integer> entityIds, AssociationField<T, E> associationName, Set<String> fieldSet,
         AssociationParams params) {
         printUtil.log(Level.DEBUG, "FindAssociations(" + type.getSimpleName() + "): #" + entityIds + " - "
             + associationName.getAssociationFieldName() + ", fields: " + fieldSet.stream().sorted().collect(Collectors.toList()));
-        ListWrapper<E> listWrapper = bullhornData.getAllAssociations(type, entityIds, associationName, fieldSet, params);
+        ListWrapper<E> listWrapper = read(() ->
+            bullhornData.getAllAssociations(type, entityIds, associationName, fieldSet, params));
         return listWrapper == null ? Collections.emptyList() : listWrapper.getData();
     }
 
+    /**
+     * Returns the associations of each of several records from one call, keyed by record id.
+     * <p>
+     * The association call for several records returns all of their associations in one list, without saying which
+     * record each belongs to. Instead, the records themselves are fetched with the association as a nested field, like:
+     * `id,primarySkills(id)`. Nested To-Many fields only return the first few associations, so records with more than
+     * that are left out, for the caller to look up on their own.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends AssociationEntity, E extends BullhornEntity> Map<Integer, List<E>> getAssociationsOfEntities(
+        Class<T> type, Set<Integer> entityIds, AssociationField<T, E> associationName, Set<String> fieldSet) {
+        String fieldName = associationName.getAssociationFieldName();
+        printUtil.log(Level.DEBUG, "FindAssociations(" + type.getSimpleName() + " Batch): #" + entityIds + " - "
+            + fieldName + ", fields: " + fieldSet.stream().sorted().collect(Collectors.toList()));
+        Set<String> nestedFieldSet = Sets.newHashSet(StringConsts.ID,
+            fieldName + "(" + fieldSet.stream().sorted().collect(Collectors.joining(",")) + ")");
+        ListWrapper<T> listWrapper = read(() -> bullhornData.findMultipleEntity(type, entityIds, nestedFieldSet));
+
+        Map<Integer, List<E>> associationsMap = new HashMap<>();
+        if (listWrapper != null && listWrapper.getData() != null) {
+            try {
+                MethodAccessor getter = MethodAccessor.of(type.getMethod("get" + StringUtils.capitalize(fieldName)));
+                for (T entity : listWrapper.getData()) {
+                    OneToMany<E> toMany = (OneToMany<E>) getter.get(entity);
+                    if (toMany != null && toMany.getData() != null
+                        && (toMany.getTotal() == null || toMany.getTotal() <= toMany.getData().size())) {
+                        associationsMap.put(entity.getId(), toMany.getData());
+                    }
+                }
+            } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+                throw new RestApiException("Cannot read " + fieldName + " from " + type.getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        return associationsMap;
+    }
+
+    /**
+     * The streaming version of getAllAssociationsList, which pulls one page of associations at a time.
+     */
+    public <T extends AssociationEntity, E extends BullhornEntity> Stream<E> getAllAssociationsStream(
+        Class<T> type, Set<Integer> entityIds, AssociationField<T, E> associationName, Set<String> fieldSet,
+        AssociationParams params) {
+        printUtil.log(Level.DEBUG, "FindAssociations(" + type.getSimpleName() + " Stream): #" + entityIds + " - "
+            + associationName.getAssociationFieldName() + ", fields: " + fieldSet.stream().sorted().collect(Collectors.toList()));
+        // The params cannot be copied, but they can be reused, since only one page is pulled at a time
+        params.setCount(MAX_RECORDS_TO_RETURN_IN_ONE_PULL);
+        return stream(start -> {
+            params.setStart(start);
+            // Association calls do not return a total, so pages continue until a page comes back short
+            return new StandardListWrapper<>(read(() ->
+                bullhornData.getAssociation(type, entityIds, associationName, fieldSet, params)));
+        });
+    }
+
+    /**
+     * Associates the given records, up to 500 per call. The calls for more than 500 records are independent of each
+     * other, so they are sent at the same time using the page fetch threads.
+     */
     public <C extends CrudResponse, T extends AssociationEntity> List<C> associateWithEntity(
         Class<T> type, Integer entityId, AssociationField<T, ? extends BullhornEntity> associationName, List<Integer> associationIds) {
-        List<C> crudResponses = new ArrayList<>();
-        int start = 0;
-        int end = Math.min(associationIds.size(), MAX_ASSOCIATIONS_PER_CALL);
-        while (start < end) {
-            crudResponses.add(singleAssociateWithEntity(type, entityId, associationName, associationIds.subList(start, end)));
-            start += MAX_ASSOCIATIONS_PER_CALL;
-            end = Math.min(start + MAX_ASSOCIATIONS_PER_CALL, associationIds.size());
-        }
-        return crudResponses;
+        return invokeAll(Lists.partition(associationIds, MAX_ASSOCIATIONS_PER_CALL).stream()
+            .map(chunk -> (Supplier<C>) () -> singleAssociateWithEntity(type, entityId, associationName, chunk))
+            .collect(Collectors.toList()));
     }
 
+    /**
+     * Disassociates the given records, up to 500 per call, sending the calls for more than 500 records at the same time.
+     */
     public <C extends CrudResponse, T extends AssociationEntity> List<C> disassociateWithEntity(
         Class<T> type, Integer entityId, AssociationField<T, ? extends BullhornEntity> associationName, List<Integer> associationIds) {
-        List<C> crudResponses = new ArrayList<>();
-        int start = 0;
-        int end = Math.min(associationIds.size(), MAX_ASSOCIATIONS_PER_CALL);
-        while (start < end) {
-            crudResponses.add(singleDisassociateWithEntity(type, entityId, associationName, associationIds.subList(start, end)));
-            start += MAX_ASSOCIATIONS_PER_CALL;
-            end = Math.min(start + MAX_ASSOCIATIONS_PER_CALL, associationIds.size());
-        }
-        return crudResponses;
+        return invokeAll(Lists.partition(associationIds, MAX_ASSOCIATIONS_PER_CALL).stream()
+            .map(chunk -> (Supplier<C>) () -> singleDisassociateWithEntity(type, entityId, associationName, chunk))
+            .collect(Collectors.toList()));
     }
     // endregion
 
     // region File Methods
     // The methods DataLoader uses for attachments
     public List<FileMeta> getFileMetaData(Class<? extends FileEntity> type, Integer entityId) {
-        return bullhornData.getFileMetaData(type, entityId);
+        return read(() -> bullhornData.getFileMetaData(type, entityId));
     }
 
     public FileContent getFileContent(Class<? extends FileEntity> type, Integer entityId, Integer fileId) {
-        return bullhornData.getFileContent(type, entityId, fileId);
+        return read(() -> bullhornData.getFileContent(type, entityId, fileId));
     }
 
     public FileWrapper addFile(Class<? extends FileEntity> type, Integer entityId, FileMeta fileMeta) {
-        return bullhornData.addFile(type, entityId, fileMeta);
+        return writeOnce(() -> bullhornData.addFile(type, entityId, fileMeta));
     }
 
     public FileWrapper updateFile(Class<? extends FileEntity> type, Integer entityId, FileMeta fileMeta) {
-        return bullhornData.updateFile(type, entityId, fileMeta);
+        return write(() -> bullhornData.updateFile(type, entityId, fileMeta));
     }
 
     public FileApiResponse deleteFile(Class<? extends FileEntity> type, Integer entityId, Integer fileId) {
         // TODO: Return better error than "An internal error has occurred" when file does not exist or has already been deleted.
-        return bullhornData.deleteFile(type, entityId, fileId);
+        return write(() -> bullhornData.deleteFile(type, entityId, fileId));
     }
     // endregion
 
     // region Methods used by RestApiExtension
     <T> T performGetRequest(String url, Class<T> returnType, Map<String, String> uriVariables) {
-        return bullhornData.performGetRequest(url, returnType, uriVariables);
+        return read(() -> bullhornData.performGetRequest(url, returnType, uriVariables));
+    }
+    // endregion
+
+    // region Retries, Rate Limiting and Latency Tracking
+
+    /**
+     * Makes a call to the REST API that reads data, once the read budget of the rate limiter allows it. Reads can
+     * always be retried.
+     */
+    private <R> R read(Supplier<R> restCall) {
+        return callRetrier.execute(() -> {
+            callRateLimiter.acquireRead();
+            return call(restCall);
+        }, true);
+    }
+
+    /**
+     * Makes a call to the REST API that writes data, once the write budget of the rate limiter allows it. Writes that
+     * end up with the same result when repeated, such as updates and deletes, can be retried.
+     */
+    private <R> R write(Supplier<R> restCall) {
+        return callRetrier.execute(() -> {
+            callRateLimiter.acquireWrite();
+            return call(restCall);
+        }, true);
+    }
+
+    /**
+     * Makes a call to the REST API that writes data, once the write budget of the rate limiter allows it, for writes
+     * that do not end up with the same result when repeated. Creates would make duplicates, and associating or
+     * disassociating again fails with an error about the association already being there or already being gone. These
+     * are only retried when the REST API turned the call away without processing it.
+     */
+    private <R> R writeOnce(Supplier<R> restCall) {
+        return callRetrier.execute(() -> {
+            callRateLimiter.acquireWrite();
+            return call(restCall);
+        }, false);
+    }
+
+    /**
+     * Makes one call to the REST API, reporting how long it took and the HTTP status of the response to the concurrency
+     * limiter, so that the number of rows processed at the same time can adapt to how the REST API is responding.
+     */
+    private <R> R call(Supplier<R> restCall) {
+        long startNanos = System.nanoTime();
+        int statusCode = 0;
+        try {
+            R response = restCall.get();
+            statusCode = getStatusCode(response);
+            return response;
+        } catch (RestApiException e) {
+            statusCode = getStatusCode(e);
+            throw e;
+        } finally {
+            concurrencyLimiter.recordResponse(System.nanoTime() - startNanos, statusCode);
+        }
+    }
+
+    /**
+     * Crud responses hold the HTTP status of a failed call in the error code, all other responses are successful.
+     */
+    static int getStatusCode(Object response) {
+        if (response instanceof CrudResponse && ((CrudResponse) response).getErrorCode() != null) {
+            int statusCode = getStatusCode(((CrudResponse) response).getErrorCode(), LEADING_STATUS_PATTERN);
+            return statusCode == 0 ? HTTP_OK : statusCode;
+        }
+        return HTTP_OK;
+    }
+
+    /**
+     * Errors thrown for failed calls only include the HTTP status in some cases, otherwise the status is unknown (0).
+     */
+    static int getStatusCode(RestApiException exception) {
+        return getStatusCode(exception.getMessage(), HTTP_STATUS_PATTERN);
+    }
+
+    private static int getStatusCode(String text, Pattern pattern) {
+        if (text != null) {
+            Matcher matcher = pattern.matcher(text);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        return 0;
     }
     // endregion
 
     // region Search/Query For All Records
 
     /**
-     * The recursive search pull for more than 500 records, applied to all entities, not just AllRecordsEntity entities.
+     * The search pull for more than 500 records, applied to all entities, not just AllRecordsEntity entities.
+     * <p>
+     * Once the first page has returned the total, the start of each remaining page is known, so these pages can be
+     * fetched in parallel. Otherwise, each page is fetched after the previous one, starting where it left off.
      */
-    private <T extends SearchEntity> void recursiveSearchPull(List<T> allEntities,
-                                                              Class<T> type,
-                                                              String query,
-                                                              Set<String> fieldSet,
-                                                              SearchParams params) {
-        ListWrapper<T> onePull = bullhornData.search(type, query, fieldSet, params);
+    private <T extends SearchEntity> void searchPull(List<T> allEntities,
+                                                     Class<T> type,
+                                                     String query,
+                                                     Set<String> fieldSet,
+                                                     SearchParams params) {
+        ListWrapper<T> onePull = read(() -> bullhornData.search(type, query, fieldSet, params));
         allEntities.addAll(onePull.getData());
-        if (shouldPullMoreRecords(onePull)) {
-            params.setStart(allEntities.size());
-            recursiveSearchPull(allEntities, type, query, fieldSet, params);
+        if (pageExecutorService != null) {
+            allEntities.addAll(parallelPull(onePull, start -> {
+                SearchParams pageParams = ParamFactory.searchParams();
+                pageParams.setCount(params.getCount());
+                pageParams.setSort(params.getSort());
+                pageParams.setStart(start);
+                return read(() -> bullhornData.search(type, query, fieldSet, pageParams).getData());
+            }));
+        } else {
+            while (shouldPullMoreRecords(onePull)) {
+                params.setStart(allEntities.size());
+                onePull = read(() -> bullhornData.search(type, query, fieldSet, params));
+                allEntities.addAll(onePull.getData());
+            }
         }
     }
 
     /**
-     * The recursive query pull for more than 500 records, applied to all entities, not just AllRecordsEntity entities.
+     * The query pull for more than 500 records, applied to all entities, not just AllRecordsEntity entities.
+     * <p>
+     * Once the first page has returned the total, the start of each remaining page is known, so these pages can be
+     * fetched in parallel. Otherwise, each page is fetched after the previous one, starting where it left off.
      */
-    private <T extends QueryEntity> void recursiveQueryPull(List<T> allEntities,
-                                                            Class<T> type,
-                                                            String where,
-                                                            Set<String> fieldSet,
-                                                            QueryParams params) {
-        ListWrapper<T> onePull = bullhornData.query(type, where, fieldSet, params);
+    private <T extends QueryEntity> void queryPull(List<T> allEntities,
+                                                   Class<T> type,
+                                                   String where,
+                                                   Set<String> fieldSet,
+                                                   QueryParams params) {
+        ListWrapper<T> onePull = read(() -> bullhornData.query(type, where, fieldSet, params));
         allEntities.addAll(onePull.getData());
-        if (shouldPullMoreRecords(onePull)) {
-            params.setStart(allEntities.size());
-            recursiveQueryPull(allEntities, type, where, fieldSet, params);
+        if (pageExecutorService != null) {
+            allEntities.addAll(parallelPull(onePull, start -> {
+                QueryParams pageParams = ParamFactory.queryParams();
+                pageParams.setCount(params.getCount());
+                pageParams.setOrderBy(params.getOrderBy());
+                if (params.getUseDefaultQueryFilter() != null) {
+                    pageParams.setUseDefaultQueryFilter(params.getUseDefaultQueryFilter());
+                }
+                pageParams.setStart(start);
+                return read(() -> bullhornData.query(type, where, fieldSet, pageParams).getData());
+            }));
+        } else {
+            while (shouldPullMoreRecords(onePull)) {
+                params.setStart(allEntities.size());
+                onePull = read(() -> bullhornData.query(type, where, fieldSet, params));
+                allEntities.addAll(onePull.getData());
+            }
         }
     }
 
+    /**
+     * Fetches all remaining pages after the first page at the same time, using the page fetch threads.
+     *
+     * @param firstPull the response for the first page, which contains the total
+     * @param pagePull  the call that returns the records for the page that begins at the given start
+     * @return the records from all remaining pages, in order
+     */
+    private <T> List<T> parallelPull(ListWrapper<T> firstPull, Function<Integer, List<T>> pagePull) {
+        List<T> entities = new ArrayList<>();
+        invokeAll(getRemainingPageStarts(firstPull).stream()
+            .map(start -> (Supplier<List<T>>) () -> pagePull.apply(start))
+            .collect(Collectors.toList()))
+            .forEach(entities::addAll);
+        return entities;
+    }
+
+    /**
+     * Makes the given calls at the same time using the page fetch threads, if there are any, otherwise one after another.
+     *
+     * @param restCalls independent calls that can be made in any order
+     * @return the responses, in the same order as the calls
+     */
+    private <R> List<R> invokeAll(List<Supplier<R>> restCalls) {
+        if (pageExecutorService == null || restCalls.size() < 2) {
+            return restCalls.stream().map(Supplier::get).collect(Collectors.toList());
+        }
+
+        List<Future<R>> futures = new ArrayList<>();
+        for (Supplier<R> restCall : restCalls) {
+            futures.add(pageExecutorService.submit(restCall::get));
+        }
+
+        List<R> responses = new ArrayList<>();
+        try {
+            for (Future<R> future : futures) {
+                responses.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DataLoaderException(ErrorInfo.UNKNOWN_ERROR, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new DataLoaderException(ErrorInfo.UNKNOWN_ERROR, "Interrupted while waiting for rest calls");
+        }
+        return responses;
+    }
+
+    /**
+     * Returns the start of each page that remains after the given first page, using the size of the first page.
+     */
+    private List<Integer> getRemainingPageStarts(ListWrapper<?> firstPull) {
+        Integer start = firstPull.getStart() == null ? 0 : firstPull.getStart();
+        Integer count = firstPull.getCount();
+        Integer total = firstPull.getTotal() == null ? count : firstPull.getTotal();
+
+        List<Integer> starts = new ArrayList<>();
+        for (int nextStart = start + count; shouldPullMoreRecords(nextStart, count, total); nextStart += count) {
+            starts.add(nextStart);
+        }
+        return starts;
+    }
+
+    /**
+     * Wraps the given page pull in a stream that pulls pages as the records are consumed.
+     */
+    private <T> Stream<T> stream(Function<Integer, ListWrapper<T>> pagePull) {
+        PagedIterator<T> iterator = new PagedIterator<>(pagePull, MAX_RECORDS_TO_RETURN_IN_ONE_PULL,
+            MAX_RECORDS_TO_RETURN_TOTAL, pageExecutorService);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
     private boolean shouldPullMoreRecords(ListWrapper<?> response) {
         Integer total = response.getTotal();
         Integer start = response.getStart();
@@ -267,7 +608,10 @@ public class RestApi {
             total = count;
         }
 
-        Integer nextStart = start + count;
+        return shouldPullMoreRecords(start + count, count, total);
+    }
+
+    private boolean shouldPullMoreRecords(Integer nextStart, Integer count, Integer total) {
         int nextEnd = Math.min(nextStart + MAX_RECORDS_TO_RETURN_IN_ONE_PULL, total);
         if (nextStart < total && count != 0 && nextStart < MAX_RECORDS_TO_RETURN_TOTAL) {
             printUtil.log(Level.DEBUG, "--> Follow On Find(" + nextStart + " - " + nextEnd + ")");
@@ -284,7 +628,7 @@ public class RestApi {
         printUtil.log(Level.DEBUG, "Associate(" + type.getSimpleName() + "): #" + entityId + " - " + associationName.getAssociationFieldName()
             + " (" + associationIds.size() + " associations)");
         Set<Integer> idSet = Sets.newHashSet(associationIds);
-        C crudResponse = bullhornData.associateWithEntity(type, entityId, associationName, idSet);
+        C crudResponse = writeOnce(() -> bullhornData.associateWithEntity(type, entityId, associationName, idSet));
         restApiExtension.checkForRestSdkErrorMessages(crudResponse);
         return crudResponse;
     }
@@ -295,7 +639,7 @@ public class RestApi {
         printUtil.log(Level.DEBUG, "Disassociate(" + type.getSimpleName() + "): #" + entityId + " - " + associationName.getAssociationFieldName()
             + " (" + associationIds.size() + " associations)");
         Set<Integer> idSet = Sets.newHashSet(associationIds);
-        C crudResponse = bullhornData.disassociateWithEntity(type, entityId, associationName, idSet);
+        C crudResponse = writeOnce(() -> bullhornData.disassociateWithEntity(type, entityId, associationName, idSet));
         restApiExtension.checkForRestSdkErrorMessages(crudResponse);
         return crudResponse;
     }
@@ -1,10 +1,13 @@
 package com.bullhorn.dataloader.rest;
 
 
+import com.bullhorn.dataloader.util.CallRateLimiter;
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhornsdk.data.api.BullhornRestCredentials;
 import com.bullhornsdk.data.api.StandardBullhornData;
+import com.bullhornsdk.data.api.helper.RestTemplateFactory;
 
 /**
  * Dependency Injected Wrapper for obtaining the SDK-REST BullhornData class using DataLoader's properties Contains all
@@ -14,34 +17,55 @@ import com.bullhornsdk.data.api.StandardBullhornData;
 public class RestSession {
 
     private final RestApiExtension restApiExtension;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final CallRateLimiter callRateLimiter;
+    private final CallRetrier callRetrier;
+    private final HttpTransport httpTransport;
     private final PropertyFileUtil propertyFileUtil;
     private final PrintUtil printUtil;
     private RestApi restApi = null;
 
-    public RestSession(RestApiExtension restApiExtension, PropertyFileUtil propertyFileUtil, PrintUtil printUtil) {
+    public RestSession(RestApiExtension restApiExtension,
+                       ConcurrencyLimiter concurrencyLimiter,
+                       CallRateLimiter callRateLimiter,
+                       CallRetrier callRetrier,
+                       HttpTransport httpTransport,
+                       PropertyFileUtil propertyFileUtil,
+                       PrintUtil printUtil) {
         this.restApiExtension = restApiExtension;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.callRateLimiter = callRateLimiter;
+        this.callRetrier = callRetrier;
+        this.httpTransport = httpTransport;
         this.propertyFileUtil = propertyFileUtil;
         this.printUtil = printUtil;
     }
 
     /**
      * Authenticates and creates the Bullhorn REST API Session
+     * <p>
+     * Synchronized so that files that are loaded at the same time all share the one session.
      *
      * @return A new RestApi object
      */
-    public RestApi getRestApi() {
+    public synchronized RestApi getRestApi() {
         if (restApi == null) {
-            restApi = new RestApi(createRestSession(), restApiExtension, propertyFileUtil, printUtil);
+            restApi = new RestApi(createRestSession(), restApiExtension, concurrencyLimiter, callRateLimiter, callRetrier,
+                propertyFileUtil, printUtil);
         }
         return restApi;
     }
 
     /**
      * Creates the rest session - the StandardBullhornData constructor performs the REST authentication.
+     * <p>
+     * The SDK makes all calls, including authentication, through one shared rest template, which is switched over to
+     * the pooled connections first.
      *
      * @return a BullhornData object that is used to make rest calls.
      */
     private StandardBullhornData createRestSession() {
+        httpTransport.applyTo(RestTemplateFactory.getInstance());
         BullhornRestCredentials bullhornRestCredentials = getBullhornRestCredentials(propertyFileUtil);
         return new StandardBullhornData(bullhornRestCredentials);
     }
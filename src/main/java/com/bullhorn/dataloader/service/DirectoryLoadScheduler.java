@@ -0,0 +1,144 @@
+package com.bullhorn.dataloader.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.bullhorn.dataloader.data.ActionTotals;
+import com.bullhorn.dataloader.enums.Command;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.rest.CompleteUtil;
+import com.bullhorn.dataloader.util.AssociationUtil;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhorn.dataloader.util.Timer;
+
+/**
+ * Loads the files of a directory several at a time, while still loading every file after the files it depends on.
+ * <p>
+ * An entity depends on the entities that it can reference and that load before it in the load order, so that records
+ * such as a ClientCorporation exist before the ClientContacts that reference them are loaded. Entities that do not
+ * depend on each other are loaded at the same time, up to numParallelFiles. The files of one entity are loaded one
+ * after another. All files share one thread pool for their rows, so numThreads is still the limit for the whole load.
+ * <p>
+ * When the files of an entity fail to load, the entities that depend on it are skipped, the others finish loading, and
+ * the first error in load order is thrown at the end.
+ */
+class DirectoryLoadScheduler {
+
+    private final PrintUtil printUtil;
+    private final PropertyFileUtil propertyFileUtil;
+    private final CompleteUtil completeUtil;
+    private final ProcessRunner processRunner;
+
+    DirectoryLoadScheduler(PrintUtil printUtil,
+                           PropertyFileUtil propertyFileUtil,
+                           CompleteUtil completeUtil,
+                           ProcessRunner processRunner) {
+        this.printUtil = printUtil;
+        this.propertyFileUtil = propertyFileUtil;
+        this.completeUtil = completeUtil;
+        this.processRunner = processRunner;
+    }
+
+    /**
+     * Loads all files, returning once every file has either finished loading or been skipped.
+     *
+     * @param entityToFileListMap the files to load for each entity, sorted in load order
+     */
+    void run(SortedMap<EntityInfo, List<String>> entityToFileListMap) throws IOException, InterruptedException {
+        ExecutorService fileExecutorService = Executors.newFixedThreadPool(propertyFileUtil.getNumParallelFiles());
+        ExecutorService taskExecutorService = processRunner.createExecutorService();
+        Map<EntityInfo, CompletableFuture<Void>> entityToFutureMap = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<EntityInfo, List<String>> entityFileEntry : entityToFileListMap.entrySet()) {
+                EntityInfo entityInfo = entityFileEntry.getKey();
+                Set<EntityInfo> prerequisites = getPrerequisites(entityInfo, entityToFutureMap.keySet());
+                if (!prerequisites.isEmpty()) {
+                    printUtil.log("Loading " + entityInfo.getEntityName() + " after: " + prerequisites.stream()
+                        .map(EntityInfo::getEntityName).collect(Collectors.joining(", ")));
+                }
+                CompletableFuture<Void> future = CompletableFuture.allOf(prerequisites.stream()
+                    .map(entityToFutureMap::get).toArray(CompletableFuture[]::new))
+                    .thenRunAsync(() -> loadEntity(entityInfo, entityFileEntry.getValue(), taskExecutorService),
+                        fileExecutorService);
+                entityToFutureMap.put(entityInfo, future);
+            }
+            waitForAll(entityToFutureMap);
+        } finally {
+            fileExecutorService.shutdownNow();
+            taskExecutorService.shutdown();
+            while (!taskExecutorService.awaitTermination(1, TimeUnit.MINUTES)) {
+            }
+        }
+    }
+
+    /**
+     * Returns the entities scheduled so far that the given entity can reference, which all load before it.
+     */
+    static Set<EntityInfo> getPrerequisites(EntityInfo entityInfo, Set<EntityInfo> scheduledEntities) {
+        return AssociationUtil.getReferencedEntities(entityInfo).stream()
+            .filter(scheduledEntities::contains)
+            .collect(Collectors.toSet());
+    }
+
+    private void loadEntity(EntityInfo entityInfo, List<String> fileNames, ExecutorService taskExecutorService) {
+        try {
+            for (String fileName : fileNames) {
+                printUtil.printAndLog("Loading " + entityInfo.getEntityName() + " records from: " + fileName + "...");
+                Timer timer = new Timer();
+                ActionTotals actionTotals = processRunner.run(Command.LOAD, entityInfo, fileName, taskExecutorService);
+                printUtil.printAndLog("Finished loading " + entityInfo.getEntityName() + " records from: " + fileName
+                    + " in " + timer.getDurationStringHms());
+                completeUtil.complete(Command.LOAD, fileName, entityInfo, actionTotals, timer.getDurationMillis());
+            }
+
+            // Give the indexers time to catch up before the entities that depend on this one start
+            Integer waitSeconds = propertyFileUtil.getWaitSecondsBetweenFilesInDirectory();
+            if (waitSeconds > 0) {
+                printUtil.printAndLog("...Waiting " + waitSeconds + " seconds for indexers to catch up...");
+                TimeUnit.SECONDS.sleep(waitSeconds);
+            }
+        } catch (IOException | InterruptedException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Waits for every entity to finish, then throws the first error in load order, if any.
+     */
+    private void waitForAll(Map<EntityInfo, CompletableFuture<Void>> entityToFutureMap)
+        throws IOException, InterruptedException {
+        Throwable error = null;
+        for (Map.Entry<EntityInfo, CompletableFuture<Void>> entityFutureEntry : entityToFutureMap.entrySet()) {
+            try {
+                entityFutureEntry.getValue().get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                    printUtil.printAndLog("ERROR: Failed to load " + entityFutureEntry.getKey().getEntityName()
+                        + " records, skipping the entities that depend on them: " + error);
+                }
+            }
+        }
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error instanceof InterruptedException) {
+            throw (InterruptedException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+}
@@ -42,6 +42,11 @@ public class LoadService extends AbstractService implements Action {
         SortedMap<EntityInfo, List<String>> entityToFileListMap = FileUtil.getLoadableCsvFilesFromPath(
             filePath, propertyFileUtil);
         if (promptUserForMultipleFiles(filePath, entityToFileListMap)) {
+            if (propertyFileUtil.getNumParallelFiles() > 1 && entityToFileListMap.size() > 1) {
+                new DirectoryLoadScheduler(printUtil, propertyFileUtil, completeUtil, processRunner)
+                    .run(entityToFileListMap);
+                return;
+            }
             for (Map.Entry<EntityInfo, List<String>> entityFileEntry : entityToFileListMap.entrySet()) {
                 EntityInfo entityInfo = entityFileEntry.getKey();
                 for (String fileName : entityFileEntry.getValue()) {
@@ -5,17 +5,31 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Level;
 
 import com.bullhorn.dataloader.data.ActionTotals;
+import com.bullhorn.dataloader.data.CheckpointJournal;
 import com.bullhorn.dataloader.data.CsvFileReader;
 import com.bullhorn.dataloader.data.CsvFileWriter;
+import com.bullhorn.dataloader.data.DeltaIndex;
+import com.bullhorn.dataloader.data.Result;
 import com.bullhorn.dataloader.data.Row;
+import com.bullhorn.dataloader.data.StageMetrics;
 import com.bullhorn.dataloader.enums.Command;
 import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.rest.AssociationPreloader;
 import com.bullhorn.dataloader.rest.Cache;
+import com.bullhorn.dataloader.rest.CallRetrier;
 import com.bullhorn.dataloader.rest.CompleteUtil;
+import com.bullhorn.dataloader.rest.HttpTransport;
+import com.bullhorn.dataloader.rest.Prefetcher;
 import com.bullhorn.dataloader.rest.Preloader;
 import com.bullhorn.dataloader.rest.RestApi;
 import com.bullhorn.dataloader.rest.RestSession;
@@ -32,39 +46,82 @@ import com.bullhorn.dataloader.util.ThreadPoolUtil;
  * <p>
  * Contains the logic for running all complex processes in DataLoader. Services can call these methods to create and
  * execute tasks as part of a larger process without having to know all of the details involved.
+ * <p>
+ * A file is processed in stages that are connected by bounded queues: a reader thread reads rows from the file, the
+ * calling thread converts rows and hands them out as tasks, and the thread pool runs the tasks. When a stage falls
+ * behind, the stage before it waits for room in the queue, so no stage ever runs the work of another.
+ * <p>
+ * When several files are loaded at the same time, they all hand out their tasks to one shared thread pool, so that
+ * numThreads stays the limit for the whole load, and each file waits for only its own tasks to finish.
+ * <p>
+ * Finished rows of a load or delete are recorded in a checkpoint journal. When resuming, the rows that the journal
+ * lists as finished are skipped as they are read, before any lookups or rest calls are made for them.
+ * <p>
+ * For a delta load, the rows that are the same as when the file was last loaded are recorded as unchanged as soon as
+ * they are converted, without creating a task for them.
  */
 @SuppressWarnings("StatementWithEmptyBody")
 public class ProcessRunner {
 
+    private static final Integer READ_QUEUE_SIZE = Prefetcher.WINDOW_SIZE * 2;
+    private static final Row END_OF_ROWS = new Row("", 0);
+
     private final RestSession restSession;
     private final Preloader preloader;
+    private final Prefetcher prefetcher;
+    private final AssociationPreloader associationPreloader;
     private final PrintUtil printUtil;
     private final PropertyFileUtil propertyFileUtil;
     private final ThreadPoolUtil threadPoolUtil;
     private final Cache cache;
+    private final CallRetrier callRetrier;
+    private final HttpTransport httpTransport;
     private final CompleteUtil completeUtil;
 
     public ProcessRunner(RestSession restSession,
                          Preloader preloader,
+                         Prefetcher prefetcher,
+                         AssociationPreloader associationPreloader,
                          PrintUtil printUtil,
                          PropertyFileUtil propertyFileUtil,
                          ThreadPoolUtil threadPoolUtil,
                          Cache cache,
+                         CallRetrier callRetrier,
+                         HttpTransport httpTransport,
                          CompleteUtil completeUtil) {
         this.restSession = restSession;
         this.preloader = preloader;
+        this.prefetcher = prefetcher;
+        this.associationPreloader = associationPreloader;
         this.printUtil = printUtil;
         this.propertyFileUtil = propertyFileUtil;
         this.threadPoolUtil = threadPoolUtil;
         this.cache = cache;
+        this.callRetrier = callRetrier;
+        this.httpTransport = httpTransport;
         this.completeUtil = completeUtil;
     }
 
     ActionTotals run(Command command, EntityInfo entityInfo, String filePath) throws IOException, InterruptedException {
+        return run(command, entityInfo, filePath, null);
+    }
+
+    /**
+     * Runs the process for one file, using the given thread pool that is shared with other files, or a thread pool of
+     * its own if none is given.
+     */
+    ActionTotals run(Command command, EntityInfo entityInfo, String filePath, ExecutorService sharedExecutorService)
+        throws IOException, InterruptedException {
         RestApi restApi = restSession.getRestApi();
-        ExecutorService executorService = threadPoolUtil.getExecutorService();
+        ExecutorService executorService = sharedExecutorService != null ? sharedExecutorService
+            : threadPoolUtil.getExecutorService();
+        // Counts the tasks of this file that are still running in a shared thread pool
+        Phaser phaser = sharedExecutorService != null ? new Phaser(1) : null;
         CsvFileReader csvFileReader = new CsvFileReader(filePath, propertyFileUtil, printUtil);
-        CsvFileWriter csvFileWriter = new CsvFileWriter(command, filePath, csvFileReader.getHeaders());
+        CheckpointJournal checkpointJournal = createCheckpointJournal(command, filePath);
+        DeltaIndex deltaIndex = createDeltaIndex(command, entityInfo, filePath);
+        CsvFileWriter csvFileWriter = new CsvFileWriter(command, filePath, csvFileReader.getHeaders(),
+            propertyFileUtil.getDurableResults(), checkpointJournal, deltaIndex);
         ActionTotals actionTotals = new ActionTotals();
         TaskFactory taskFactory = new TaskFactory(entityInfo, csvFileWriter, propertyFileUtil, restApi, printUtil, actionTotals, cache, completeUtil);
 
@@ -76,24 +133,221 @@ public class ProcessRunner {
                 printUtil.printAndLog("WARNING: The '" + StringConsts.ID + "' column is not being used for "
                     + "duplicate checking. The " + StringConsts.ID + " value will be ignored.");
             }
-        }
 
-        // Loop over each row in the file
-        while (csvFileReader.readRecord()) {
-            // Run preloader before loading only
-            Row row = command == Command.LOAD ? preloader.convertRow(csvFileReader.getRow()) : csvFileReader.getRow();
+            // Resolve association values for all rows up front, if enabled
+            associationPreloader.preload(entityInfo, filePath);
+        }
 
-            // Create an individual task runner (thread) for the row
-            AbstractTask task = taskFactory.getTask(command, row);
+        // Read rows on a separate thread, so that reading the file overlaps with converting and handing out rows
+        StageMetrics readerMetrics = new StageMetrics("Reader");
+        StageMetrics converterMetrics = new StageMetrics("Converter");
+        BlockingQueue<Row> readQueue = new ArrayBlockingQueue<>(READ_QUEUE_SIZE);
+        AtomicReference<Exception> readError = new AtomicReference<>();
+        Thread readerThread = new Thread(() -> readRows(csvFileReader, readQueue, readerMetrics, readError), "csv-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
 
-            // Put the task in the thread pool so that it can be processed when a thread is available
-            executorService.execute(task);
+        // Loop over each row in the file, a window at a time so that existing records can be prefetched together
+        try {
+            List<Row> rows = new ArrayList<>();
+            Row row = takeRow(readQueue, converterMetrics);
+            while (row != END_OF_ROWS) {
+                if (checkpointJournal != null && checkpointJournal.isComplete(row.getNumber())) {
+                    row = takeRow(readQueue, converterMetrics);
+                    continue;
+                }
+                long startTime = System.nanoTime();
+                // Run preloader before loading only
+                Row convertedRow = command == Command.LOAD ? preloader.convertRow(row) : row;
+                if (!isUnchanged(deltaIndex, convertedRow, csvFileWriter, actionTotals)) {
+                    rows.add(convertedRow);
+                }
+                converterMetrics.addBusyNanos(System.nanoTime() - startTime);
+                converterMetrics.incrementRows();
+                if (rows.size() >= Prefetcher.WINDOW_SIZE) {
+                    executeTasks(command, entityInfo, taskFactory, executorService, phaser, rows, converterMetrics);
+                    rows.clear();
+                }
+                row = takeRow(readQueue, converterMetrics);
+            }
+            executeTasks(command, entityInfo, taskFactory, executorService, phaser, rows, converterMetrics);
+        } finally {
+            readerThread.interrupt();
         }
+
         // Use Shutdown and AwaitTermination Wait to allow all current threads to complete and then print totals
-        executorService.shutdown();
-        while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+        if (phaser != null) {
+            phaser.awaitAdvanceInterruptibly(phaser.arrive());
+        } else {
+            executorService.shutdown();
+            while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+            }
+        }
+        csvFileWriter.close();
+        if (checkpointJournal != null) {
+            checkpointJournal.close();
         }
+        if (deltaIndex != null) {
+            deltaIndex.save();
+        }
+        if (readError.get() instanceof IOException) {
+            throw (IOException) readError.get();
+        } else if (readError.get() != null) {
+            throw (RuntimeException) readError.get();
+        }
+        printUtil.log(Level.INFO, readerMetrics.getSummary());
+        printUtil.log(Level.INFO, converterMetrics.getSummary());
         printUtil.printActionTotals(command, actionTotals);
+        callRetrier.printStatistics(printUtil);
+        httpTransport.printStatistics(printUtil);
+        if (propertyFileUtil.getCaching()) {
+            cache.printStatistics(printUtil);
+        }
         return actionTotals;
     }
+
+    /**
+     * Opens the checkpoint journal of the file for the commands that can be resumed, which are load and delete.
+     */
+    private CheckpointJournal createCheckpointJournal(Command command, String filePath) throws IOException {
+        if (command != Command.LOAD && command != Command.DELETE) {
+            return null;
+        }
+        CheckpointJournal checkpointJournal = new CheckpointJournal(command, filePath, propertyFileUtil.getResume());
+        if (propertyFileUtil.getResume()) {
+            printUtil.printAndLog("Resuming: skipping " + checkpointJournal.getCompletedRowCount()
+                + " rows that were completed by an earlier run...");
+        }
+        return checkpointJournal;
+    }
+
+    /**
+     * Reads the delta index of the last load of the file, if delta loading is enabled.
+     * <p>
+     * Deleting records removes the delta indexes of the entity, so that a later delta load creates the records again.
+     */
+    private DeltaIndex createDeltaIndex(Command command, EntityInfo entityInfo, String filePath) throws IOException {
+        if (command == Command.DELETE) {
+            int count = DeltaIndex.invalidate(entityInfo);
+            if (count > 0) {
+                printUtil.log("Delta load: removed " + count + " delta indexes of " + entityInfo.getEntityName()
+                    + " records, since records are being deleted");
+            }
+        }
+        if (command != Command.LOAD || !propertyFileUtil.getDeltaLoad()) {
+            return null;
+        }
+        List<String> existFields = propertyFileUtil.getEntityExistFields(entityInfo);
+        if (existFields.isEmpty()) {
+            printUtil.printAndLog("WARNING: Delta load is enabled, but there are no exist fields for "
+                + entityInfo.getEntityName() + ", so every row will be loaded.");
+        }
+        DeltaIndex deltaIndex = new DeltaIndex(filePath, entityInfo, existFields,
+            propertyFileUtil.getUsername() + "@" + propertyFileUtil.getLoginUrl());
+        printUtil.log("Delta load: comparing against " + deltaIndex.getPreviousRowCount()
+            + " rows from the last load of " + filePath);
+        return deltaIndex;
+    }
+
+    /**
+     * Records the row as unchanged if it is the same as when it was last loaded, in which case no task is needed.
+     */
+    private boolean isUnchanged(DeltaIndex deltaIndex, Row row, CsvFileWriter csvFileWriter, ActionTotals actionTotals)
+        throws IOException {
+        Integer bullhornId = deltaIndex != null ? deltaIndex.getUnchangedId(row) : null;
+        if (bullhornId == null) {
+            return false;
+        }
+        Result result = Result.unchanged(bullhornId);
+        actionTotals.incrementActionTotal(result.getAction());
+        AbstractTask.updateRowProcessedCounts(printUtil);
+        csvFileWriter.writeRow(row, result);
+        if (propertyFileUtil.getResultsFileEnabled()) {
+            completeUtil.rowComplete(row, result, actionTotals, csvFileWriter);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a thread pool that can be shared by files that are loaded at the same time.
+     */
+    ExecutorService createExecutorService() {
+        return threadPoolUtil.getExecutorService();
+    }
+
+    /**
+     * The reader stage, which reads all rows from the file into the read queue, followed by the end of rows marker.
+     * Waits for room in the queue when the converter falls behind.
+     * <p>
+     * A row that cannot be read, such as one with the wrong number of columns, ends the rows early, and the error is
+     * thrown once the rows read before it have finished.
+     */
+    private void readRows(CsvFileReader csvFileReader, BlockingQueue<Row> readQueue, StageMetrics readerMetrics,
+                          AtomicReference<Exception> readError) {
+        try {
+            try {
+                long startTime = System.nanoTime();
+                while (csvFileReader.readRecord()) {
+                    Row row = csvFileReader.getRow();
+                    long readTime = System.nanoTime();
+                    readerMetrics.addBusyNanos(readTime - startTime);
+                    readerMetrics.incrementRows();
+                    readQueue.put(row);
+                    startTime = System.nanoTime();
+                    readerMetrics.addOutputWaitNanos(startTime - readTime);
+                }
+            } catch (IOException | RuntimeException e) {
+                readError.set(e);
+            }
+            readQueue.put(END_OF_ROWS);
+        } catch (InterruptedException e) {
+            // The converter has stopped taking rows
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes the next row from the reader stage, waiting for the reader if needed.
+     */
+    private Row takeRow(BlockingQueue<Row> readQueue, StageMetrics converterMetrics) throws InterruptedException {
+        long startTime = System.nanoTime();
+        Row row = readQueue.take();
+        converterMetrics.addInputWaitNanos(System.nanoTime() - startTime);
+        return row;
+    }
+
+    /**
+     * Prefetches the existing records for the given window of rows, then creates a task for each row.
+     */
+    private void executeTasks(Command command, EntityInfo entityInfo, TaskFactory taskFactory,
+                              ExecutorService executorService, Phaser phaser, List<Row> rows,
+                              StageMetrics converterMetrics) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        prefetcher.prefetch(command, entityInfo, rows);
+        converterMetrics.addBusyNanos(System.nanoTime() - startTime);
+        for (Row row : rows) {
+            // Create an individual task runner (thread) for the row
+            AbstractTask task = taskFactory.getTask(command, row);
+
+            // Put the task in the thread pool so that it can be processed when a thread is available, which waits
+            // when all threads are busy and the task queue is full
+            startTime = System.nanoTime();
+            if (phaser != null) {
+                phaser.register();
+                executorService.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        phaser.arriveAndDeregister();
+                    }
+                });
+            } else {
+                executorService.execute(task);
+            }
+            converterMetrics.addOutputWaitNanos(System.nanoTime() - startTime);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.bullhorn.dataloader.task;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.text.NumberFormat;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -31,6 +32,7 @@ import com.bullhornsdk.data.model.entity.core.type.QueryEntity;
 import com.bullhornsdk.data.model.entity.core.type.SearchEntity;
 import com.bullhornsdk.data.model.parameter.standard.ParamFactory;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public abstract class AbstractTask implements Runnable {
     static final AtomicInteger rowProcessedCount = new AtomicInteger(0);
@@ -42,7 +44,7 @@ public abstract class AbstractTask implements Runnable {
     protected final PrintUtil printUtil;
     final PropertyFileUtil propertyFileUtil;
     final RestApi restApi;
-    private final Cache cache;
+    final Cache cache;
     Row row;
 
     private final CsvFileWriter csvFileWriter;
@@ -81,7 +83,7 @@ public abstract class AbstractTask implements Runnable {
         }
         writeToResultCsv(result);
         if (propertyFileUtil.getResultsFileEnabled()) {
-            completeUtil.rowComplete(row, result, actionTotals);
+            completeUtil.rowComplete(row, result, actionTotals, csvFileWriter);
         }
     }
 
@@ -105,7 +107,11 @@ public abstract class AbstractTask implements Runnable {
         return result;
     }
 
-    private void updateRowProcessedCounts() {
+    /**
+     * Counts a finished row, and prints the total every so often to show progress, including rows that finish
+     * without a task, such as the unchanged rows of a delta load.
+     */
+    public static void updateRowProcessedCounts(PrintUtil printUtil) {
         rowProcessedCount.incrementAndGet();
         if (rowProcessedCount.intValue() % 111 == 0) {
             printUtil.printAndLog("Processed: "
@@ -115,7 +121,7 @@ public abstract class AbstractTask implements Runnable {
 
     private void writeToResultCsv(Result result) {
         actionTotals.incrementActionTotal(result.getAction());
-        updateRowProcessedCounts();
+        updateRowProcessedCounts(printUtil);
 
         // Handle the situation where results files get locked for a brief period of time
         int attempts = 0;
@@ -161,10 +167,13 @@ public abstract class AbstractTask implements Runnable {
                     printUtil.log(Level.DEBUG, "--> Using Cached Entry: " + entities.size() + " entities: "
                         + entities.stream().map(BullhornEntity::getId).collect(Collectors.toList()));
                 } else {
-                    entities = findEntitiesRemote(entityExistFields, returnFields, isPrimaryEntity);
-                    printUtil.log(Level.DEBUG, "--> Adding Cache Entry from Rest Call: " + entities.size() + " entities: "
-                        + entities.stream().map(BullhornEntity::getId).collect(Collectors.toList()));
-                    cache.setEntry(entityInfo, entityExistFields, returnFields, entities);
+                    // Identical lookups that miss at the same time from other rows share a single rest call
+                    entities = cache.loadEntry(entityInfo, entityExistFields, returnFields, () -> {
+                        List<BullhornEntity> remoteEntities = findEntitiesRemote(entityExistFields, returnFields, isPrimaryEntity);
+                        printUtil.log(Level.DEBUG, "--> Adding Cache Entry from Rest Call: " + remoteEntities.size() + " entities: "
+                            + remoteEntities.stream().map(BullhornEntity::getId).collect(Collectors.toList()));
+                        return remoteEntities;
+                    });
                 }
             } else {
                 entities = findEntitiesRemote(entityExistFields, returnFields, isPrimaryEntity);
@@ -174,6 +183,47 @@ public abstract class AbstractTask implements Runnable {
         return entities;
     }
 
+    /**
+     * Writes a record that was just inserted or updated into the cache, so that later lookups find it without a rest call.
+     * <p>
+     * This replaces the empty result that was cached when checking for an existing record before the insert, which would
+     * otherwise hide the new record from later rows and files. The record is cached in the same form as both the
+     * findEntities lookup for existing records, and the findActiveEntities lookup that other entities use for To-One
+     * associations, such as `clientCorporation.externalID` on ClientContact. Only exist fields with a single, direct
+     * value can be cached this way, since those are the values that can be filled out on an empty entity.
+     *
+     * @param entityExistFields the key/value pairs that were used to look up the record
+     */
+    void cacheEntity(List<Field> entityExistFields) throws IllegalAccessException, InstantiationException,
+        InvocationTargetException, ParseException {
+        if (!propertyFileUtil.getCaching() || propertyFileUtil.getWildcardMatching() || entityExistFields.isEmpty()) {
+            return;
+        }
+
+        BullhornEntity cachedEntity = (BullhornEntity) entityInfo.getEntityClass().newInstance();
+        cachedEntity.setId(entityId);
+        for (Field field : entityExistFields) {
+            if (field.getCell().isAssociation() || field.split(propertyFileUtil.getListDelimiter()).size() != 1) {
+                return;
+            }
+            field.populateFieldOnEntity(cachedEntity);
+        }
+        List<BullhornEntity> entities = Lists.newArrayList(cachedEntity);
+
+        Set<String> returnFields = Sets.newHashSet(StringConsts.ID);
+        returnFields.addAll(entityExistFields.stream().map(field -> field.getFieldParameterName(true)).collect(Collectors.toSet()));
+        cache.setEntry(entityInfo, entityExistFields, returnFields, entities);
+
+        // To-One lookups are by a single field, and only for active records
+        if (entityExistFields.size() == 1 && entityInfo.isSoftDeletable() && !row.hasValue(StringConsts.IS_DELETED)) {
+            Cell isDeletedCell = new Cell(StringConsts.IS_DELETED, FindUtil.getIsDeletedValue(entityInfo, false));
+            Field isDeletedField = new Field(entityInfo, isDeletedCell, true, propertyFileUtil.getDateParser());
+            Set<String> activeReturnFields = Sets.newHashSet(returnFields);
+            activeReturnFields.add(isDeletedField.getFieldParameterName(true));
+            cache.setEntry(entityInfo, Lists.newArrayList(entityExistFields.get(0), isDeletedField), activeReturnFields, entities);
+        }
+    }
+
     /**
      * Calls findEntities for only active entities that are not soft-deleted, with special check for disabled corporate users still being active.
      */
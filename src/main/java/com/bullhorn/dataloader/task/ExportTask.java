@@ -1,6 +1,10 @@
 package com.bullhorn.dataloader.task;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 import com.bullhorn.dataloader.data.ActionTotals;
 import com.bullhorn.dataloader.data.Cell;
@@ -62,24 +66,32 @@ public class ExportTask extends AbstractTask {
         BullhornEntity entity = foundEntityList.get(0);
         entityId = entity.getId();
 
-        // Follow-on query for associated entities that have not returned the full number of records
+        // Follow-on query for associated entities that have not returned the full number of records, which are
+        // streamed straight into the exported value one page at a time, instead of being collected onto the entity
+        Map<Field, String> followOnValues = new HashMap<>();
         for (Field field : record.getToManyFields()) {
             OneToMany existingToMany = field.getOneToManyFromEntity(entity);
             if (existingToMany != null && existingToMany.getTotal() > existingToMany.getData().size()) {
-                List<BullhornEntity> associations = restApi.getAllAssociationsList((Class<AssociationEntity>) entityInfo.getEntityClass(),
-                    Sets.newHashSet(entityId), AssociationUtil.getToManyField(field), Sets.newHashSet(field.getName()),
-                    ParamFactory.associationParams());
-                OneToMany newToMany = new OneToMany();
-                newToMany.setTotal(existingToMany.getTotal());
-                newToMany.setData(associations);
-                field.populateOneToManyOnEntity(entity, newToMany);
+                Iterator<BullhornEntity> associations = restApi.getAllAssociationsStream(
+                    (Class<AssociationEntity>) entityInfo.getEntityClass(), Sets.newHashSet(entityId),
+                    AssociationUtil.getToManyField(field), Sets.newHashSet(field.getName()),
+                    ParamFactory.associationParams()).iterator();
+                StringJoiner values = new StringJoiner(propertyFileUtil.getListDelimiter());
+                while (associations.hasNext()) {
+                    String value = field.getStringValueFromEntity(associations.next(), propertyFileUtil.getListDelimiter());
+                    if (!value.isEmpty()) {
+                        values.add(value);
+                    }
+                }
+                followOnValues.put(field, values.toString());
             }
         }
 
         // Replace row with current data from Rest
         Row updatedRow = new Row(row.getFilePath(), row.getNumber());
         for (Field field : record.getFields()) {
-            String value = field.getStringValueFromEntity(entity, propertyFileUtil.getListDelimiter());
+            String value = followOnValues.containsKey(field) ? followOnValues.get(field)
+                : field.getStringValueFromEntity(entity, propertyFileUtil.getListDelimiter());
             Cell updatedCell = new Cell(field.getCell().getName(), value);
             updatedRow.addCell(updatedCell);
         }
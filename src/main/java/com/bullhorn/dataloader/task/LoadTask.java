@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -23,9 +24,11 @@ import com.bullhorn.dataloader.rest.CompleteUtil;
 import com.bullhorn.dataloader.rest.Field;
 import com.bullhorn.dataloader.rest.Record;
 import com.bullhorn.dataloader.rest.RestApi;
+import com.bullhorn.dataloader.util.AssociationDiff;
 import com.bullhorn.dataloader.util.AssociationUtil;
 import com.bullhorn.dataloader.util.DataLoaderException;
 import com.bullhorn.dataloader.util.FindUtil;
+import com.bullhorn.dataloader.util.MethodAccessor;
 import com.bullhorn.dataloader.util.MethodUtil;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
@@ -37,6 +40,7 @@ import com.bullhornsdk.data.model.entity.core.type.AssociationEntity;
 import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
 import com.bullhornsdk.data.model.entity.core.type.CreateEntity;
 import com.bullhornsdk.data.model.entity.core.type.UpdateEntity;
+import com.bullhornsdk.data.model.entity.embedded.OneToMany;
 import com.bullhornsdk.data.model.parameter.standard.ParamFactory;
 import com.bullhornsdk.data.model.response.crud.CrudResponse;
 import com.google.common.collect.Lists;
@@ -44,10 +48,16 @@ import com.google.common.collect.Sets;
 
 /**
  * Handles converting a row of CSV data into REST calls to either insert or update a record in Bullhorn.
+ * <p>
+ * When only updating changed fields, the current values of an existing record are fetched along with the lookup, and
+ * the update only contains the fields that differ. If nothing differs, no update is made and the row is unchanged.
  */
 public class LoadTask extends AbstractTask {
     private BullhornEntity entity;
+    private BullhornEntity currentEntity;
     private boolean isNewEntity = true;
+    private boolean hasChangedFields = false;
+    private Set<String> existReturnFields;
     private Record record;
 
     public LoadTask(EntityInfo entityInfo,
@@ -73,21 +83,40 @@ public class LoadTask extends AbstractTask {
         populateFields();
         insertAttachmentToDescription();
         insertOrUpdateEntity();
-        createAssociations();
-        return isNewEntity ? Result.insert(entityId) : Result.update(entityId);
+        cacheEntity(record.getEntityExistFields());
+        cacheCurrentEntity();
+        boolean hasChangedAssociations = createAssociations();
+        if (isNewEntity) {
+            return Result.insert(entityId);
+        }
+        return currentEntity != null && !hasChangedFields && !hasChangedAssociations ? Result.upToDate(entityId)
+            : Result.update(entityId);
     }
 
     /**
      * Performs lookup for entity if the entity exist field is set. If found, will use the existing entity. If not found
      * will create a new entity.
+     * <p>
+     * When only updating changed fields, the lookup also returns the current values of the fields in the row, and the
+     * existing entity is kept as the current entity, while the entity to update starts out empty.
      */
     private void getOrCreateEntity() throws IllegalAccessException, InstantiationException, InvocationTargetException {
-        List<BullhornEntity> foundEntityList = findEntities(record.getEntityExistFields(), Sets.newHashSet(StringConsts.ID), true);
+        existReturnFields = Sets.newHashSet(StringConsts.ID);
+        if (propertyFileUtil.getOnlyUpdateChangedFields()) {
+            existReturnFields.addAll(record.getFieldsParameter(false));
+        }
+        List<BullhornEntity> foundEntityList = findEntities(record.getEntityExistFields(), existReturnFields, true);
         if (foundEntityList.isEmpty()) {
             entity = (BullhornEntity) entityInfo.getEntityClass().newInstance();
         } else if (foundEntityList.size() > 1) {
             throw new DataLoaderException(ErrorInfo.DUPLICATE_RECORDS,
                 FindUtil.getMultipleRecordsExistMessage(entityInfo, record.getEntityExistFields(), foundEntityList));
+        } else if (propertyFileUtil.getOnlyUpdateChangedFields()) {
+            currentEntity = foundEntityList.get(0);
+            entityId = currentEntity.getId();
+            entity = (BullhornEntity) entityInfo.getEntityClass().newInstance();
+            entity.setId(entityId);
+            isNewEntity = false;
         } else {
             entity = foundEntityList.get(0);
             entityId = entity.getId();
@@ -96,7 +125,8 @@ public class LoadTask extends AbstractTask {
     }
 
     /**
-     * Calls rest to insert or update the entity by passing in the filled out entity object.
+     * Calls rest to insert or update the entity by passing in the filled out entity object. An update is not needed
+     * when only updating changed fields and no fields have changed.
      */
     private void insertOrUpdateEntity() {
         if (isNewEntity) {
@@ -104,29 +134,77 @@ public class LoadTask extends AbstractTask {
             entityId = response.getChangedEntityId();
             entity.setId(entityId);
             postProcessEntityInsert(entity.getId());
-        } else {
+        } else if (currentEntity == null || hasChangedFields) {
             restApi.updateEntity((UpdateEntity) entity);
         }
     }
 
+    /**
+     * When only updating changed fields, replaces the cached lookup from getOrCreateEntity with the values that this row
+     * loaded, so that later rows for the same record neither insert a duplicate nor compare against stale values.
+     * <p>
+     * The lookup fetches the current values of the fields in the row, which is a different cache entry than the one
+     * written by cacheEntity. To-One fields are cached with only the value from the row, and empty To-One fields, which
+     * are never sent, are left empty, so that they are treated as changed by a later row that has a value for them.
+     */
+    private void cacheCurrentEntity() throws IllegalAccessException, InstantiationException,
+        InvocationTargetException, ParseException {
+        if (!propertyFileUtil.getCaching() || !propertyFileUtil.getOnlyUpdateChangedFields()
+            || record.getEntityExistFields().isEmpty()) {
+            return;
+        }
+
+        BullhornEntity cachedEntity = (BullhornEntity) entityInfo.getEntityClass().newInstance();
+        cachedEntity.setId(entityId);
+        for (Field field : record.getFields()) {
+            if (field.isToMany() || (field.isToOne() && field.getStringValue().isEmpty())) {
+                continue;
+            }
+            if (field.isToOne()) {
+                BullhornEntity toOneEntity = (BullhornEntity) field.getFieldEntity().getEntityClass().newInstance();
+                field.populateAssociationOnEntity(cachedEntity, toOneEntity);
+            } else {
+                field.populateFieldOnEntity(cachedEntity);
+            }
+        }
+        cache.setEntry(entityInfo, record.getEntityExistFields(), existReturnFields, Lists.newArrayList(cachedEntity));
+    }
+
     /**
      * Handles inserting/updating all cells in the row.
      * <p>
      * Direct Fields: Populate the field on the entity. Compound Fields (address): Get the address object and populate
      * the field on the address. To-One Associations: Get the association object and populate the internal ID field.
-     * To-Many Associations: Call the association REST method (unless we are loading notes)
+     * To-Many Associations: Call the association REST method (unless we are loading notes), and also send them in the
+     * insert call of a new entity when possible
+     * <p>
+     * When there is a current entity, fields that already hold the same value are left off of the entity, except for
+     * the fields of an address, which are always sent together so that a changed address is updated as a whole.
      */
     private void populateFields() throws Exception {
         for (Field field : record.getFields()) {
             if (field.isToMany()) {
                 if (entityInfo == EntityInfo.NOTE) {
                     prepopulateAssociation(field);
+                    hasChangedFields = true;
+                } else if (isNewEntity && AssociationUtil.isSentOnInsert(entityInfo, AssociationUtil.getToManyField(field))) {
+                    prepopulateNewAssociation(field);
                 }
-            } else if (field.isToOne()) {
-                if (!field.getStringValue().isEmpty()) {
-                    BullhornEntity toOneEntity = findToOneEntity(field);
-                    field.populateAssociationOnEntity(entity, toOneEntity);
-                }
+                continue;
+            }
+            if (field.isToOne() && field.getStringValue().isEmpty()) {
+                continue;
+            }
+            boolean isSameValue = currentEntity != null
+                && field.hasSameValueOnEntity(currentEntity, propertyFileUtil.getListDelimiter());
+            if (!isSameValue) {
+                hasChangedFields = true;
+            } else if (!field.getCell().isAddress()) {
+                continue;
+            }
+            if (field.isToOne()) {
+                BullhornEntity toOneEntity = findToOneEntity(field);
+                field.populateAssociationOnEntity(entity, toOneEntity);
             } else {
                 field.populateFieldOnEntity(entity);
             }
@@ -168,42 +246,80 @@ public class LoadTask extends AbstractTask {
         }
     }
 
+    /**
+     * Populates a given To-Many field for a new entity, so that the associations are created by the insert call.
+     * <p>
+     * Only the IDs of the associations are sent, on new objects, so that the records returned by the lookup, which can
+     * be shared with other rows through the cache, are left unchanged.
+     *
+     * @param field the To-Many field to populate the entity with
+     */
+    private void prepopulateNewAssociation(Field field) throws IllegalAccessException, InvocationTargetException,
+        InstantiationException {
+        List<BullhornEntity> associations = findAssociations(field);
+        if (associations.isEmpty()) {
+            return;
+        }
+        List<BullhornEntity> newAssociations = Lists.newArrayList();
+        for (BullhornEntity association : associations) {
+            BullhornEntity newAssociation = association.getClass().newInstance();
+            newAssociation.setId(association.getId());
+            newAssociations.add(newAssociation);
+        }
+        OneToMany<BullhornEntity> oneToMany = new OneToMany<>();
+        oneToMany.setData(newAssociations);
+        field.populateOneToManyOnEntity(entity, oneToMany);
+    }
+
     /**
      * Makes association REST calls for all To-Many relationships for the entity after the entity has been created.
      * <p>
-     * TODO: remove this method once prepopulating associations can be used for all entities
+     * Associations that were sent with the insert call of a new entity are skipped, and since a new entity has no
+     * existing associations, the remaining associations are added without looking up the existing ones first.
+     *
+     * @return true if any associations were added or removed
      */
     @SuppressWarnings("unchecked")
-    private void createAssociations() throws IllegalAccessException, InvocationTargetException {
+    private boolean createAssociations() throws IllegalAccessException, InvocationTargetException {
         // Note associations are filled out in the create call
         if (entityInfo == EntityInfo.NOTE) {
-            return;
+            return false;
         }
 
+        boolean hasChangedAssociations = false;
+
         for (Field field : record.getToManyFields()) {
             AssociationField associationField = AssociationUtil.getToManyField(field);
+            if (isNewEntity && AssociationUtil.isSentOnInsert(entityInfo, associationField)) {
+                continue;
+            }
             List<BullhornEntity> associations = findAssociations(field);
 
             // Filter out any existing associations, down to only new association IDs
-            List<BullhornEntity> existingAssociations = restApi.getAllAssociationsList((Class<AssociationEntity>) entityInfo.getEntityClass(),
+            List<BullhornEntity> existingAssociations = isNewEntity ? Collections.emptyList()
+                : restApi.getAllAssociationsList((Class<AssociationEntity>) entityInfo.getEntityClass(),
                 Sets.newHashSet(entityId), associationField, Sets.newHashSet(StringConsts.ID), ParamFactory.associationParams());
-            List<Integer> associationIds = associations.stream().map(BullhornEntity::getId).collect(Collectors.toList());
-            List<Integer> existingIDs = existingAssociations.stream().map(BullhornEntity::getId).collect(Collectors.toList());
-            List<Integer> addAssociations = associationIds.stream().filter(id -> !existingIDs.contains(id)).collect(Collectors.toList());
-            List<Integer> removeAssociations = existingIDs.stream().filter(id -> !associationIds.contains(id)).collect(Collectors.toList());
+            AssociationDiff associationDiff = new AssociationDiff(
+                associations.stream().map(BullhornEntity::getId).collect(Collectors.toList()),
+                existingAssociations.stream().map(BullhornEntity::getId).collect(Collectors.toList()));
+            List<Integer> addAssociations = associationDiff.getAddIds();
+            List<Integer> removeAssociations = associationDiff.getRemoveIds();
 
             // Add the new associations to the entity
             if (!addAssociations.isEmpty()) {
                 restApi.associateWithEntity((Class<AssociationEntity>) entityInfo.getEntityClass(), entityId,
                     associationField, addAssociations);
+                hasChangedAssociations = true;
             }
 
             // Remove old associations from the entity
             if (!removeAssociations.isEmpty()) {
                 restApi.disassociateWithEntity((Class<AssociationEntity>) entityInfo.getEntityClass(), entityId,
                     associationField, removeAssociations);
+                hasChangedAssociations = true;
             }
         }
+        return hasChangedAssociations;
     }
 
     /**
@@ -286,7 +402,8 @@ public class LoadTask extends AbstractTask {
                 File convertedAttachmentFile = new File(convertedAttachmentFilepath);
                 if (convertedAttachmentFile.exists()) {
                     String description = FileUtils.readFileToString(convertedAttachmentFile);
-                    entityInfo.getSetterMethodMap().get(descriptionMethod).invoke(entity, description);
+                    MethodAccessor.of(entityInfo.getSetterMethodMap().get(descriptionMethod)).set(entity, description);
+                    hasChangedFields = true;
                 }
             }
         }
@@ -0,0 +1,62 @@
+package com.bullhorn.dataloader.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The difference between the associations a record should have and the associations it already has.
+ * <p>
+ * Each set of ids is held as a sorted array of primitive ints, so that checking membership is a binary search instead
+ * of a scan through a list of boxed integers. This keeps the comparison fast for records with thousands of
+ * associations, like tearsheets and distribution lists. The ids to add and to remove keep the order that they were
+ * given in.
+ */
+public class AssociationDiff {
+
+    private final List<Integer> addIds;
+    private final List<Integer> removeIds;
+
+    /**
+     * Compares the two sets of ids.
+     *
+     * @param newIds      the ids of the associations that the record should have
+     * @param existingIds the ids of the associations that the record has now
+     */
+    public AssociationDiff(Collection<Integer> newIds, Collection<Integer> existingIds) {
+        addIds = subtract(newIds, toSortedArray(existingIds));
+        removeIds = subtract(existingIds, toSortedArray(newIds));
+    }
+
+    /**
+     * The ids to associate, which the record should have but does not.
+     */
+    public List<Integer> getAddIds() {
+        return addIds;
+    }
+
+    /**
+     * The ids to disassociate, which the record has but should not.
+     */
+    public List<Integer> getRemoveIds() {
+        return removeIds;
+    }
+
+    private static int[] toSortedArray(Collection<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * Returns the ids that are not in the sorted array of ids to exclude, in order.
+     */
+    private static List<Integer> subtract(Collection<Integer> ids, int[] sortedIdsToExclude) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer id : ids) {
+            if (Arrays.binarySearch(sortedIdsToExclude, id) < 0) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+}
@@ -1,10 +1,17 @@
 package com.bullhorn.dataloader.util;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
 
 import com.bullhorn.dataloader.data.Cell;
 import com.bullhorn.dataloader.enums.EntityInfo;
@@ -26,6 +33,8 @@ import com.bullhornsdk.data.model.entity.core.standard.Placement;
 import com.bullhornsdk.data.model.entity.core.standard.Tearsheet;
 import com.bullhornsdk.data.model.entity.core.type.AssociationEntity;
 import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
+import com.bullhornsdk.data.model.entity.embedded.OneToMany;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Utility for determining the associated fields that are on a given entity.
@@ -37,6 +46,8 @@ public class AssociationUtil {
     // The key is always this entity, and each value is the entity that it is associated to
     private static final Map<EntityInfo, List<AssociationField<AssociationEntity, BullhornEntity>>>
         entityToAssociationsMap = new HashMap<>();
+    // The To-Many fields that SDK-REST sends in the body of an insert call, by entity class and field name
+    private static final Map<String, Boolean> sentOnInsertMap = new ConcurrentHashMap<>();
 
     /**
      * Returns the list of associated fields for the given SDK-REST entity class.
@@ -132,6 +143,71 @@ public class AssociationUtil {
         return false;
     }
 
+    /**
+     * Returns true if SDK-REST sends the given To-Many association in the body of an insert call, so that the
+     * associations can be created along with the entity, instead of with association calls afterwards.
+     * <p>
+     * This relies on two rules: SDK-REST serializes the entity for an insert call with Jackson, which writes every
+     * OneToMany getter unless the getter is marked with JsonIgnore, and the REST create call applies the To-Many
+     * associations that are in the body, as it does for Note. SDK-REST marks the To-Many fields that the create call
+     * does not accept with JsonIgnore, such as primarySkills on Candidate, and those associations still need to be made
+     * with association calls.
+     *
+     * @param entityInfo       the entity type
+     * @param associationField the To-Many association on the entity
+     * @return true if the association can be sent with the entity when inserting
+     */
+    public static Boolean isSentOnInsert(EntityInfo entityInfo, AssociationField associationField) {
+        String fieldName = associationField.getAssociationFieldName();
+        return sentOnInsertMap.computeIfAbsent(entityInfo.getEntityName() + "." + fieldName, key -> {
+            try {
+                Class<?> entityClass = entityInfo.getEntityClass();
+                Method getter = entityClass.getMethod("get" + StringUtils.capitalize(fieldName));
+                return getter.getReturnType() == OneToMany.class && !getter.isAnnotationPresent(JsonIgnore.class);
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Returns the entities that the given entity can reference, through either To-One or To-Many associations.
+     * <p>
+     * A reference to a Person can be any of the person entities, so it is returned as all of them. The entity itself
+     * is never included, even when it can reference other records of the same type.
+     *
+     * @param entityInfo the entity type
+     * @return the entities that records of this type can be associated to
+     */
+    public static Set<EntityInfo> getReferencedEntities(EntityInfo entityInfo) {
+        Set<EntityInfo> referencedEntities = EnumSet.noneOf(EntityInfo.class);
+        for (Method method : entityInfo.getSetterMethodMap().values()) {
+            Type type = method.getGenericParameterTypes()[0];
+            if (method.getParameterTypes()[0] == OneToMany.class && type instanceof ParameterizedType) {
+                type = ((ParameterizedType) type).getActualTypeArguments()[0];
+            }
+            if (type instanceof Class) {
+                addReferencedEntity(referencedEntities, EntityInfo.fromString(((Class<?>) type).getSimpleName()));
+            }
+        }
+        for (AssociationField associationField : getToManyFields(entityInfo)) {
+            addReferencedEntity(referencedEntities,
+                EntityInfo.fromString(associationField.getAssociationType().getSimpleName()));
+        }
+        referencedEntities.remove(entityInfo);
+        return referencedEntities;
+    }
+
+    private static void addReferencedEntity(Set<EntityInfo> referencedEntities, EntityInfo referencedEntity) {
+        if (referencedEntity == EntityInfo.PERSON) {
+            referencedEntities.add(EntityInfo.CANDIDATE);
+            referencedEntities.add(EntityInfo.CLIENT_CONTACT);
+            referencedEntities.add(EntityInfo.LEAD);
+        } else if (referencedEntity != null) {
+            referencedEntities.add(referencedEntity);
+        }
+    }
+
     /**
      * Returns the associations object from SDK-REST for the given entity
      * <p>
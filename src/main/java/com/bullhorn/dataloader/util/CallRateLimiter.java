@@ -0,0 +1,44 @@
+package com.bullhorn.dataloader.util;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Keeps the calls made to the REST API under a fixed number of calls per second, no matter how many threads are used.
+ * <p>
+ * Reads (lookups, associations and file downloads) and writes (inserts, updates, deletes, associating and file
+ * uploads) have separate budgets, set by the readCallsPerSecond and writeCallsPerSecond properties, where zero means
+ * unlimited. Each budget is a token bucket that hands out calls evenly spaced over each second, so that many threads
+ * share a smooth call rate instead of sending bursts of calls that trigger throttling on the server.
+ */
+public class CallRateLimiter {
+
+    private final RateLimiter readRateLimiter;
+    private final RateLimiter writeRateLimiter;
+
+    public CallRateLimiter(PropertyFileUtil propertyFileUtil) {
+        this.readRateLimiter = createRateLimiter(propertyFileUtil.getReadCallsPerSecond());
+        this.writeRateLimiter = createRateLimiter(propertyFileUtil.getWriteCallsPerSecond());
+    }
+
+    /**
+     * Waits until the read budget allows another call.
+     */
+    public void acquireRead() {
+        if (readRateLimiter != null) {
+            readRateLimiter.acquire();
+        }
+    }
+
+    /**
+     * Waits until the write budget allows another call.
+     */
+    public void acquireWrite() {
+        if (writeRateLimiter != null) {
+            writeRateLimiter.acquire();
+        }
+    }
+
+    private RateLimiter createRateLimiter(Integer callsPerSecond) {
+        return callsPerSecond != null && callsPerSecond > 0 ? RateLimiter.create(callsPerSecond) : null;
+    }
+}
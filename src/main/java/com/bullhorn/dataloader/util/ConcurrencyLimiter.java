@@ -0,0 +1,148 @@
+package com.bullhorn.dataloader.util;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Adjusts the number of rows that are processed at the same time, based on how the REST API is responding.
+ * <p>
+ * When the adaptiveConcurrency property is enabled, every REST call reports its latency and HTTP status here. After
+ * each window of calls, the limit is adjusted using additive increase, multiplicative decrease (AIMD):
+ * - Throttled (HTTP 429) or server error (HTTP 5xx) responses cut the limit by a quarter
+ * - Average latency of more than double the baseline latency cuts the limit by a tenth
+ * - Otherwise, the limit grows by one
+ * The baseline is the lowest average latency seen so far, which is allowed to drift upwards a little with every window,
+ * so that a cluster that stays slower than it started does not hold the limit down for the rest of the run.
+ * <p>
+ * The limit starts at numThreads and stays between 1 and the maximum number of threads. It is applied to the size of
+ * the thread pool that runs the tasks, and every change is logged along with the reason for it.
+ */
+public class ConcurrencyLimiter {
+
+    static final Integer WINDOW_SIZE = 20;
+    private static final Integer MIN_LIMIT = 1;
+    private static final Double ERROR_BACKOFF_RATIO = 0.75;
+    private static final Double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final Double LATENCY_TOLERANCE_RATIO = 2.0;
+    private static final Double BASELINE_DRIFT_RATIO = 1.05;
+
+    private final Boolean enabled;
+    private final Integer maxLimit;
+    private final PrintUtil printUtil;
+    private ThreadPoolExecutor threadPoolExecutor = null;
+    private double limit;
+    private double baselineLatencyNanos = 0;
+
+    // The REST calls recorded since the limit was last evaluated
+    private int windowCalls = 0;
+    private int windowThrottled = 0;
+    private int windowServerErrors = 0;
+    private long windowLatencyNanos = 0;
+
+    public ConcurrencyLimiter(PropertyFileUtil propertyFileUtil, PrintUtil printUtil) {
+        this.enabled = propertyFileUtil.getAdaptiveConcurrency();
+        this.maxLimit = PropertyValidationUtil.MAX_NUM_THREADS;
+        this.printUtil = printUtil;
+        this.limit = propertyFileUtil.getNumThreads();
+    }
+
+    public Boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Integer getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * The most rows that can ever be processed at the same time: the maximum number of threads when adaptive, otherwise
+     * the fixed numThreads.
+     */
+    public Integer getMaxLimit() {
+        return enabled ? maxLimit : getLimit();
+    }
+
+    /**
+     * Sets the thread pool that the limit applies to, which is sized to the current limit.
+     */
+    public synchronized void setThreadPoolExecutor(ThreadPoolExecutor threadPoolExecutor) {
+        this.threadPoolExecutor = threadPoolExecutor;
+        applyLimit();
+    }
+
+    /**
+     * Called after every REST call, successful or not, when adaptive concurrency is enabled.
+     *
+     * @param latencyNanos how long the call took
+     * @param statusCode   the HTTP status of the response, or 0 if unknown
+     */
+    public synchronized void recordResponse(long latencyNanos, int statusCode) {
+        if (!enabled) {
+            return;
+        }
+        windowCalls++;
+        windowLatencyNanos += latencyNanos;
+        if (statusCode == 429) {
+            windowThrottled++;
+        } else if (statusCode >= 500 && statusCode < 600) {
+            windowServerErrors++;
+        }
+        if (windowCalls >= WINDOW_SIZE) {
+            evaluateWindow();
+        }
+    }
+
+    private void evaluateWindow() {
+        double averageLatencyNanos = (double) windowLatencyNanos / windowCalls;
+        baselineLatencyNanos = baselineLatencyNanos == 0 ? averageLatencyNanos
+            : Math.min(averageLatencyNanos, baselineLatencyNanos * BASELINE_DRIFT_RATIO);
+
+        if (windowThrottled > 0) {
+            changeLimit(limit * ERROR_BACKOFF_RATIO, windowThrottled + " throttled (HTTP 429) responses");
+        } else if (windowServerErrors > 0) {
+            changeLimit(limit * ERROR_BACKOFF_RATIO, windowServerErrors + " server error (HTTP 5xx) responses");
+        } else if (averageLatencyNanos > baselineLatencyNanos * LATENCY_TOLERANCE_RATIO) {
+            changeLimit(limit * LATENCY_BACKOFF_RATIO, "average latency of " + toMillis(averageLatencyNanos)
+                + " ms is more than double the baseline of " + toMillis(baselineLatencyNanos) + " ms");
+        } else {
+            changeLimit(limit + 1, "average latency of " + toMillis(averageLatencyNanos) + " ms is steady");
+        }
+
+        windowCalls = 0;
+        windowThrottled = 0;
+        windowServerErrors = 0;
+        windowLatencyNanos = 0;
+    }
+
+    private void changeLimit(double newLimit, String reason) {
+        int previousLimit = getLimit();
+        limit = Math.max(MIN_LIMIT, Math.min(maxLimit, newLimit));
+        if (getLimit() != previousLimit) {
+            printUtil.log(Level.INFO, "Concurrency limit changed from " + previousLimit + " to " + getLimit() + ": " + reason);
+            applyLimit();
+        }
+    }
+
+    /**
+     * Resizes the thread pool to the current limit. The maximum size must never be below the core size, so the order
+     * of the two calls depends on whether the pool is growing or shrinking.
+     */
+    private void applyLimit() {
+        if (threadPoolExecutor != null) {
+            int size = getLimit();
+            if (size > threadPoolExecutor.getMaximumPoolSize()) {
+                threadPoolExecutor.setMaximumPoolSize(size);
+                threadPoolExecutor.setCorePoolSize(size);
+            } else {
+                threadPoolExecutor.setCorePoolSize(size);
+                threadPoolExecutor.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private long toMillis(double nanos) {
+        return TimeUnit.NANOSECONDS.toMillis((long) nanos);
+    }
+}
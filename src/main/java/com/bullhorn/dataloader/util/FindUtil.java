@@ -79,6 +79,21 @@ public class FindUtil {
         }
     }
 
+    /**
+     * Given several fields with the same name and different values, generates the lucene search string that finds the
+     * records for any of the values at once, such as: (externalID:"1" OR externalID:"2" OR externalID:"3")
+     *
+     * @param fields           the same field from several rows, each with its own value
+     * @param propertyFileUtil the propertyFile settings
+     * @param isPrimaryEntity  true = lookup for entity that we are loading, false = lookup for association
+     * @return the formatted lucene search string
+     */
+    public static String getLuceneSearchForAnyValue(List<Field> fields, PropertyFileUtil propertyFileUtil, Boolean isPrimaryEntity) {
+        return "(" + fields.stream()
+            .map(field -> getLuceneSearch(field, propertyFileUtil, isPrimaryEntity))
+            .collect(Collectors.joining(" OR ")) + ")";
+    }
+
     /**
      * Returns the format of a single term in a query where clause
      */
@@ -141,6 +156,21 @@ public class FindUtil {
         }
     }
 
+    /**
+     * Given several fields with the same name and different values, generates the query where clause that finds the
+     * records for any of the values at once, such as: (externalID='1' OR externalID='2' OR externalID='3')
+     *
+     * @param fields           the same field from several rows, each with its own value
+     * @param propertyFileUtil the propertyFile settings
+     * @param isPrimaryEntity  true = lookup for entity that we are loading, false = lookup for association
+     * @return the formatted where clause for the query string
+     */
+    public static String getSqlQueryForAnyValue(List<Field> fields, PropertyFileUtil propertyFileUtil, Boolean isPrimaryEntity) {
+        return "(" + fields.stream()
+            .map(field -> FindUtil.getSqlQuery(field, propertyFileUtil, isPrimaryEntity))
+            .collect(Collectors.joining(" OR ")) + ")";
+    }
+
     /**
      * Since the 'isDeleted' value is not the same across all entities (Notes are different), this will return the appropriate string to use.
      *
@@ -190,13 +220,13 @@ public class FindUtil {
      * Convenience method that extracts the externalID from the search string if it exists.
      *
      * @param searchString the lucene search string that has been created for use in the rest find call
-     * @return empty string if it does not exist, or there are extra search criteria involved
+     * @return empty string if it does not exist, there are extra search criteria involved, or it is a group of values
      */
     public static String getExternalIdSearchValue(String searchString) {
         final String externalIdStart = StringConsts.EXTERNAL_ID + ":";
 
         String externalId = "";
-        if (searchString.contains(externalIdStart) && !searchString.contains(" AND ")) {
+        if (searchString.contains(externalIdStart) && !searchString.contains(" AND ") && !searchString.startsWith("(")) {
             final String remaining = searchString.substring(searchString.indexOf(externalIdStart) + externalIdStart.length());
             externalId = remaining.replaceAll("\"", "").trim();
         }
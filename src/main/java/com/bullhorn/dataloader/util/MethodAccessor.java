@@ -0,0 +1,156 @@
+package com.bullhorn.dataloader.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Fast access to the getter and setter methods of SDK-REST entity classes.
+ * <p>
+ * Calling `method.invoke` goes through reflection access checks and argument array boxing on every call, and these
+ * methods are called several times for every cell of every row. Instead, a typed function is generated once per
+ * getter/setter using the LambdaMetafactory, which the JIT can inline like a direct call. If a function cannot be
+ * generated for a method, the accessor falls back to `method.invoke`.
+ */
+public class MethodAccessor {
+
+    // This is a cached map of accessors, so that each function is only generated once per entity class and field
+    private static final Map<Method, MethodAccessor> methodToAccessorMap = new ConcurrentHashMap<>();
+
+    private final Method method;
+    private final Class<?> parameterType;
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * Returns the accessor for the given getter or setter method, generating it the first time through.
+     *
+     * @param method a getter (no parameters) or setter (one parameter) method
+     * @return the accessor, or null if the given method is null
+     */
+    public static MethodAccessor of(Method method) {
+        return method == null ? null : methodToAccessorMap.computeIfAbsent(method, MethodAccessor::new);
+    }
+
+    private MethodAccessor(Method method) {
+        // Generated functions are only able to call methods on public classes
+        boolean isAccessible = Modifier.isPublic(method.getDeclaringClass().getModifiers());
+        this.method = method;
+        this.parameterType = method.getParameterCount() == 1 ? method.getParameterTypes()[0] : null;
+        this.getter = isAccessible && method.getParameterCount() == 0 ? createGetter(method) : null;
+        this.setter = isAccessible && method.getParameterCount() == 1 ? createSetter(method) : null;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns true if a function was generated for the method, false if falling back to `method.invoke`.
+     */
+    boolean isGenerated() {
+        return getter != null || setter != null;
+    }
+
+    /**
+     * Calls the getter method on the given object.
+     *
+     * @param target the object to call the getter on
+     * @return the value returned by the getter
+     */
+    public Object get(Object target) throws InvocationTargetException, IllegalAccessException {
+        if (getter != null) {
+            checkTarget(target);
+            return getter.apply(target);
+        }
+        return method.invoke(target);
+    }
+
+    /**
+     * Calls the setter method on the given object.
+     *
+     * @param target the object to call the setter on
+     * @param value  the value to pass to the setter
+     */
+    public void set(Object target, Object value) throws InvocationTargetException, IllegalAccessException {
+        if (setter != null) {
+            checkTarget(target);
+            if (value != null && !parameterType.isInstance(value)) {
+                throw new IllegalArgumentException("argument type mismatch");
+            }
+            setter.accept(target, value);
+        } else {
+            method.invoke(target, value);
+        }
+    }
+
+    /**
+     * Fails the same way that `method.invoke` does when called on the wrong type of object, instead of a cast error.
+     */
+    private void checkTarget(Object target) {
+        if (!method.getDeclaringClass().isInstance(target)) {
+            throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+    }
+
+    /**
+     * Generates the equivalent of: `target -> ((EntityClass) target).getField()`
+     *
+     * @return null if the function cannot be generated for the method
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Method method) {
+        if (method.getReturnType().isPrimitive()) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle methodHandle = lookup.unreflect(method);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                methodHandle,
+                MethodType.methodType(method.getReturnType(), method.getDeclaringClass()));
+            return (Function<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+
+    /**
+     * Generates the equivalent of: `(target, value) -> ((EntityClass) target).setField((FieldType) value)`
+     * <p>
+     * Primitive parameters are left to `method.invoke`, which fails with an IllegalArgumentException for a null value
+     * instead of a NullPointerException during unboxing.
+     *
+     * @return null if the function cannot be generated for the method
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Method method) {
+        Class<?> parameterType = method.getParameterTypes()[0];
+        if (parameterType.isPrimitive()) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle methodHandle = lookup.unreflect(method);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                methodHandle,
+                MethodType.methodType(void.class, method.getDeclaringClass(), parameterType));
+            return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+}
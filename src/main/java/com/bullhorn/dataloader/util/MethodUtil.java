@@ -1,31 +1,31 @@
 package com.bullhorn.dataloader.util;
 
 import java.lang.reflect.Method;
-import java.math.BigDecimal;
-import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.WordUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 
 import com.bullhorn.dataloader.enums.EntityInfo;
 import com.bullhorn.dataloader.enums.ErrorInfo;
 
-import com.bullhornsdk.data.model.entity.core.paybill.optionslookup.SimplifiedOptionsLookup;
-
 /**
  * Utility for low level method related methods used in DataLoader
  */
 public class MethodUtil {
 
+    // The getter/setter methods on SDK-REST classes never change, so the maps are only built once per class
+    private static final Map<Class, Map<String, Method>> getterMethodMapCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Map<String, Method>> setterMethodMapCache = new ConcurrentHashMap<>();
+
     /**
      * Returns the map of getter methods (starting with "get") for the given class
      * Account for methods that are named slightly different in the SDK-REST:
@@ -88,7 +88,8 @@ public class MethodUtil {
      * @return the method if it exists
      */
     public static Method getGetterMethod(EntityInfo entityInfo, String fieldName) {
-        Map<String, Method> getterMethodMap = getGetterMethodMap(entityInfo.getEntityClass());
+        Map<String, Method> getterMethodMap = getterMethodMapCache.computeIfAbsent(entityInfo.getEntityClass(),
+            MethodUtil::getGetterMethodMap);
         return getMethod(entityInfo, fieldName, getterMethodMap);
     }
 
@@ -100,7 +101,8 @@ public class MethodUtil {
      * @return the method if it exists
      */
     public static Method getSetterMethod(EntityInfo entityInfo, String fieldName) {
-        Map<String, Method> setterMethodMap = getSetterMethodMap(entityInfo.getEntityClass());
+        Map<String, Method> setterMethodMap = setterMethodMapCache.computeIfAbsent(entityInfo.getEntityClass(),
+            MethodUtil::getSetterMethodMap);
         return getMethod(entityInfo, fieldName, setterMethodMap);
     }
 
@@ -142,6 +144,8 @@ public class MethodUtil {
      * <p>
      * If the date is being used to query for existing records, then it does not need to be in the form of
      * the date time format, it can stay as a string until used in the find call.
+     * <p>
+     * When converting many values of the same type, resolve the ValueConverter once and call it directly instead.
      *
      * @param value             the user supplied string value
      * @param type              the type to convert to for rest calls
@@ -151,31 +155,7 @@ public class MethodUtil {
      */
     public static Object convertStringToObject(String value, Class type, DateTimeFormatter dateTimeFormatter)
         throws ParseException {
-        String searchDateRange = "\\[.* TO .*\\]";
-        String queryDateRange = "[<=>].*";
-        String trimmedValue = value.trim();
-
-        if (String.class.equals(type)) {
-            return trimmedValue;
-        } else if (Integer.class.equals(type)) {
-            return (StringUtils.isEmpty(trimmedValue)) ? 0 : Integer.parseInt(trimmedValue);
-        } else if (Boolean.class.equals(type)) {
-            return (trimmedValue.equals("1")) || Boolean.parseBoolean(trimmedValue);
-        } else if (DateTime.class.equals(type)
-            && !trimmedValue.matches(searchDateRange)
-            && !trimmedValue.matches(queryDateRange)) {
-            return StringUtils.isEmpty(trimmedValue) ? null : dateTimeFormatter.parseDateTime(trimmedValue);
-        } else if (BigDecimal.class.equals(type)) {
-            DecimalFormat decimalFormat = new DecimalFormat();
-            decimalFormat.setParseBigDecimal(true);
-            return StringUtils.isEmpty(trimmedValue) ? decimalFormat.parse(String.valueOf(0.0)) : decimalFormat.parse(trimmedValue);
-        } else if (SimplifiedOptionsLookup.class.equals(type)) {
-            SimplifiedOptionsLookup simplifiedOptionsLookup = new SimplifiedOptionsLookup();
-            simplifiedOptionsLookup.setId(Integer.parseInt(value));
-            return simplifiedOptionsLookup;
-        }
-
-        return null;
+        return ValueConverter.fromType(type).convert(value, dateTimeFormatter);
     }
 
     /**
@@ -197,10 +177,10 @@ public class MethodUtil {
     }
 
     private static Method getMethod(EntityInfo entityInfo, String fieldName, Map<String, Method> methodMap) {
-        for (String methodName : methodMap.keySet()) {
-            if (methodName.equalsIgnoreCase(fieldName)) {
-                return methodMap.get(methodName);
-            }
+        // The method map keys are always lower case
+        Method method = methodMap.get(fieldName.toLowerCase());
+        if (method != null) {
+            return method;
         }
         checkMalformedAddressField(fieldName);
         throw new DataLoaderException(ErrorInfo.INCORRECT_COLUMN_NAME,
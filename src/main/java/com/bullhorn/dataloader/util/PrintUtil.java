@@ -72,6 +72,8 @@ public class PrintUtil {
         } else {
             printAndLog("Total records inserted: " + actionTotals.getActionTotal(Result.Action.INSERT));
             printAndLog("Total records updated: " + actionTotals.getActionTotal(Result.Action.UPDATE));
+            printAndLog("Total records unchanged: " + actionTotals.getActionTotal(Result.Action.UNCHANGED));
+            printAndLog("Total records up to date: " + actionTotals.getActionTotal(Result.Action.UP_TO_DATE));
             printAndLog("Total records skipped: " + actionTotals.getActionTotal(Result.Action.SKIP));
         }
         printAndLog("Total records failed: " + actionTotals.getActionTotal(Result.Action.FAILURE));
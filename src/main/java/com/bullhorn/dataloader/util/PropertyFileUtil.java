@@ -44,15 +44,29 @@ public class PropertyFileUtil {
     private Boolean wildcardMatching;
     private Boolean singleByteEncoding;
     private Boolean skipDuplicates;
+    private Boolean onlyUpdateChangedFields;
     private Boolean executeFormTriggers;
     private Integer numThreads;
     private Boolean caching;
+    private Integer cacheMaxEntries;
+    private Boolean preloadAssociations;
+    private Integer pageFetchThreads;
+    private Boolean durableResults;
+    private Boolean adaptiveConcurrency;
+    private Integer readCallsPerSecond;
+    private Integer writeCallsPerSecond;
+    private Integer maxRetries;
+    private Integer callTimeoutSeconds;
+    private Integer numParallelFiles;
+    private Boolean resume;
+    private Boolean deltaLoad;
 
     // Property values for developers only:
     private EntityInfo entity;
     private Boolean resultsFileEnabled;
     private String resultsFilePath;
     private Integer resultsFileWriteIntervalMsec;
+    private Integer resultsFileMaxErrors;
     private Integer waitSecondsBetweenFilesInDirectory;
     private Boolean verbose;
 
@@ -206,6 +220,10 @@ public class PropertyFileUtil {
         return skipDuplicates;
     }
 
+    public Boolean getOnlyUpdateChangedFields() {
+        return onlyUpdateChangedFields;
+    }
+
     public Boolean getExecuteFormTriggers() {
         return executeFormTriggers;
     }
@@ -226,6 +244,10 @@ public class PropertyFileUtil {
         return resultsFileWriteIntervalMsec;
     }
 
+    public Integer getResultsFileMaxErrors() {
+        return resultsFileMaxErrors;
+    }
+
     public Boolean getVerbose() {
         return verbose;
     }
@@ -234,6 +256,54 @@ public class PropertyFileUtil {
         return caching;
     }
 
+    public Integer getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public Boolean getPreloadAssociations() {
+        return preloadAssociations;
+    }
+
+    public Integer getPageFetchThreads() {
+        return pageFetchThreads;
+    }
+
+    public Boolean getDurableResults() {
+        return durableResults;
+    }
+
+    public Boolean getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public Integer getReadCallsPerSecond() {
+        return readCallsPerSecond;
+    }
+
+    public Integer getWriteCallsPerSecond() {
+        return writeCallsPerSecond;
+    }
+
+    public Integer getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Integer getCallTimeoutSeconds() {
+        return callTimeoutSeconds;
+    }
+
+    public Integer getNumParallelFiles() {
+        return numParallelFiles;
+    }
+
+    public Boolean getResume() {
+        return resume;
+    }
+
+    public Boolean getDeltaLoad() {
+        return deltaLoad;
+    }
+
     /**
      * Parses the given filename to pull out properties
      *
@@ -304,6 +374,8 @@ public class PropertyFileUtil {
 
     /**
      * Returns the properties parsed from command line arguments, and sets the remaining args
+     * <p>
+     * The resume property can also be given as a flag on its own, such as `--resume`, which turns it on.
      *
      * @param args user provided command line arguments
      * @return the properties gleaned from the command line
@@ -312,12 +384,17 @@ public class PropertyFileUtil {
         Properties properties = new Properties();
         List<String> consumedArgs = new ArrayList<>();
 
-        for (int i = 0; i + 1 < args.length; ++i) {
+        for (int i = 0; i < args.length; ++i) {
             String argName = args[i];
-            String argValue = args[i + 1];
+            String argValue = i + 1 < args.length ? args[i + 1] : null;
 
             Property property = Property.fromString(argName);
-            if (property != null) {
+            if (property == Property.RESUME && !"true".equalsIgnoreCase(argValue) && !"false".equalsIgnoreCase(argValue)) {
+                consumedArgs.add(argName);
+                properties.setProperty(property.getName(), "true");
+            } else if (argValue == null) {
+                break;
+            } else if (property != null) {
                 consumedArgs.add(argName);
                 consumedArgs.add(argValue);
                 properties.setProperty(property.getName(), argValue);
@@ -371,6 +448,8 @@ public class PropertyFileUtil {
             Boolean.valueOf(properties.getProperty(Property.SINGLE_BYTE_ENCODING.getName())));
         skipDuplicates = PropertyValidationUtil.validateBooleanProperty(
             Boolean.valueOf(properties.getProperty(Property.SKIP_DUPLICATES.getName())));
+        onlyUpdateChangedFields = PropertyValidationUtil.validateBooleanProperty(
+            Boolean.valueOf(properties.getProperty(Property.ONLY_UPDATE_CHANGED_FIELDS.getName())));
         executeFormTriggers = PropertyValidationUtil.validateBooleanProperty(
             Boolean.valueOf(properties.getProperty(Property.EXECUTE_FORM_TRIGGERS.getName())));
         entity = PropertyValidationUtil.validateEntityInfoProperty(properties.getProperty(
@@ -379,6 +458,29 @@ public class PropertyFileUtil {
             properties.getProperty(Property.NUM_THREADS.getName())));
         caching = PropertyValidationUtil.validateBooleanProperty(
             Boolean.valueOf(properties.getProperty(Property.CACHING.getName())));
+        cacheMaxEntries = PropertyValidationUtil.validateCacheMaxEntries(
+            properties.getProperty(Property.CACHE_MAX_ENTRIES.getName()));
+        preloadAssociations = PropertyValidationUtil.validateBooleanProperty(
+            Boolean.valueOf(properties.getProperty(Property.PRELOAD_ASSOCIATIONS.getName())));
+        pageFetchThreads = PropertyValidationUtil.validatePageFetchThreads(
+            properties.getProperty(Property.PAGE_FETCH_THREADS.getName()));
+        durableResults = PropertyValidationUtil.validateBooleanProperty(
+            Boolean.valueOf(properties.getProperty(Property.DURABLE_RESULTS.getName())));
+        adaptiveConcurrency = PropertyValidationUtil.validateBooleanProperty(
+            Boolean.valueOf(properties.getProperty(Property.ADAPTIVE_CONCURRENCY.getName())));
+        readCallsPerSecond = PropertyValidationUtil.validateNonNegativeInteger(
+            properties.getProperty(Property.READ_CALLS_PER_SECOND.getName()), Property.READ_CALLS_PER_SECOND);
+        writeCallsPerSecond = PropertyValidationUtil.validateNonNegativeInteger(
+            properties.getProperty(Property.WRITE_CALLS_PER_SECOND.getName()), Property.WRITE_CALLS_PER_SECOND);
+        maxRetries = PropertyValidationUtil.validateMaxRetries(properties.getProperty(Property.MAX_RETRIES.getName()));
+        callTimeoutSeconds = PropertyValidationUtil.validateNonNegativeInteger(
+            properties.getProperty(Property.CALL_TIMEOUT_SECONDS.getName()), Property.CALL_TIMEOUT_SECONDS);
+        numParallelFiles = PropertyValidationUtil.validateNumParallelFiles(
+            properties.getProperty(Property.NUM_PARALLEL_FILES.getName()));
+        resume = PropertyValidationUtil.validateBooleanProperty(
+            Boolean.valueOf(properties.getProperty(Property.RESUME.getName())));
+        deltaLoad = PropertyValidationUtil.validateBooleanProperty(
+            Boolean.valueOf(properties.getProperty(Property.DELTA_LOAD.getName())));
 
         resultsFileEnabled = PropertyValidationUtil.validateBooleanProperty(
             Boolean.valueOf(properties.getProperty(Property.RESULTS_FILE_ENABLED.getName())));
@@ -386,6 +488,8 @@ public class PropertyFileUtil {
             properties.getProperty(Property.RESULTS_FILE_PATH.getName()));
         resultsFileWriteIntervalMsec = PropertyValidationUtil.validateIntervalMsec(
             properties.getProperty(Property.RESULTS_FILE_WRITE_INTERVAL_MSEC.getName()));
+        resultsFileMaxErrors = PropertyValidationUtil.validateResultsFileMaxErrors(
+            properties.getProperty(Property.RESULTS_FILE_MAX_ERRORS.getName()));
         waitSecondsBetweenFilesInDirectory = PropertyValidationUtil.validateWaitSeconds(properties.getProperty(
             Property.WAIT_SECONDS_BETWEEN_FILES_IN_DIRECTORY.getName()));
         verbose = PropertyValidationUtil.validateBooleanProperty(
@@ -467,12 +571,25 @@ public class PropertyFileUtil {
         logPropertyIfExists(properties, Property.PROCESS_EMPTY_ASSOCIATIONS.getName());
         logPropertyIfExists(properties, Property.WILDCARD_MATCHING.getName());
         logPropertyIfExists(properties, Property.SINGLE_BYTE_ENCODING.getName());
+        logPropertyIfExists(properties, Property.ONLY_UPDATE_CHANGED_FIELDS.getName());
         logPropertyIfExists(properties, Property.EXECUTE_FORM_TRIGGERS.getName());
         logPropertyIfExists(properties, Property.ENTITY.getName());
 
         printUtil.log("# Section 6 -- Performance");
         logPropertyIfExists(properties, Property.NUM_THREADS.getName());
         logPropertyIfExists(properties, Property.CACHING.getName());
+        logPropertyIfExists(properties, Property.CACHE_MAX_ENTRIES.getName());
+        logPropertyIfExists(properties, Property.PRELOAD_ASSOCIATIONS.getName());
+        logPropertyIfExists(properties, Property.PAGE_FETCH_THREADS.getName());
+        logPropertyIfExists(properties, Property.DURABLE_RESULTS.getName());
+        logPropertyIfExists(properties, Property.ADAPTIVE_CONCURRENCY.getName());
+        logPropertyIfExists(properties, Property.READ_CALLS_PER_SECOND.getName());
+        logPropertyIfExists(properties, Property.WRITE_CALLS_PER_SECOND.getName());
+        logPropertyIfExists(properties, Property.MAX_RETRIES.getName());
+        logPropertyIfExists(properties, Property.CALL_TIMEOUT_SECONDS.getName());
+        logPropertyIfExists(properties, Property.NUM_PARALLEL_FILES.getName());
+        logPropertyIfExists(properties, Property.RESUME.getName());
+        logPropertyIfExists(properties, Property.DELTA_LOAD.getName());
     }
 
     private void logPropertiesEndingWith(Properties properties, String endingText) {
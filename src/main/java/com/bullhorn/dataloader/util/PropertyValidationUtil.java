@@ -14,7 +14,11 @@ import com.bullhorn.dataloader.enums.Property;
  * Validates the user's entries in the properties file.
  */
 class PropertyValidationUtil {
-    private static final Integer MAX_NUM_THREADS = 15;
+    static final Integer MAX_NUM_THREADS = 15;
+    private static final Integer MAX_PAGE_FETCH_THREADS = 10;
+    private static final Integer MAX_NUM_PARALLEL_FILES = 10;
+    private static final Integer DEFAULT_MAX_RETRIES = 3;
+    private static final Integer MAX_MAX_RETRIES = 10;
     private static final Integer MAX_WAIT_SECONDS = 3600; // 1 hour
     private static final Integer DEFAULT_INTERVAL_MSEC = 500; // Wait for half a second
     private static final String DEFAULT_RESULTS_FILE_PATH = "./results.json";
@@ -47,6 +51,30 @@ class PropertyValidationUtil {
         return Math.min(numThreads, MAX_NUM_THREADS);
     }
 
+    static Integer validateCacheMaxEntries(String cacheMaxEntriesString) {
+        int cacheMaxEntries = 0;
+        if (cacheMaxEntriesString != null) {
+            cacheMaxEntries = Integer.parseInt(cacheMaxEntriesString);
+        }
+        if (cacheMaxEntries < 0) {
+            throw new DataLoaderException(ErrorInfo.INVALID_SETTING,
+                "DataLoader Properties Error: " + Property.CACHE_MAX_ENTRIES.getName() + " property must not be negative");
+        }
+        return cacheMaxEntries;
+    }
+
+    static Integer validatePageFetchThreads(String pageFetchThreadsString) {
+        int pageFetchThreads = 1;
+        if (pageFetchThreadsString != null) {
+            pageFetchThreads = Integer.parseInt(pageFetchThreadsString);
+        }
+        if (pageFetchThreads < 1 || pageFetchThreads > MAX_PAGE_FETCH_THREADS) {
+            throw new DataLoaderException(ErrorInfo.INVALID_SETTING, "DataLoader Properties Error: "
+                + Property.PAGE_FETCH_THREADS.getName() + " property must be in the range of 1 to " + MAX_PAGE_FETCH_THREADS);
+        }
+        return pageFetchThreads;
+    }
+
     static Integer validateWaitSeconds(String waitSecondsString) {
         int waitSeconds = 0;
         if (waitSecondsString != null) {
@@ -68,6 +96,54 @@ class PropertyValidationUtil {
         return intervalMsecString == null ? DEFAULT_INTERVAL_MSEC : Integer.valueOf(intervalMsecString);
     }
 
+    static Integer validateMaxRetries(String maxRetriesString) {
+        int maxRetries = DEFAULT_MAX_RETRIES;
+        if (maxRetriesString != null) {
+            maxRetries = Integer.parseInt(maxRetriesString);
+        }
+        if (maxRetries < 0 || maxRetries > MAX_MAX_RETRIES) {
+            throw new DataLoaderException(ErrorInfo.INVALID_SETTING, "DataLoader Properties Error: "
+                + Property.MAX_RETRIES.getName() + " property must be in the range of 0 to " + MAX_MAX_RETRIES);
+        }
+        return maxRetries;
+    }
+
+    static Integer validateNumParallelFiles(String numParallelFilesString) {
+        int numParallelFiles = 1;
+        if (numParallelFilesString != null) {
+            numParallelFiles = Integer.parseInt(numParallelFilesString);
+        }
+        if (numParallelFiles < 1 || numParallelFiles > MAX_NUM_PARALLEL_FILES) {
+            throw new DataLoaderException(ErrorInfo.INVALID_SETTING, "DataLoader Properties Error: "
+                + Property.NUM_PARALLEL_FILES.getName() + " property must be in the range of 1 to " + MAX_NUM_PARALLEL_FILES);
+        }
+        return numParallelFiles;
+    }
+
+    static Integer validateNonNegativeInteger(String valueString, Property property) {
+        int value = 0;
+        if (valueString != null) {
+            value = Integer.parseInt(valueString);
+        }
+        if (value < 0) {
+            throw new DataLoaderException(ErrorInfo.INVALID_SETTING,
+                "DataLoader Properties Error: " + property.getName() + " property must not be negative");
+        }
+        return value;
+    }
+
+    static Integer validateResultsFileMaxErrors(String resultsFileMaxErrorsString) {
+        int resultsFileMaxErrors = 0;
+        if (resultsFileMaxErrorsString != null) {
+            resultsFileMaxErrors = Integer.parseInt(resultsFileMaxErrorsString);
+        }
+        if (resultsFileMaxErrors < 0) {
+            throw new DataLoaderException(ErrorInfo.INVALID_SETTING,
+                "DataLoader Properties Error: " + Property.RESULTS_FILE_MAX_ERRORS.getName() + " property must not be negative");
+        }
+        return resultsFileMaxErrors;
+    }
+
     static Boolean validateBooleanProperty(Boolean value) {
         return value != null && value;
     }
@@ -4,6 +4,8 @@ import java.lang.management.ManagementFactory;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -16,20 +18,30 @@ public class ThreadPoolUtil {
     private static final long SIXTEEN_GIGABYTES = 16456252;
 
     private final PropertyFileUtil propertyFileUtil;
+    private final ConcurrencyLimiter concurrencyLimiter;
 
-    public ThreadPoolUtil(PropertyFileUtil propertyFileUtil) {
+    public ThreadPoolUtil(PropertyFileUtil propertyFileUtil, ConcurrencyLimiter concurrencyLimiter) {
         this.propertyFileUtil = propertyFileUtil;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     /**
      * Creates a thread pool executor service for running parallel tasks
+     * <p>
+     * When the task queue is full, submitting another task waits for room in the queue, instead of running the task on
+     * the submitting thread, so that the thread handing out tasks is never tied up with a task of its own. With
+     * adaptive concurrency, the number of threads is resized by the concurrency limiter while the tasks run.
      *
      * @return The service for executing tasks as a pool of threads
      */
     public ExecutorService getExecutorService() {
         final BlockingQueue<Runnable> taskPoolSize = new ArrayBlockingQueue<>(getTaskPoolSize());
-        return new ThreadPoolExecutor(propertyFileUtil.getNumThreads(), propertyFileUtil.getNumThreads(),
-            KEEP_ALIVE_TIME, TimeUnit.SECONDS, taskPoolSize, new ThreadPoolExecutor.CallerRunsPolicy());
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(propertyFileUtil.getNumThreads(),
+            propertyFileUtil.getNumThreads(), KEEP_ALIVE_TIME, TimeUnit.SECONDS, taskPoolSize, new BlockingPolicy());
+        if (concurrencyLimiter.isEnabled()) {
+            concurrencyLimiter.setThreadPoolExecutor(threadPoolExecutor);
+        }
+        return threadPoolExecutor;
     }
 
     /**
@@ -42,4 +54,22 @@ public class ThreadPoolUtil {
             ManagementFactory.getOperatingSystemMXBean()).getTotalPhysicalMemorySize() / 1024;
         return memorySize < SIXTEEN_GIGABYTES ? 1000 : 10000;
     }
+
+    /**
+     * Rejection handler that waits for room in the task queue when the queue is full.
+     */
+    static class BlockingPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Task rejected because the thread pool has been shut down");
+            }
+            try {
+                executor.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for room in the task queue", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.bullhorn.dataloader.util;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormatter;
+
+import com.bullhornsdk.data.model.entity.core.paybill.optionslookup.SimplifiedOptionsLookup;
+
+/**
+ * The conversions from the user supplied string value in a cell to the type of the field in SDK-REST.
+ * <p>
+ * The converter for a column is resolved once from the field type, so that converting each cell is a direct call
+ * without any type checks, and any patterns or parsers that are needed are compiled once and reused.
+ */
+public enum ValueConverter {
+
+    STRING(String.class) {
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) {
+            return value.trim();
+        }
+    },
+    INTEGER(Integer.class) {
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) {
+            String trimmedValue = value.trim();
+            return StringUtils.isEmpty(trimmedValue) ? 0 : Integer.parseInt(trimmedValue);
+        }
+    },
+    BOOLEAN(Boolean.class) {
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) {
+            String trimmedValue = value.trim();
+            return trimmedValue.equals("1") || Boolean.parseBoolean(trimmedValue);
+        }
+    },
+    DATE_TIME(DateTime.class) {
+        /**
+         * If the date is a range being used to query for existing records, then it does not need to be in the form of
+         * the date time format, it can stay as a string until used in the find call.
+         */
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) {
+            String trimmedValue = value.trim();
+            if (SEARCH_DATE_RANGE.matcher(trimmedValue).matches() || QUERY_DATE_RANGE.matcher(trimmedValue).matches()) {
+                return null;
+            }
+            return StringUtils.isEmpty(trimmedValue) ? null : dateTimeFormatter.parseDateTime(trimmedValue);
+        }
+    },
+    BIG_DECIMAL(BigDecimal.class) {
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) throws ParseException {
+            String trimmedValue = value.trim();
+            DecimalFormat decimalFormat = DECIMAL_FORMAT.get();
+            return StringUtils.isEmpty(trimmedValue) ? decimalFormat.parse(String.valueOf(0.0)) : decimalFormat.parse(trimmedValue);
+        }
+    },
+    SIMPLIFIED_OPTIONS_LOOKUP(SimplifiedOptionsLookup.class) {
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) {
+            SimplifiedOptionsLookup simplifiedOptionsLookup = new SimplifiedOptionsLookup();
+            simplifiedOptionsLookup.setId(Integer.parseInt(value));
+            return simplifiedOptionsLookup;
+        }
+    },
+    UNSUPPORTED(null) {
+        @Override
+        public Object convert(String value, DateTimeFormatter dateTimeFormatter) {
+            return null;
+        }
+    };
+
+    private static final Pattern SEARCH_DATE_RANGE = Pattern.compile("\\[.* TO .*\\]");
+    private static final Pattern QUERY_DATE_RANGE = Pattern.compile("[<=>].*");
+
+    // DecimalFormat is not thread safe, so each task thread gets its own reusable parser
+    private static final ThreadLocal<DecimalFormat> DECIMAL_FORMAT = ThreadLocal.withInitial(() -> {
+        DecimalFormat decimalFormat = new DecimalFormat();
+        decimalFormat.setParseBigDecimal(true);
+        return decimalFormat;
+    });
+
+    private final Class type;
+
+    ValueConverter(Class type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the converter for the given field type.
+     *
+     * @param type the type to convert to for rest calls
+     * @return the matching converter, or UNSUPPORTED, which always converts to null
+     */
+    public static ValueConverter fromType(Class type) {
+        for (ValueConverter valueConverter : ValueConverter.values()) {
+            if (valueConverter.type != null && valueConverter.type.equals(type)) {
+                return valueConverter;
+            }
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Converts the given string value to this converter's type, and if it is a date, using the given dateTimeFormatter.
+     *
+     * @param value             the user supplied string value
+     * @param dateTimeFormatter the user supplied date time format
+     * @return the object that represents the string data
+     * @throws ParseException for bad provided number string
+     */
+    public abstract Object convert(String value, DateTimeFormatter dateTimeFormatter) throws ParseException;
+}
@@ -0,0 +1,96 @@
+package com.bullhorn.dataloader.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.enums.Command;
+
+public class CheckpointJournalTest {
+
+    private static final String FILE_PATH = "path/to/CandidateTestJournal.csv";
+
+    private final File journalFile = new File(CheckpointJournal.getJournalFilePath(FILE_PATH, Command.LOAD));
+
+    @After
+    public void cleanup() {
+        FileUtils.deleteQuietly(journalFile);
+    }
+
+    @Test
+    public void testGetJournalFilePath() {
+        Assert.assertEquals("results/CandidateTestJournal_load.journal", journalFile.getPath());
+    }
+
+    @Test
+    public void testRecordAndResume() throws IOException {
+        CheckpointJournal checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, false);
+        checkpointJournal.record(1, Result.insert(101));
+        checkpointJournal.record(3, Result.update(103));
+        checkpointJournal.record(2, Result.failure(new Exception("Failed")));
+        checkpointJournal.close();
+
+        List<String> lines = FileUtils.readLines(journalFile, StandardCharsets.UTF_8);
+        Assert.assertEquals("1,INSERT,101", lines.get(0));
+        Assert.assertEquals("3,UPDATE,103", lines.get(1));
+        Assert.assertEquals("2,FAILURE,-1", lines.get(2));
+
+        checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, true);
+        Assert.assertEquals(2, checkpointJournal.getCompletedRowCount());
+        Assert.assertTrue(checkpointJournal.isComplete(1));
+        Assert.assertFalse(checkpointJournal.isComplete(2));
+        Assert.assertTrue(checkpointJournal.isComplete(3));
+        Assert.assertFalse(checkpointJournal.isComplete(4));
+
+        // A resumed run adds to the journal
+        checkpointJournal.record(2, Result.insert(102));
+        checkpointJournal.close();
+        checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, true);
+        Assert.assertEquals(3, checkpointJournal.getCompletedRowCount());
+        Assert.assertTrue(checkpointJournal.isComplete(2));
+        checkpointJournal.close();
+    }
+
+    @Test
+    public void testNewRunStartsOver() throws IOException {
+        FileUtils.writeStringToFile(journalFile, "1,INSERT,101\n", StandardCharsets.UTF_8);
+
+        CheckpointJournal checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, false);
+        checkpointJournal.close();
+
+        Assert.assertEquals(0, checkpointJournal.getCompletedRowCount());
+        Assert.assertEquals(0, journalFile.length());
+    }
+
+    @Test
+    public void testResumeWithoutJournal() throws IOException {
+        CheckpointJournal checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, true);
+        checkpointJournal.close();
+
+        Assert.assertEquals(0, checkpointJournal.getCompletedRowCount());
+        Assert.assertTrue(journalFile.exists());
+    }
+
+    @Test
+    public void testResumeAfterPartialLine() throws IOException {
+        FileUtils.writeStringToFile(journalFile, "1,INSERT,101\n2,INS", StandardCharsets.UTF_8);
+
+        CheckpointJournal checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, true);
+        checkpointJournal.record(2, Result.insert(102));
+        checkpointJournal.close();
+
+        Assert.assertEquals(1, checkpointJournal.getCompletedRowCount());
+        List<String> lines = FileUtils.readLines(journalFile, StandardCharsets.UTF_8);
+        Assert.assertEquals("2,INS", lines.get(1));
+        Assert.assertEquals("2,INSERT,102", lines.get(2));
+        checkpointJournal = new CheckpointJournal(Command.LOAD, FILE_PATH, true);
+        Assert.assertEquals(2, checkpointJournal.getCompletedRowCount());
+        checkpointJournal.close();
+    }
+}
@@ -3,6 +3,10 @@ package com.bullhorn.dataloader.data;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -26,7 +30,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testNoRecords() {
-        new CsvFileWriter(Command.LOAD, "path/to/CandidateTestNoRecords.csv", successRow.getNames().toArray(new String[0]));
+        new CsvFileWriter(Command.LOAD, "path/to/CandidateTestNoRecords.csv", successRow.getNames().toArray(new String[0]), true);
         File resultsDir = new File("results/");
         File successFile = new File("results/CandidateTestNoRecords_load_" + StringConsts.TIMESTAMP + "_success.csv");
         File failureFile = new File("results/CandidateTestNoRecords_load_" + StringConsts.TIMESTAMP + "_failure.csv");
@@ -38,7 +42,7 @@ public class CsvFileWriterTest {
     @Test
     public void testLoadSuccessRecordsOnly() throws IOException {
         CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/CandidateTestLoadSuccessRecordsOnly.csv",
-            successRow.getNames().toArray(new String[0]));
+            successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(successRow, Result.insert(-1));
 
         File successFile = new File("results/CandidateTestLoadSuccessRecordsOnly_load_" + StringConsts.TIMESTAMP + "_success.csv");
@@ -60,7 +64,7 @@ public class CsvFileWriterTest {
     @Test
     public void testDeleteSuccessRecordsOnly() throws IOException {
         CsvFileWriter csvFileWriter = new CsvFileWriter(Command.DELETE, "path/to/CandidateTestDeleteSuccessRecordsOnly.csv",
-            successRow.getNames().toArray(new String[0]));
+            successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(successRow, Result.insert(-1));
 
         File successFile = new File("results/CandidateTestDeleteSuccessRecordsOnly_delete_" + StringConsts.TIMESTAMP + "_success.csv");
@@ -81,7 +85,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testNullBullhornIdRecord() throws IOException {
-        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/ClientContactTest.csv", successRow.getNames().toArray(new String[0]));
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/ClientContactTest.csv", successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(successRow, Result.update(null));
 
         File successFile = new File("results/ClientContactTest_load_" + StringConsts.TIMESTAMP + "_success.csv");
@@ -95,7 +99,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testLoadFailureRecordsOnly() throws IOException {
-        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]));
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(failureRow, Result.failure(new Exception("You have chosen poorly")));
 
         File successFile = new File("results/CandidateTest_load_" + StringConsts.TIMESTAMP + "_success.csv");
@@ -117,7 +121,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testDeleteFailureRecordsOnly() throws IOException {
-        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.DELETE, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]));
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.DELETE, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(failureRow, Result.failure(new Exception("You have chosen poorly")));
 
         File successFile = new File("results/CandidateTest_delete_" + StringConsts.TIMESTAMP + "_success.csv");
@@ -139,7 +143,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testSuccessAndFailureRecords() throws IOException {
-        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.DELETE_ATTACHMENTS, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]));
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.DELETE_ATTACHMENTS, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(successRow, Result.insert(1));
         csvFileWriter.writeRow(failureRow, Result.failure(new Exception("You have chosen poorly")));
 
@@ -155,7 +159,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testLoadAttachments() throws IOException {
-        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD_ATTACHMENTS, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]));
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD_ATTACHMENTS, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(successRow, Result.insert(1));
         csvFileWriter.writeRow(failureRow, Result.failure(new Exception("You have chosen poorly")));
 
@@ -171,7 +175,7 @@ public class CsvFileWriterTest {
 
     @Test
     public void testConvertAttachments() throws IOException {
-        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.CONVERT_ATTACHMENTS, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]));
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.CONVERT_ATTACHMENTS, "path/to/CandidateTest.csv", successRow.getNames().toArray(new String[0]), true);
         csvFileWriter.writeRow(successRow, Result.insert(1));
         csvFileWriter.writeRow(failureRow, Result.failure(new Exception("You have chosen poorly")));
 
@@ -184,4 +188,121 @@ public class CsvFileWriterTest {
         successFile.deleteOnExit();
         failureFile.deleteOnExit();
     }
+
+    @Test
+    public void testBatchedRecordsWrittenOnClose() throws IOException {
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/CandidateTestBatched.csv",
+            successRow.getNames().toArray(new String[0]), false);
+        for (int i = 1; i <= 250; ++i) {
+            Row row = TestUtils.createRow("name,quest,favoriteColor", "Sir Robin " + i + ",To seek the Holy Grail,Blue");
+            csvFileWriter.writeRow(row, Result.insert(i));
+        }
+        csvFileWriter.writeRow(failureRow, Result.failure(new Exception("You have chosen poorly")));
+        csvFileWriter.close();
+
+        File successFile = new File("results/CandidateTestBatched_load_" + StringConsts.TIMESTAMP + "_success.csv");
+        File failureFile = new File("results/CandidateTestBatched_load_" + StringConsts.TIMESTAMP + "_failure.csv");
+        CsvReader successReader = new CsvReader(new FileReader(successFile));
+        successReader.readHeaders();
+        int successCount = 0;
+        while (successReader.readRecord()) {
+            ++successCount;
+            Assert.assertEquals(String.valueOf(successCount), successReader.get("id"));
+            Assert.assertEquals("Sir Robin " + successCount, successReader.get("name"));
+        }
+        successReader.close();
+        Assert.assertEquals(250, successCount);
+
+        CsvReader failureReader = new CsvReader(new FileReader(failureFile));
+        failureReader.readHeaders();
+        Assert.assertTrue(failureReader.readRecord());
+        Assert.assertEquals("Sir Galahad of Camelot", failureReader.get("name"));
+        Assert.assertFalse(failureReader.readRecord());
+        failureReader.close();
+
+        // clean up test files
+        successFile.deleteOnExit();
+        failureFile.deleteOnExit();
+    }
+
+    @Test
+    public void testBatchedNoRecords() throws IOException {
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/CandidateTestBatchedNoRecords.csv",
+            successRow.getNames().toArray(new String[0]), false);
+        csvFileWriter.close();
+
+        File successFile = new File("results/CandidateTestBatchedNoRecords_load_" + StringConsts.TIMESTAMP + "_success.csv");
+        File failureFile = new File("results/CandidateTestBatchedNoRecords_load_" + StringConsts.TIMESTAMP + "_failure.csv");
+        Assert.assertFalse(successFile.exists());
+        Assert.assertFalse(failureFile.exists());
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchedWriterThreadFailure() throws IOException {
+        // Without headers, the results files cannot be started, which stops the writer thread with a runtime exception
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, "path/to/CandidateTestBatchedFailure.csv", null, false);
+
+        IOException actualException = null;
+        try {
+            for (int i = 1; i <= 2000; ++i) {
+                Row row = TestUtils.createRow("name,quest,favoriteColor", "Knight " + i + ",To seek the Holy Grail,Blue");
+                csvFileWriter.writeRow(row, Result.insert(i));
+            }
+            csvFileWriter.close();
+        } catch (IOException e) {
+            actualException = e;
+        }
+
+        Assert.assertNotNull(actualException);
+        Assert.assertTrue(actualException.getMessage().startsWith("Error writing results files: java.lang.NullPointerException"));
+    }
+
+    @Test
+    public void testJournalAfterResults() throws IOException {
+        String filePath = "path/to/CandidateTestJournaled.csv";
+        CheckpointJournal checkpointJournal = new CheckpointJournal(Command.LOAD, filePath, false);
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, filePath,
+            successRow.getNames().toArray(new String[0]), false, checkpointJournal, null);
+        for (int i = 1; i <= 150; ++i) {
+            Row row = new Row(filePath, i);
+            row.addCell(new Cell("name", "Sir Robin " + i));
+            csvFileWriter.writeRow(row, i == 75 ? Result.failure(new Exception("Run away!")) : Result.insert(i));
+        }
+        csvFileWriter.close();
+        checkpointJournal.close();
+
+        File journalFile = new File(CheckpointJournal.getJournalFilePath(filePath, Command.LOAD));
+        List<String> lines = FileUtils.readLines(journalFile, StandardCharsets.UTF_8);
+        Assert.assertEquals(150, lines.size());
+        Assert.assertEquals("1,INSERT,1", lines.get(0));
+        Assert.assertEquals("75,FAILURE,-1", lines.get(74));
+        checkpointJournal = new CheckpointJournal(Command.LOAD, filePath, true);
+        Assert.assertEquals(149, checkpointJournal.getCompletedRowCount());
+        checkpointJournal.close();
+
+        // clean up test files
+        journalFile.deleteOnExit();
+        new File("results/CandidateTestJournaled_load_" + StringConsts.TIMESTAMP + "_success.csv").deleteOnExit();
+        new File("results/CandidateTestJournaled_load_" + StringConsts.TIMESTAMP + "_failure.csv").deleteOnExit();
+    }
+
+    @Test
+    public void testJournalDurable() throws IOException {
+        String filePath = "path/to/CandidateTestJournaledDurable.csv";
+        CheckpointJournal checkpointJournal = new CheckpointJournal(Command.LOAD, filePath, false);
+        CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, filePath,
+            successRow.getNames().toArray(new String[0]), true, checkpointJournal, null);
+
+        csvFileWriter.writeRow(successRow, Result.insert(7));
+
+        // Each row is in the journal before writing the row returns
+        File journalFile = new File(CheckpointJournal.getJournalFilePath(filePath, Command.LOAD));
+        Assert.assertEquals("1,INSERT,7\n", FileUtils.readFileToString(journalFile, StandardCharsets.UTF_8));
+        csvFileWriter.close();
+        checkpointJournal.close();
+
+        // clean up test files
+        journalFile.deleteOnExit();
+        new File("results/CandidateTestJournaledDurable_load_" + StringConsts.TIMESTAMP + "_success.csv").deleteOnExit();
+    }
 }
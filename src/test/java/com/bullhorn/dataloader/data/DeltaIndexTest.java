@@ -0,0 +1,137 @@
+package com.bullhorn.dataloader.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.google.common.collect.Lists;
+
+public class DeltaIndexTest {
+
+    private static final String FILE_PATH = "path/to/CandidateTestDelta.csv";
+    private static final List<String> EXIST_FIELDS = Lists.newArrayList("externalID");
+    private static final String TARGET = "user@https://rest.bullhornstaffing.com";
+
+    private final File deltaFile = new File(DeltaIndex.getDeltaFilePath(FILE_PATH));
+
+    @After
+    public void cleanup() {
+        FileUtils.deleteQuietly(deltaFile);
+    }
+
+    @Test
+    public void testGetDeltaFilePath() {
+        Assert.assertEquals("results/CandidateTestDelta_load.delta", deltaFile.getPath());
+    }
+
+    @Test
+    public void testUnchangedRowsAfterSave() throws IOException {
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        Assert.assertEquals(0, deltaIndex.getPreviousRowCount());
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(1, "ext-1", "John")));
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.insert(101));
+        deltaIndex.record(createRow(2, "ext-2", "Jane"), Result.update(102));
+        deltaIndex.record(createRow(3, "ext-3", "Jack"), Result.failure(new Exception("Failed")));
+        deltaIndex.save();
+
+        deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        Assert.assertEquals(2, deltaIndex.getPreviousRowCount());
+        Assert.assertEquals(Integer.valueOf(101), deltaIndex.getUnchangedId(createRow(5, "ext-1", "John")));
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(2, "ext-2", "Janet")));
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(3, "ext-3", "Jack")));
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(4, "ext-4", "Jill")));
+    }
+
+    @Test
+    public void testSaveReplacesPreviousIndex() throws IOException {
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.insert(101));
+        deltaIndex.record(createRow(2, "ext-2", "Jane"), Result.insert(102));
+        deltaIndex.save();
+
+        // Only the rows of the latest run are kept, including the rows that were unchanged
+        deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.unchanged(101));
+        deltaIndex.save();
+
+        deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        Assert.assertEquals(1, deltaIndex.getPreviousRowCount());
+        Assert.assertEquals(Integer.valueOf(101), deltaIndex.getUnchangedId(createRow(1, "ext-1", "John")));
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(2, "ext-2", "Jane")));
+    }
+
+    @Test
+    public void testDuplicateAndMissingKeysAreNeverUnchanged() throws IOException {
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.insert(101));
+        deltaIndex.record(createRow(2, "ext-1", "John"), Result.update(101));
+        deltaIndex.record(createRow(3, "", "Jack"), Result.insert(103));
+        deltaIndex.save();
+
+        deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        Assert.assertEquals(0, deltaIndex.getPreviousRowCount());
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(1, "ext-1", "John")));
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(3, "", "Jack")));
+    }
+
+    @Test
+    public void testNoExistFields() throws IOException {
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, Collections.emptyList(), TARGET);
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.insert(101));
+        deltaIndex.save();
+
+        deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, Collections.emptyList(), TARGET);
+        Assert.assertEquals(0, deltaIndex.getPreviousRowCount());
+        Assert.assertNull(deltaIndex.getUnchangedId(createRow(1, "ext-1", "John")));
+    }
+
+    @Test
+    public void testIncompleteIndexIsIgnored() throws IOException {
+        FileUtils.writeStringToFile(deltaFile, "\u0000\u0000", StandardCharsets.UTF_8);
+
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+
+        Assert.assertEquals(0, deltaIndex.getPreviousRowCount());
+    }
+
+    @Test
+    public void testOtherEntityOrTargetIsIgnored() throws IOException {
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.insert(101));
+        deltaIndex.save();
+
+        Assert.assertEquals(0, new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS,
+            "other@https://rest.bullhornstaffing.com").getPreviousRowCount());
+        Assert.assertEquals(0, new DeltaIndex(FILE_PATH, EntityInfo.CLIENT_CONTACT, EXIST_FIELDS, TARGET)
+            .getPreviousRowCount());
+        Assert.assertEquals(1, new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET)
+            .getPreviousRowCount());
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+        DeltaIndex deltaIndex = new DeltaIndex(FILE_PATH, EntityInfo.CANDIDATE, EXIST_FIELDS, TARGET);
+        deltaIndex.record(createRow(1, "ext-1", "John"), Result.insert(101));
+        deltaIndex.save();
+
+        Assert.assertEquals(0, DeltaIndex.invalidate(EntityInfo.CLIENT_CONTACT));
+        Assert.assertTrue(deltaFile.exists());
+        Assert.assertEquals(1, DeltaIndex.invalidate(EntityInfo.CANDIDATE));
+        Assert.assertFalse(deltaFile.exists());
+    }
+
+    private Row createRow(Integer number, String externalId, String firstName) {
+        Row row = new Row(FILE_PATH, number);
+        row.addCell(new Cell("externalID", externalId));
+        row.addCell(new Cell("firstName", firstName));
+        return row;
+    }
+}
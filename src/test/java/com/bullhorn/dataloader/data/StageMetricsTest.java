@@ -0,0 +1,26 @@
+package com.bullhorn.dataloader.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StageMetricsTest {
+
+    @Test
+    public void testSummary() {
+        StageMetrics stageMetrics = new StageMetrics("Reader");
+        for (int i = 0; i < 1200; ++i) {
+            stageMetrics.incrementRows();
+        }
+        stageMetrics.addBusyNanos(TimeUnit.MILLISECONDS.toNanos(150));
+        stageMetrics.addBusyNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        stageMetrics.addInputWaitNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        stageMetrics.addOutputWaitNanos(TimeUnit.SECONDS.toNanos(4));
+
+        Assert.assertEquals(1200, stageMetrics.getRows());
+        Assert.assertEquals(200, stageMetrics.getBusyMillis());
+        Assert.assertEquals("Reader: 1,200 rows, busy 200 ms, waited 3 ms for input and 4,000 ms for output",
+            stageMetrics.getSummary());
+    }
+}
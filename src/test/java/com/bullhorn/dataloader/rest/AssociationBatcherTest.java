@@ -0,0 +1,194 @@
+package com.bullhorn.dataloader.rest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bullhornsdk.data.exception.RestApiException;
+
+public class AssociationBatcherTest {
+
+    private AssociationBatcher associationBatcher;
+    private List<Set<Integer>> batchCalls;
+    private AtomicInteger singleCalls;
+
+    @Before
+    public void setup() {
+        associationBatcher = new AssociationBatcher();
+        batchCalls = Collections.synchronizedList(new ArrayList<>());
+        singleCalls = new AtomicInteger(0);
+    }
+
+    @Test
+    public void testSingleLookupMakesSingleCall() {
+        List<Integer> associations = associationBatcher.getAssociations("Candidate.primarySkills", 1,
+            this::batchCall, () -> singleCall(1));
+
+        Assert.assertEquals(Arrays.asList(1001), associations);
+        Assert.assertEquals(1, singleCalls.get());
+        Assert.assertTrue(batchCalls.isEmpty());
+    }
+
+    @Test
+    public void testLookupsWhileInFlightAreBatched() throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(6);
+
+        Future<List<Integer>> first = executorService.submit(() -> associationBatcher.getAssociations(
+            "Candidate.primarySkills", 1, this::batchCall, () -> {
+                firstCallStarted.countDown();
+                awaitQuietly(releaseFirstCall);
+                return singleCall(1);
+            }));
+        Assert.assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+
+        List<Future<List<Integer>>> others = new ArrayList<>();
+        for (int entityId = 2; entityId <= 6; ++entityId) {
+            final int id = entityId;
+            others.add(executorService.submit(() -> associationBatcher.getAssociations("Candidate.primarySkills", id,
+                this::batchCall, () -> singleCall(id))));
+        }
+        waitForPending(5);
+        releaseFirstCall.countDown();
+
+        Assert.assertEquals(Arrays.asList(1001), first.get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < others.size(); ++i) {
+            Assert.assertEquals(Arrays.asList(1002 + i), others.get(i).get(5, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(1, singleCalls.get());
+        Assert.assertEquals(1, batchCalls.size());
+        Assert.assertEquals(5, batchCalls.get(0).size());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testDifferentKeysAreNotBatched() throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        Future<List<Integer>> first = executorService.submit(() -> associationBatcher.getAssociations(
+            "Candidate.primarySkills", 1, this::batchCall, () -> {
+                firstCallStarted.countDown();
+                awaitQuietly(releaseFirstCall);
+                return singleCall(1);
+            }));
+        Assert.assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+
+        List<Integer> other = associationBatcher.getAssociations("Candidate.categories", 2,
+            this::batchCall, () -> singleCall(2));
+        releaseFirstCall.countDown();
+
+        Assert.assertEquals(Arrays.asList(1002), other);
+        Assert.assertEquals(Arrays.asList(1001), first.get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(batchCalls.isEmpty());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testFallsBackWhenBatchCallFailsOrIsIncomplete() throws Exception {
+        Function<Set<Integer>, Map<Integer, List<Integer>>> failingBatchCall = entityIds -> {
+            batchCalls.add(entityIds);
+            throw new RestApiException("Batch failed");
+        };
+        runBlockedBatch(failingBatchCall);
+        Assert.assertEquals(1, batchCalls.size());
+        Assert.assertEquals(4, singleCalls.get());
+
+        setup();
+        Function<Set<Integer>, Map<Integer, List<Integer>>> incompleteBatchCall = entityIds -> {
+            batchCalls.add(entityIds);
+            return new HashMap<>();
+        };
+        runBlockedBatch(incompleteBatchCall);
+        Assert.assertEquals(1, batchCalls.size());
+        Assert.assertEquals(4, singleCalls.get());
+    }
+
+    @Test
+    public void testSingleCallErrorIsThrown() {
+        RestApiException exception = new RestApiException("Lookup failed");
+        try {
+            associationBatcher.getAssociations("Candidate.primarySkills", 1, this::batchCall, () -> {
+                throw exception;
+            });
+            Assert.fail("Expected exception");
+        } catch (RestApiException e) {
+            Assert.assertSame(exception, e);
+        }
+    }
+
+    /**
+     * Holds the first lookup in its call until three more lookups are waiting, which are then sent as one batch.
+     */
+    private void runBlockedBatch(Function<Set<Integer>, Map<Integer, List<Integer>>> batchCall) throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        futures.add(executorService.submit(() -> associationBatcher.getAssociations(
+            "Candidate.primarySkills", 1, batchCall, () -> {
+                firstCallStarted.countDown();
+                awaitQuietly(releaseFirstCall);
+                return singleCall(1);
+            })));
+        Assert.assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+        for (int entityId = 2; entityId <= 4; ++entityId) {
+            final int id = entityId;
+            futures.add(executorService.submit(() -> associationBatcher.getAssociations("Candidate.primarySkills", id,
+                batchCall, () -> singleCall(id))));
+        }
+        waitForPending(3);
+        releaseFirstCall.countDown();
+
+        for (int i = 0; i < futures.size(); ++i) {
+            Assert.assertEquals(Arrays.asList(1001 + i), futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+    }
+
+    private Map<Integer, List<Integer>> batchCall(Set<Integer> entityIds) {
+        batchCalls.add(entityIds);
+        Map<Integer, List<Integer>> associationsMap = new HashMap<>();
+        entityIds.forEach(id -> associationsMap.put(id, Arrays.asList(1000 + id)));
+        return associationsMap;
+    }
+
+    private List<Integer> singleCall(Integer entityId) {
+        singleCalls.incrementAndGet();
+        return Arrays.asList(1000 + entityId);
+    }
+
+    private void waitForPending(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (associationBatcher.getPendingCount("Candidate.primarySkills") < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, associationBatcher.getPendingCount("Candidate.primarySkills"));
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
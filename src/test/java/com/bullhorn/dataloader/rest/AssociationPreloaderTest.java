@@ -0,0 +1,137 @@
+package com.bullhorn.dataloader.rest;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Level;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.TestUtils;
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhornsdk.data.exception.RestApiException;
+import com.bullhornsdk.data.model.entity.core.standard.CorporateUser;
+import com.bullhornsdk.data.model.entity.core.standard.Skill;
+import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class AssociationPreloaderTest {
+
+    private RestApi restApiMock;
+    private PropertyFileUtil propertyFileUtilMock;
+    private PrintUtil printUtilMock;
+    private Cache cache;
+    private AssociationPreloader associationPreloader;
+    private String filePath;
+
+    @Before
+    public void setup() {
+        RestSession restSessionMock = mock(RestSession.class);
+        restApiMock = mock(RestApi.class);
+        propertyFileUtilMock = mock(PropertyFileUtil.class);
+        printUtilMock = mock(PrintUtil.class);
+        cache = new Cache(propertyFileUtilMock);
+        associationPreloader = new AssociationPreloader(restSessionMock, cache, propertyFileUtilMock, printUtilMock);
+        filePath = TestUtils.getResourceFilePath("CandidateAssociations.csv");
+
+        when(restSessionMock.getRestApi()).thenReturn(restApiMock);
+        when(propertyFileUtilMock.getPreloadAssociations()).thenReturn(true);
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        when(propertyFileUtilMock.getWildcardMatching()).thenReturn(false);
+        when(propertyFileUtilMock.getListDelimiter()).thenReturn(";");
+        when(propertyFileUtilMock.getDateParser()).thenReturn(DateTimeFormat.forPattern("yyyy-MM-dd"));
+
+        CorporateUser corporateUser1 = new CorporateUser();
+        corporateUser1.setId(1);
+        CorporateUser corporateUser2 = new CorporateUser();
+        corporateUser2.setId(2);
+        when(restApiMock.queryForList(eq(CorporateUser.class), any(), any(), any()))
+            .thenReturn(Lists.newArrayList(corporateUser1, corporateUser2));
+        when(restApiMock.queryForList(eq(Skill.class), any(), any(), any()))
+            .thenReturn(Lists.newArrayList(TestUtils.createSkill(11, "Java"), TestUtils.createSkill(12, "SQL")));
+    }
+
+    @Test
+    public void testPreloadToOneAssociations() throws IOException {
+        associationPreloader.preload(EntityInfo.CANDIDATE, filePath);
+
+        verify(restApiMock, times(1)).queryForList(eq(CorporateUser.class), eq("(id=1 OR id=2)"), eq(Sets.newHashSet("id")), any());
+        Assert.assertEquals(Lists.newArrayList(1), getCachedIds(EntityInfo.CORPORATE_USER, "owner.id", "1", "id"));
+        Assert.assertEquals(Lists.newArrayList(2), getCachedIds(EntityInfo.CORPORATE_USER, "owner.id", "2", "id"));
+    }
+
+    @Test
+    public void testPreloadToManyAssociations() throws IOException {
+        associationPreloader.preload(EntityInfo.CANDIDATE, filePath);
+
+        verify(restApiMock, times(1)).queryForList(eq(Skill.class),
+            eq("((name='Java') OR (name='SQL') OR (name='Cobol'))"), eq(Sets.newHashSet("id", "name")), any());
+        Assert.assertEquals(Lists.newArrayList(11, 12), getCachedIds(EntityInfo.SKILL, "primarySkills.name", "Java;SQL", "name"));
+        Assert.assertEquals(Lists.newArrayList(12), getCachedIds(EntityInfo.SKILL, "primarySkills.name", "SQL", "name"));
+        Assert.assertNull(getCachedIds(EntityInfo.SKILL, "primarySkills.name", "Java;Cobol", "name"));
+        verify(printUtilMock, times(1)).printAndLog("WARNING: Cannot find 1 Skill records for column 'primarySkills.name': 'Cobol'");
+    }
+
+    @Test
+    public void testPreloadMatchesValuesRegardlessOfCase() throws IOException {
+        when(restApiMock.queryForList(eq(Skill.class), any(), any(), any()))
+            .thenReturn(Lists.newArrayList(TestUtils.createSkill(11, "JAVA"), TestUtils.createSkill(12, "sql")));
+
+        associationPreloader.preload(EntityInfo.CANDIDATE, filePath);
+
+        Assert.assertEquals(Lists.newArrayList(11, 12), getCachedIds(EntityInfo.SKILL, "primarySkills.name", "Java;SQL", "name"));
+        verify(printUtilMock, times(1)).printAndLog("WARNING: Cannot find 1 Skill records for column 'primarySkills.name': 'Cobol'");
+    }
+
+    @Test
+    public void testPreloadDisabled() throws IOException {
+        when(propertyFileUtilMock.getPreloadAssociations()).thenReturn(false);
+
+        associationPreloader.preload(EntityInfo.CANDIDATE, filePath);
+
+        verify(restApiMock, never()).queryForList(any(), anyString(), any(), any());
+        Assert.assertNull(getCachedIds(EntityInfo.CORPORATE_USER, "owner.id", "1", "id"));
+    }
+
+    @Test
+    public void testPreloadWildcardMatching() throws IOException {
+        when(propertyFileUtilMock.getWildcardMatching()).thenReturn(true);
+
+        associationPreloader.preload(EntityInfo.CANDIDATE, filePath);
+
+        verify(restApiMock, never()).queryForList(any(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testPreloadErrorInOneColumn() throws IOException {
+        when(restApiMock.queryForList(eq(CorporateUser.class), any(), any(), any())).thenThrow(new RestApiException("Flaky API Error"));
+
+        associationPreloader.preload(EntityInfo.CANDIDATE, filePath);
+
+        verify(printUtilMock, times(1)).log(Level.WARN, "Failed to preload associations for column 'owner.id': Flaky API Error");
+        Assert.assertNull(getCachedIds(EntityInfo.CORPORATE_USER, "owner.id", "1", "id"));
+        Assert.assertEquals(Lists.newArrayList(12), getCachedIds(EntityInfo.SKILL, "primarySkills.name", "SQL", "name"));
+    }
+
+    private List<Integer> getCachedIds(EntityInfo fieldEntity, String columnName, String value, String fieldName) {
+        Field field = new Field(EntityInfo.CANDIDATE, new Cell(columnName, value), false, propertyFileUtilMock.getDateParser());
+        List<BullhornEntity> entities = cache.getEntry(fieldEntity, Lists.newArrayList(field), Sets.newHashSet("id", fieldName));
+        return entities == null ? null : entities.stream().map(BullhornEntity::getId).collect(Collectors.toList());
+    }
+}
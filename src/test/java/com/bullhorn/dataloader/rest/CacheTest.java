@@ -1,11 +1,22 @@
 package com.bullhorn.dataloader.rest;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.joda.time.format.DateTimeFormat;
 import org.junit.Assert;
@@ -15,8 +26,10 @@ import org.junit.Test;
 import com.bullhorn.dataloader.TestUtils;
 import com.bullhorn.dataloader.data.Cell;
 import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhorn.dataloader.util.StringConsts;
+import com.bullhornsdk.data.exception.RestApiException;
 import com.bullhornsdk.data.model.entity.core.standard.Candidate;
 import com.bullhornsdk.data.model.entity.core.standard.ClientContact;
 import com.bullhornsdk.data.model.entity.core.standard.ClientCorporation;
@@ -554,4 +567,217 @@ public class CacheTest {
         Assert.assertEquals(Lists.newArrayList(skillOne), actualTwo);
         Assert.assertNull(actualThree);
     }
+
+    @Test
+    public void testConcurrentAccessIsConsistent() throws Exception {
+        // Every thread caches its own external IDs while reading those of all other threads, at increasing contention.
+        // This only checks that no lookup returns the wrong records and that every entry is kept; it does not measure
+        // throughput.
+        EntityInfo entityInfo = EntityInfo.CANDIDATE;
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("externalID"));
+        int numEntries = 256;
+        List<Field> fields = Lists.newArrayList();
+        List<List<BullhornEntity>> entities = Lists.newArrayList();
+        for (int i = 0; i < numEntries; ++i) {
+            fields.add(new Field(entityInfo, new Cell("externalID", "ext-" + i), true, propertyFileUtilMock.getDateParser()));
+            Candidate candidate = TestUtils.createEntity(entityInfo, "id,externalID", i + ",ext-" + i, propertyFileUtilMock);
+            entities.add(TestUtils.getConcreteList(candidate));
+        }
+
+        for (int numThreads : new int[]{1, 8, 32, 64}) {
+            Cache threadCache = new Cache(propertyFileUtilMock);
+            ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+            List<Callable<Boolean>> callables = Lists.newArrayList();
+            for (int thread = 0; thread < numThreads; ++thread) {
+                final int offset = thread;
+                callables.add(() -> {
+                    for (int i = offset; i < numEntries; i += numThreads) {
+                        threadCache.setEntry(entityInfo, Lists.newArrayList(fields.get(i)), Sets.newHashSet(StringConsts.ID), entities.get(i));
+                    }
+                    for (int i = 0; i < numEntries; ++i) {
+                        List<BullhornEntity> actual = threadCache.getEntry(entityInfo, Lists.newArrayList(fields.get(i)),
+                            Sets.newHashSet(StringConsts.ID));
+                        if (actual != null && !actual.equals(entities.get(i))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (Future<Boolean> future : executorService.invokeAll(callables)) {
+                Assert.assertTrue(future.get());
+            }
+            executorService.shutdown();
+
+            for (int i = 0; i < numEntries; ++i) {
+                Assert.assertEquals(entities.get(i), threadCache.getEntry(entityInfo, Lists.newArrayList(fields.get(i)),
+                    Sets.newHashSet(StringConsts.ID)));
+            }
+        }
+    }
+
+    @Test
+    public void testLoadEntryCoalescesConcurrentLookups() throws Exception {
+        EntityInfo entityInfo = EntityInfo.CLIENT_CORPORATION;
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("externalID"));
+        Field field = new Field(entityInfo, new Cell("externalID", "ACME"), true, propertyFileUtilMock.getDateParser());
+        ClientCorporation clientCorporation = TestUtils.createEntity(entityInfo, "id,externalID", "1,ACME", propertyFileUtilMock);
+        List<BullhornEntity> expected = TestUtils.getConcreteList(clientCorporation);
+        AtomicInteger numLoads = new AtomicInteger();
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        int numThreads = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        List<Callable<List<BullhornEntity>>> callables = Lists.newArrayList();
+        for (int i = 0; i < numThreads; ++i) {
+            callables.add(() -> cache.loadEntry(entityInfo, Lists.newArrayList(field), Sets.newHashSet(StringConsts.ID), () -> {
+                numLoads.incrementAndGet();
+                try {
+                    releaseLoad.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return expected;
+            }));
+        }
+        List<Future<List<BullhornEntity>>> futures = Lists.newArrayList();
+        for (Callable<List<BullhornEntity>> callable : callables) {
+            futures.add(executorService.submit(callable));
+        }
+        releaseLoad.countDown();
+        for (Future<List<BullhornEntity>> future : futures) {
+            Assert.assertEquals(expected, future.get());
+        }
+        executorService.shutdown();
+
+        Assert.assertEquals(1, numLoads.get());
+        Assert.assertEquals(expected, cache.getEntry(entityInfo, Lists.newArrayList(field), Sets.newHashSet(StringConsts.ID)));
+    }
+
+    @Test
+    public void testLoadEntryFailureIsNotCached() throws Exception {
+        EntityInfo entityInfo = EntityInfo.CLIENT_CORPORATION;
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("externalID"));
+        Field field = new Field(entityInfo, new Cell("externalID", "ACME"), true, propertyFileUtilMock.getDateParser());
+        ClientCorporation clientCorporation = TestUtils.createEntity(entityInfo, "id,externalID", "1,ACME", propertyFileUtilMock);
+        List<BullhornEntity> expected = TestUtils.getConcreteList(clientCorporation);
+
+        RestApiException restApiException = null;
+        try {
+            cache.loadEntry(entityInfo, Lists.newArrayList(field), Sets.newHashSet(StringConsts.ID), () -> {
+                throw new RestApiException("Service Unavailable");
+            });
+        } catch (RestApiException e) {
+            restApiException = e;
+        }
+        List<BullhornEntity> actual = cache.loadEntry(entityInfo, Lists.newArrayList(field), Sets.newHashSet(StringConsts.ID), () -> expected);
+
+        Assert.assertNotNull(restApiException);
+        Assert.assertEquals("Service Unavailable", restApiException.getMessage());
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testMaxEntriesEvictsLeastRecentlyUsed() throws Exception {
+        EntityInfo entityInfo = EntityInfo.CANDIDATE;
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("externalID"));
+        when(propertyFileUtilMock.getCacheMaxEntries()).thenReturn(2);
+        cache = new Cache(propertyFileUtilMock);
+        // Results without the externalID filled out are only cached by the exact lookup
+        List<Field> fieldsOne = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ext-1"), true, propertyFileUtilMock.getDateParser()));
+        List<Field> fieldsTwo = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ext-2"), true, propertyFileUtilMock.getDateParser()));
+        List<Field> fieldsThree = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ext-3"), true, propertyFileUtilMock.getDateParser()));
+        Candidate candidateOne = TestUtils.createEntity(entityInfo, "id", "1", propertyFileUtilMock);
+        Candidate candidateTwo = TestUtils.createEntity(entityInfo, "id", "2", propertyFileUtilMock);
+        Candidate candidateThree = TestUtils.createEntity(entityInfo, "id", "3", propertyFileUtilMock);
+
+        cache.setEntry(entityInfo, fieldsOne, Sets.newHashSet(StringConsts.ID), TestUtils.getConcreteList(candidateOne));
+        cache.setEntry(entityInfo, fieldsTwo, Sets.newHashSet(StringConsts.ID), TestUtils.getConcreteList(candidateTwo));
+        List<BullhornEntity> actualOne = cache.getEntry(entityInfo, fieldsOne, Sets.newHashSet(StringConsts.ID));
+        cache.setEntry(entityInfo, fieldsThree, Sets.newHashSet(StringConsts.ID), TestUtils.getConcreteList(candidateThree));
+
+        Assert.assertEquals(Lists.newArrayList(candidateOne), actualOne);
+        Assert.assertEquals(Lists.newArrayList(candidateOne), cache.getEntry(entityInfo, fieldsOne, Sets.newHashSet(StringConsts.ID)));
+        Assert.assertNull(cache.getEntry(entityInfo, fieldsTwo, Sets.newHashSet(StringConsts.ID)));
+        Assert.assertEquals(Lists.newArrayList(candidateThree), cache.getEntry(entityInfo, fieldsThree, Sets.newHashSet(StringConsts.ID)));
+    }
+
+    @Test
+    public void testMaxEntriesKeepsLookupUpToTheLimit() throws Exception {
+        EntityInfo entityInfo = EntityInfo.CANDIDATE;
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("externalID"));
+        when(propertyFileUtilMock.getCacheMaxEntries()).thenReturn(100);
+        cache = new Cache(propertyFileUtilMock);
+        List<Field> fields = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ext-1"), true, propertyFileUtilMock.getDateParser()));
+        List<Field> largeFields = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ext-2"), true, propertyFileUtilMock.getDateParser()));
+        int[] ids = IntStream.rangeClosed(1, 100).toArray();
+        int[] tooManyIds = IntStream.rangeClosed(1, 101).toArray();
+
+        // A lookup is kept as long as it fits within the limit of the whole level
+        cache.setEntry(entityInfo, fields, Sets.newHashSet(StringConsts.ID), TestUtils.getConcreteList(Candidate.class, ids));
+        Assert.assertEquals(100, cache.getEntry(entityInfo, fields, Sets.newHashSet(StringConsts.ID)).size());
+
+        cache.setEntry(entityInfo, largeFields, Sets.newHashSet(StringConsts.ID), TestUtils.getConcreteList(Candidate.class, tooManyIds));
+        Assert.assertNull(cache.getEntry(entityInfo, largeFields, Sets.newHashSet(StringConsts.ID)));
+    }
+
+    @Test
+    public void testPrintStatistics() throws Exception {
+        PrintUtil printUtilMock = mock(PrintUtil.class);
+        EntityInfo entityInfo = EntityInfo.CLIENT_CORPORATION;
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("externalID"));
+        List<Field> fieldsOne = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ACME"), true, propertyFileUtilMock.getDateParser()));
+        List<Field> fieldsTwo = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "INITECH"), true, propertyFileUtilMock.getDateParser()));
+        ClientCorporation clientCorporation = TestUtils.createEntity(entityInfo, "id,externalID", "1,ACME", propertyFileUtilMock);
+
+        cache.printStatistics(printUtilMock);
+        verify(printUtilMock, never()).printAndLog(any(String.class));
+
+        cache.setEntry(entityInfo, fieldsOne, Sets.newHashSet(StringConsts.ID), TestUtils.getConcreteList(clientCorporation));
+        cache.getEntry(entityInfo, fieldsOne, Sets.newHashSet(StringConsts.ID));
+        cache.getEntry(entityInfo, fieldsOne, Sets.newHashSet(StringConsts.ID));
+        cache.getEntry(entityInfo, fieldsTwo, Sets.newHashSet(StringConsts.ID));
+        cache.printStatistics(printUtilMock);
+
+        verify(printUtilMock).printAndLog("Cache statistics for the run so far:");
+        verify(printUtilMock).printAndLog("   ClientCorporation - hits: 2, misses: 1, evictions: 0, entries: 2, records: 2");
+        verify(printUtilMock).log(eq("      by externalID returning id - hits: 2, misses: 1, evictions: 0, entries: 2, records: 2"));
+    }
+
+    @Test
+    public void testStatisticsCountEachLoadedLookupOnce() throws Exception {
+        PrintUtil printUtilMock = mock(PrintUtil.class);
+        EntityInfo entityInfo = EntityInfo.CLIENT_CORPORATION;
+        List<Field> fieldsOne = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "ACME"), true, propertyFileUtilMock.getDateParser()));
+        List<Field> fieldsTwo = Lists.newArrayList(new Field(entityInfo, new Cell("externalID", "INITECH"), true, propertyFileUtilMock.getDateParser()));
+
+        // The first miss creates the bucket, and checking again while loading is not another miss
+        for (List<Field> fields : Arrays.asList(fieldsOne, fieldsTwo, fieldsOne)) {
+            if (cache.getEntry(entityInfo, fields, Sets.newHashSet(StringConsts.ID)) == null) {
+                cache.loadEntry(entityInfo, fields, Sets.newHashSet(StringConsts.ID), Lists::newArrayList);
+            }
+        }
+        cache.printStatistics(printUtilMock);
+
+        verify(printUtilMock).printAndLog("   ClientCorporation - hits: 1, misses: 2, evictions: 0, entries: 2, records: 0");
+    }
+
+    @Test
+    public void testPrimaryAndAssociationLookupsShareEntries() throws Exception {
+        // search/ClientCorporation?fields=id,externalID&query=externalID:"ACME" (when loading ClientCorporation)
+        // search/ClientCorporation?fields=id,externalID&query=externalID:"ACME" (when loading ClientContact)
+        Field primaryField = new Field(EntityInfo.CLIENT_CORPORATION, new Cell("externalID", "ACME"), true,
+            propertyFileUtilMock.getDateParser());
+        Field associationField = new Field(EntityInfo.CLIENT_CONTACT, new Cell("clientCorporation.externalID", "ACME"), false,
+            propertyFileUtilMock.getDateParser());
+        ClientCorporation clientCorporation = TestUtils.createEntity(EntityInfo.CLIENT_CORPORATION, "id,externalID", "1,ACME",
+            propertyFileUtilMock);
+        List<BullhornEntity> expected = TestUtils.getConcreteList(clientCorporation);
+
+        cache.setEntry(EntityInfo.CLIENT_CORPORATION, Lists.newArrayList(primaryField), Sets.newHashSet("id", "externalID"), expected);
+        List<BullhornEntity> actual = cache.getEntry(EntityInfo.CLIENT_CORPORATION, Lists.newArrayList(associationField),
+            Sets.newHashSet("id", "externalID"));
+
+        Assert.assertEquals(expected, actual);
+    }
 }
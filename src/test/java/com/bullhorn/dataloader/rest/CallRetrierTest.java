@@ -0,0 +1,175 @@
+package com.bullhorn.dataloader.rest;
+
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Level;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhornsdk.data.exception.RestApiException;
+import com.bullhornsdk.data.model.response.crud.AbstractCrudResponse;
+import com.bullhornsdk.data.model.response.crud.CrudResponse;
+
+public class CallRetrierTest {
+
+    private PrintUtil printUtilMock;
+    private CallRetrier callRetrier;
+    private AtomicInteger attempts;
+
+    @Before
+    public void setup() {
+        printUtilMock = mock(PrintUtil.class);
+        callRetrier = new CallRetrier(3, 0, printUtilMock);
+        attempts = new AtomicInteger(0);
+    }
+
+    @Test
+    public void testSuccessNotRetried() {
+        String response = callRetrier.execute(() -> {
+            attempts.incrementAndGet();
+            return "Success";
+        }, true);
+
+        Assert.assertEquals("Success", response);
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertEquals(0, callRetrier.getRetries());
+    }
+
+    @Test
+    public void testConnectionErrorRetriedUntilSuccess() {
+        String response = callRetrier.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RestApiException("Error getting Candidate url variables {}");
+            }
+            return "Success";
+        }, true);
+
+        Assert.assertEquals("Success", response);
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(Integer.valueOf(2), callRetrier.getRetries(ErrorInfo.CONNECTION_TIMEOUT));
+        verify(printUtilMock, times(2)).log(eq(Level.WARN), startsWith("Retrying REST call in 0 ms after attempt"));
+    }
+
+    @Test
+    public void testGivesUpAfterMaxRetries() {
+        RestApiException connectionError = new RestApiException("Error posting Candidate url variables {}");
+        RestApiException actualException = null;
+
+        try {
+            callRetrier.execute(() -> {
+                attempts.incrementAndGet();
+                throw connectionError;
+            }, true);
+        } catch (RestApiException e) {
+            actualException = e;
+        }
+
+        Assert.assertEquals(connectionError, actualException);
+        Assert.assertEquals(4, attempts.get());
+        Assert.assertEquals(3, callRetrier.getRetries());
+    }
+
+    @Test
+    public void testConnectionErrorNotRetriedWhenNotRepeatable() {
+        try {
+            callRetrier.execute(() -> {
+                attempts.incrementAndGet();
+                throw new RestApiException("Error posting Candidate url variables {}");
+            }, false);
+        } catch (RestApiException e) {
+            Assert.assertEquals(1, attempts.get());
+        }
+
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertEquals(0, callRetrier.getRetries());
+    }
+
+    @Test
+    public void testThrottledRetriedWhenNotRepeatable() {
+        CrudResponse response = callRetrier.execute(() -> {
+            CrudResponse crudResponse = new AbstractCrudResponse();
+            if (attempts.incrementAndGet() == 1) {
+                crudResponse.setErrorCode("429 TOO_MANY_REQUESTS");
+            }
+            return crudResponse;
+        }, false);
+
+        Assert.assertFalse(response.getErrorCode().startsWith("429"));
+        Assert.assertEquals(2, attempts.get());
+        Assert.assertEquals(Integer.valueOf(1), callRetrier.getRetries(ErrorInfo.API_THROTTLED));
+    }
+
+    @Test
+    public void testOtherErrorsNotRetried() {
+        CrudResponse response = callRetrier.execute(() -> {
+            attempts.incrementAndGet();
+            CrudResponse crudResponse = new AbstractCrudResponse();
+            crudResponse.setErrorCode("400");
+            return crudResponse;
+        }, true);
+
+        Assert.assertEquals("400", response.getErrorCode());
+        Assert.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testRetryBudget() {
+        callRetrier = new CallRetrier(10, 0, printUtilMock);
+
+        // With only one call made, the budget allows the minimum of 10 retries
+        try {
+            callRetrier.execute(() -> {
+                attempts.incrementAndGet();
+                throw new RestApiException("Error getting Candidate url variables {}");
+            }, true);
+        } catch (RestApiException e) {
+            Assert.assertEquals(11, attempts.get());
+        }
+
+        // The budget is used up until more calls are made
+        attempts.set(0);
+        try {
+            callRetrier.execute(() -> {
+                attempts.incrementAndGet();
+                throw new RestApiException("Error getting Candidate url variables {}");
+            }, true);
+        } catch (RestApiException e) {
+            Assert.assertEquals(1, attempts.get());
+        }
+
+        Assert.assertEquals(10, callRetrier.getRetries());
+        verify(printUtilMock, times(1)).log(eq(Level.WARN), startsWith("Retry budget of 10 retries for 2 calls is used up"));
+    }
+
+    @Test
+    public void testPrintStatistics() {
+        callRetrier.execute(() -> {
+            CrudResponse crudResponse = new AbstractCrudResponse();
+            crudResponse.setErrorCode(attempts.incrementAndGet() == 1 ? "503" : attempts.get() == 2 ? "429" : null);
+            return crudResponse;
+        }, true);
+
+        callRetrier.printStatistics(printUtilMock);
+
+        verify(printUtilMock, times(1)).printAndLog(startsWith("Total calls retried: 2, taking "));
+        verify(printUtilMock, times(1)).printAndLog("   203 Too Many Requests - 1");
+        verify(printUtilMock, times(1)).printAndLog("   500 Internal Server Error - 1");
+    }
+
+    @Test
+    public void testPrintStatisticsNoRetries() {
+        callRetrier.printStatistics(printUtilMock);
+
+        verify(printUtilMock, never()).printAndLog(startsWith("Total calls retried"));
+    }
+}
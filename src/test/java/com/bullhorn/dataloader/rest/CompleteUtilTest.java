@@ -7,14 +7,15 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 
-import org.apache.commons.httpclient.HttpClient;
-import org.apache.commons.httpclient.HttpMethod;
-import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.io.FileUtils;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
 import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Before;
@@ -23,6 +24,8 @@ import org.mockito.ArgumentCaptor;
 
 import com.bullhorn.dataloader.TestUtils;
 import com.bullhorn.dataloader.data.ActionTotals;
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.data.CsvFileWriter;
 import com.bullhorn.dataloader.data.Result;
 import com.bullhorn.dataloader.data.Row;
 import com.bullhorn.dataloader.enums.Command;
@@ -31,27 +34,30 @@ import com.bullhorn.dataloader.enums.ErrorInfo;
 import com.bullhorn.dataloader.util.DataLoaderException;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhorn.dataloader.util.StringConsts;
 import com.bullhorn.dataloader.util.Timer;
 import com.bullhornsdk.data.exception.RestApiException;
 
 public class CompleteUtilTest {
 
     private ActionTotals actionTotalsMock;
+    private CsvFileWriter csvFileWriterMock;
     private HttpClient httpClientMock;
     private PrintUtil printUtilMock;
     private PropertyFileUtil propertyFileUtilMock;
     private RestSession restSessionMock;
     private Timer timerMock;
 
-    private ArgumentCaptor<HttpMethod> httpMethodArgumentCaptor;
+    private ArgumentCaptor<HttpPost> httpPostArgumentCaptor;
 
     private CompleteUtil completeUtil;
 
     @Before
     public void setup() throws IOException {
         actionTotalsMock = mock(ActionTotals.class);
+        csvFileWriterMock = mock(CsvFileWriter.class);
         httpClientMock = mock(HttpClient.class);
-        httpMethodArgumentCaptor = ArgumentCaptor.forClass(HttpMethod.class);
+        httpPostArgumentCaptor = ArgumentCaptor.forClass(HttpPost.class);
         printUtilMock = mock(PrintUtil.class);
         propertyFileUtilMock = mock(PropertyFileUtil.class);
         RestApi restApiMock = mock(RestApi.class);
@@ -67,7 +73,6 @@ public class CompleteUtilTest {
         when(restSessionMock.getRestApi()).thenReturn(restApiMock);
         when(restApiMock.getRestUrl()).thenReturn("http://bullhorn-rest-api/");
         when(restApiMock.getBhRestToken()).thenReturn("12345678-1234-1234-1234-1234567890AB");
-        when(httpClientMock.executeMethod(any())).thenReturn(0);
     }
 
     @Test
@@ -87,21 +92,18 @@ public class CompleteUtilTest {
         completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
         completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
 
-        verify(httpClientMock).executeMethod(httpMethodArgumentCaptor.capture());
-        HttpMethod httpMethod = httpMethodArgumentCaptor.getValue();
-        PostMethod postMethod = (PostMethod) httpMethod;
-        Assert.assertEquals(expectedURL, postMethod.getURI().toString());
+        verify(httpClientMock).execute(httpPostArgumentCaptor.capture(), any(ResponseHandler.class));
+        HttpPost httpPost = httpPostArgumentCaptor.getValue();
+        Assert.assertEquals(expectedURL, httpPost.getURI().toString());
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        postMethod.getRequestEntity().writeRequest(outputStream);
-        String actualPayload = outputStream.toString();
+        String actualPayload = EntityUtils.toString(httpPost.getEntity());
         Assert.assertEquals(expectedPayload, actualPayload);
     }
 
     @Test
     public void testComplete_error() throws IOException {
         RestApiException restApiException = new RestApiException("ERROR TEXT");
-        when(httpClientMock.executeMethod(any())).thenThrow(restApiException);
+        when(httpClientMock.execute(any(HttpUriRequest.class), any(ResponseHandler.class))).thenThrow(restApiException);
 
         completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
         completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
@@ -117,9 +119,11 @@ public class CompleteUtilTest {
         try {
             Row row = TestUtils.createRow("firstName,lastName", "Data,Loader");
             Result result = Result.insert(1);
-            when(actionTotalsMock.getAllActionsTotal()).thenReturn(1);
+            when(actionTotalsMock.getAllActionsTotal()).thenReturn(4);
             when(actionTotalsMock.getActionTotal(Result.Action.INSERT)).thenReturn(1);
             when(actionTotalsMock.getActionTotal(Result.Action.UPDATE)).thenReturn(0);
+            when(actionTotalsMock.getActionTotal(Result.Action.UNCHANGED)).thenReturn(2);
+            when(actionTotalsMock.getActionTotal(Result.Action.UP_TO_DATE)).thenReturn(1);
             when(actionTotalsMock.getActionTotal(Result.Action.FAILURE)).thenReturn(0);
             when(propertyFileUtilMock.getResultsFileEnabled()).thenReturn(true);
             when(propertyFileUtilMock.getResultsFilePath()).thenReturn(resultsFilePath);
@@ -129,17 +133,21 @@ public class CompleteUtilTest {
             Assert.assertTrue(fileContents.startsWith("{}"));
 
             completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
-            completeUtil.rowComplete(row, result, actionTotalsMock);
+            completeUtil.rowComplete(row, result, actionTotalsMock, csvFileWriterMock);
             completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
 
             String updatedFileContents = FileUtils.readFileToString(resultsFile);
             JSONObject jsonObject = new JSONObject(updatedFileContents);
-            Assert.assertEquals(jsonObject.getInt("processed"), 1);
+            Assert.assertEquals(jsonObject.getInt("processed"), 4);
             Assert.assertEquals(jsonObject.getInt("inserted"), 1);
             Assert.assertEquals(jsonObject.getInt("updated"), 0);
+            Assert.assertEquals(jsonObject.getInt("unchanged"), 2);
+            Assert.assertEquals(jsonObject.getInt("upToDate"), 1);
             Assert.assertEquals(jsonObject.getInt("deleted"), 0);
             Assert.assertEquals(jsonObject.getInt("failed"), 0);
             Assert.assertEquals(jsonObject.getInt("durationMsec"), 999);
+            Assert.assertEquals(jsonObject.getString("successFile"), "results/Candidate_load_" + StringConsts.TIMESTAMP + "_success.csv");
+            Assert.assertEquals(jsonObject.getString("failureFile"), "results/Candidate_load_" + StringConsts.TIMESTAMP + "_failure.csv");
             Assert.assertFalse(jsonObject.has("errors"));
         } finally {
             // Reset resource file
@@ -168,7 +176,7 @@ public class CompleteUtilTest {
             Assert.assertTrue(fileContents.startsWith("{}"));
 
             completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
-            completeUtil.rowComplete(row, result, actionTotalsMock);
+            completeUtil.rowComplete(row, result, actionTotalsMock, csvFileWriterMock);
             completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
 
             String updatedFileContents = FileUtils.readFileToString(resultsFile);
@@ -211,7 +219,7 @@ public class CompleteUtilTest {
             Assert.assertTrue(fileContents.startsWith("{}"));
 
             completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
-            completeUtil.rowComplete(row, result, actionTotalsMock);
+            completeUtil.rowComplete(row, result, actionTotalsMock, csvFileWriterMock);
             completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
 
             String updatedFileContents = FileUtils.readFileToString(resultsFile);
@@ -233,6 +241,42 @@ public class CompleteUtilTest {
         }
     }
 
+    @Test
+    public void testResultsFileMaxErrors() throws IOException {
+        String resultsFilePath = TestUtils.getResourceFilePath("results.json");
+        File resultsFile = new File(resultsFilePath);
+
+        try {
+            when(actionTotalsMock.getAllActionsTotal()).thenReturn(5);
+            when(actionTotalsMock.getActionTotal(Result.Action.INSERT)).thenReturn(0);
+            when(actionTotalsMock.getActionTotal(Result.Action.UPDATE)).thenReturn(0);
+            when(actionTotalsMock.getActionTotal(Result.Action.FAILURE)).thenReturn(5);
+            when(propertyFileUtilMock.getResultsFileEnabled()).thenReturn(true);
+            when(propertyFileUtilMock.getResultsFilePath()).thenReturn(resultsFilePath);
+            when(propertyFileUtilMock.getResultsFileWriteIntervalMsec()).thenReturn(10000);
+            when(propertyFileUtilMock.getResultsFileMaxErrors()).thenReturn(2);
+
+            completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
+            for (int i = 1; i <= 5; ++i) {
+                Row row = new Row("path/to/fake/file.csv", i);
+                row.addCell(new Cell("bogus", "1;2"));
+                completeUtil.rowComplete(row, Result.failure(new DataLoaderException(ErrorInfo.INTERNAL_SERVER_ERROR,
+                    "'bogus' does not exist on Candidate")), actionTotalsMock, csvFileWriterMock);
+            }
+            completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
+
+            String updatedFileContents = FileUtils.readFileToString(resultsFile);
+            JSONObject jsonObject = new JSONObject(updatedFileContents);
+            Assert.assertEquals(jsonObject.getInt("failed"), 5);
+            Assert.assertEquals(jsonObject.getJSONArray("errors").length(), 2);
+            Assert.assertEquals(jsonObject.getJSONArray("errors").getJSONObject(1).getInt("row"), 2);
+            Assert.assertEquals(jsonObject.getInt("errorsNotListed"), 3);
+        } finally {
+            // Reset resource file
+            FileUtils.writeStringToFile(resultsFile, "{}");
+        }
+    }
+
     @Test
     public void testResultsFileCannotWriteFile() throws IOException {
         Row row = TestUtils.createRow("firstName,lastName", "Data,Loader");
@@ -241,7 +285,7 @@ public class CompleteUtilTest {
         when(propertyFileUtilMock.getResultsFileWriteIntervalMsec()).thenReturn(10000);
 
         completeUtil = new CompleteUtil(restSessionMock, httpClientMock, propertyFileUtilMock, printUtilMock, timerMock);
-        completeUtil.rowComplete(row, Result.insert(1), actionTotalsMock);
+        completeUtil.rowComplete(row, Result.insert(1), actionTotalsMock, csvFileWriterMock);
         completeUtil.complete(Command.LOAD, "Candidate.csv", EntityInfo.CANDIDATE, actionTotalsMock);
 
         verify(printUtilMock, times(1)).printAndLog(contains("Error writing results file: java.io.FileNotFoundException:"));
@@ -0,0 +1,80 @@
+package com.bullhorn.dataloader.rest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.util.DataLoaderException;
+
+public class FieldPlanTest {
+
+    @Test
+    public void testDirectField() {
+        FieldPlan fieldPlan = FieldPlan.get(EntityInfo.CANDIDATE, "FIRSTName");
+
+        Assert.assertEquals(EntityInfo.CANDIDATE, fieldPlan.getEntityInfo());
+        Assert.assertEquals(EntityInfo.CANDIDATE, fieldPlan.getFieldEntity());
+        Assert.assertEquals("firstName", fieldPlan.getName());
+        Assert.assertEquals(String.class, fieldPlan.getFieldType());
+        Assert.assertFalse(fieldPlan.isToOne());
+        Assert.assertFalse(fieldPlan.isToMany());
+        Assert.assertNull(fieldPlan.getAssociationGetter());
+        Assert.assertNull(fieldPlan.getAssociationSetter());
+    }
+
+    @Test
+    public void testToOneField() {
+        FieldPlan fieldPlan = FieldPlan.get(EntityInfo.CANDIDATE, "OWNER.ID");
+
+        Assert.assertEquals(EntityInfo.CORPORATE_USER, fieldPlan.getFieldEntity());
+        Assert.assertEquals("owner.id", fieldPlan.getName());
+        Assert.assertEquals(Integer.class, fieldPlan.getFieldType());
+        Assert.assertTrue(fieldPlan.isToOne());
+        Assert.assertFalse(fieldPlan.isToMany());
+        Assert.assertEquals("getOwner", fieldPlan.getAssociationGetter().getMethod().getName());
+        Assert.assertEquals("setOwner", fieldPlan.getAssociationSetter().getMethod().getName());
+    }
+
+    @Test
+    public void testToManyField() {
+        FieldPlan fieldPlan = FieldPlan.get(EntityInfo.CANDIDATE, "primarySkills.name");
+
+        Assert.assertEquals(EntityInfo.SKILL, fieldPlan.getFieldEntity());
+        Assert.assertFalse(fieldPlan.isToOne());
+        Assert.assertTrue(fieldPlan.isToMany());
+    }
+
+    @Test
+    public void testAddressField() {
+        FieldPlan fieldPlan = FieldPlan.get(EntityInfo.CANDIDATE, "address.city");
+
+        Assert.assertEquals(EntityInfo.ADDRESS, fieldPlan.getFieldEntity());
+        Assert.assertFalse(fieldPlan.isToOne());
+        Assert.assertFalse(fieldPlan.isToMany());
+    }
+
+    @Test
+    public void testCompiledOncePerColumn() {
+        FieldPlan first = FieldPlan.get(EntityInfo.JOB_ORDER, "title");
+        FieldPlan second = FieldPlan.get(EntityInfo.JOB_ORDER, "title");
+        FieldPlan otherEntity = FieldPlan.get(EntityInfo.PLACEMENT, "status");
+
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, otherEntity);
+    }
+
+    @Test
+    public void testBadColumnIsNotCached() {
+        for (int i = 0; i < 2; ++i) {
+            DataLoaderException dataLoaderException = null;
+            try {
+                FieldPlan.get(EntityInfo.CANDIDATE, "bogus");
+            } catch (DataLoaderException e) {
+                dataLoaderException = e;
+            }
+            Assert.assertNotNull(dataLoaderException);
+            Assert.assertEquals(ErrorInfo.INCORRECT_COLUMN_NAME, dataLoaderException.getErrorInfo());
+        }
+    }
+}
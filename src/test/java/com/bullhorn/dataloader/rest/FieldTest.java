@@ -552,6 +552,29 @@ public class FieldTest {
         Assert.assertEquals(candidateEducation.getState(), "MO");
     }
 
+    @Test
+    public void testHasSameValueOnEntity() throws Exception {
+        Candidate candidate = new Candidate(1);
+        candidate.setFirstName("Jack");
+        candidate.setSalary(new BigDecimal("123.450"));
+        candidate.setDateOfBirth(dateTimeFormatter.parseDateTime("01/31/1990"));
+
+        Assert.assertTrue(new Field(EntityInfo.CANDIDATE, new Cell("firstName", "Jack"), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+        Assert.assertFalse(new Field(EntityInfo.CANDIDATE, new Cell("firstName", "Jill"), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+        Assert.assertTrue(new Field(EntityInfo.CANDIDATE, new Cell("salary", "123.45"), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+        Assert.assertFalse(new Field(EntityInfo.CANDIDATE, new Cell("salary", "123.46"), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+        Assert.assertTrue(new Field(EntityInfo.CANDIDATE, new Cell("dateOfBirth", "01/31/1990"), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+        Assert.assertTrue(new Field(EntityInfo.CANDIDATE, new Cell("lastName", ""), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+        Assert.assertFalse(new Field(EntityInfo.CANDIDATE, new Cell("owner.id", "1"), false, dateTimeFormatter)
+            .hasSameValueOnEntity(candidate, ";"));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testWrongEntityTypeException() throws Exception {
         Cell cell = new Cell("firstName", "Jack");
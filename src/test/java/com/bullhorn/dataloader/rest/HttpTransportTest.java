@@ -0,0 +1,73 @@
+package com.bullhorn.dataloader.rest;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+
+public class HttpTransportTest {
+
+    private PropertyFileUtil propertyFileUtilMock;
+    private PrintUtil printUtilMock;
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Before
+    public void setup() {
+        propertyFileUtilMock = mock(PropertyFileUtil.class);
+        printUtilMock = mock(PrintUtil.class);
+        when(propertyFileUtilMock.getNumThreads()).thenReturn(10);
+        when(propertyFileUtilMock.getPageFetchThreads()).thenReturn(4);
+        when(propertyFileUtilMock.getAdaptiveConcurrency()).thenReturn(false);
+        when(propertyFileUtilMock.getCallTimeoutSeconds()).thenReturn(0);
+        concurrencyLimiter = new ConcurrencyLimiter(propertyFileUtilMock, printUtilMock);
+    }
+
+    @Test
+    public void testPoolSizedToThreads() {
+        HttpTransport httpTransport = new HttpTransport(propertyFileUtilMock, concurrencyLimiter);
+
+        Assert.assertEquals(Integer.valueOf(15), httpTransport.getMaxTotal());
+    }
+
+    @Test
+    public void testPoolSizedToMaxThreadsWithAdaptiveConcurrency() {
+        when(propertyFileUtilMock.getAdaptiveConcurrency()).thenReturn(true);
+        concurrencyLimiter = new ConcurrencyLimiter(propertyFileUtilMock, printUtilMock);
+
+        Integer maxConnections = HttpTransport.getMaxConnections(propertyFileUtilMock, concurrencyLimiter);
+
+        Assert.assertEquals(Integer.valueOf(20), maxConnections);
+    }
+
+    @Test
+    public void testApplyTo() {
+        HttpTransport httpTransport = new HttpTransport(propertyFileUtilMock, concurrencyLimiter);
+        RestTemplate restTemplate = new RestTemplate();
+
+        httpTransport.applyTo(restTemplate);
+
+        Assert.assertTrue(restTemplate.getRequestFactory() instanceof HttpComponentsClientHttpRequestFactory);
+    }
+
+    @Test
+    public void testPrintStatisticsWithoutCalls() {
+        HttpTransport httpTransport = new HttpTransport(propertyFileUtilMock, concurrencyLimiter);
+
+        httpTransport.printStatistics(printUtilMock);
+
+        Assert.assertEquals(0, httpTransport.getLeasedCount());
+        Assert.assertEquals(0, httpTransport.getOpenedCount());
+        verify(printUtilMock, never()).log(any(String.class));
+    }
+}
@@ -0,0 +1,129 @@
+package com.bullhorn.dataloader.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.TestUtils;
+import com.bullhornsdk.data.exception.RestApiException;
+import com.bullhornsdk.data.model.entity.core.standard.Candidate;
+import com.bullhornsdk.data.model.response.list.ListWrapper;
+import com.bullhornsdk.data.model.response.list.StandardListWrapper;
+
+public class PagedIteratorTest {
+
+    private final List<Integer> pageStarts = new ArrayList<>();
+
+    @Test
+    public void testPullsPagesOnlyWhenNeeded() {
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> getPage(start, 10, 25), 10, 100, null);
+
+        Assert.assertTrue(pageStarts.isEmpty());
+        Assert.assertEquals(Integer.valueOf(1), iterator.next().getId());
+        Assert.assertEquals(1, pageStarts.size());
+
+        List<Integer> ids = getIds(iterator);
+        Assert.assertEquals(24, ids.size());
+        Assert.assertEquals(Integer.valueOf(25), ids.get(23));
+        Assert.assertEquals(3, pageStarts.size());
+        Assert.assertEquals(Integer.valueOf(20), pageStarts.get(2));
+    }
+
+    @Test
+    public void testStopsOnShortPageWithoutTotal() {
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> {
+            ListWrapper<Candidate> page = getPage(start, 10, 15);
+            page.setTotal(null);
+            return page;
+        }, 10, 100, null);
+
+        Assert.assertEquals(15, getIds(iterator).size());
+        Assert.assertEquals(2, pageStarts.size());
+    }
+
+    @Test
+    public void testStopsAtMaxRecords() {
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> getPage(start, 10, 100), 10, 25, null);
+
+        List<Integer> ids = getIds(iterator);
+
+        Assert.assertEquals(25, ids.size());
+        Assert.assertEquals(Integer.valueOf(25), ids.get(24));
+        Assert.assertEquals(3, pageStarts.size());
+    }
+
+    @Test
+    public void testEmptyResult() {
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> getPage(start, 10, 0), 10, 100, null);
+
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(1, pageStarts.size());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextAfterLastRecord() {
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> getPage(start, 10, 1), 10, 100, null);
+
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public void testPrefetchesNextPage() {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> getPage(start, 10, 35), 10, 100, executorService);
+
+        List<Integer> ids = getIds(iterator);
+        executorService.shutdown();
+
+        Assert.assertEquals(35, ids.size());
+        for (int i = 0; i < ids.size(); ++i) {
+            Assert.assertEquals(Integer.valueOf(i + 1), ids.get(i));
+        }
+        Assert.assertEquals(4, pageStarts.size());
+    }
+
+    @Test(expected = RestApiException.class)
+    public void testPrefetchError() {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        PagedIterator<Candidate> iterator = new PagedIterator<>(start -> {
+            if (start == 10) {
+                throw new RestApiException("Flaky API Error");
+            }
+            return getPage(start, 10, 35);
+        }, 10, 100, executorService);
+
+        try {
+            getIds(iterator);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Returns the page of candidates that begins at the given start, with ids numbered from one.
+     */
+    private synchronized ListWrapper<Candidate> getPage(Integer start, Integer count, Integer total) {
+        pageStarts.add(start);
+        try {
+            int end = Math.min(start + count, total);
+            return TestUtils.getListWrapper(Candidate.class, start, total, IntStream.rangeClosed(start + 1, end).toArray());
+        } catch (InstantiationException | IllegalAccessException e) {
+            return new StandardListWrapper<>();
+        }
+    }
+
+    private List<Integer> getIds(PagedIterator<Candidate> iterator) {
+        List<Integer> ids = new ArrayList<>();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next().getId());
+        }
+        return ids;
+    }
+}
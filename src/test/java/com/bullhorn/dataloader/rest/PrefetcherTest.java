@@ -0,0 +1,202 @@
+package com.bullhorn.dataloader.rest;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.TestUtils;
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.data.Row;
+import com.bullhorn.dataloader.enums.Command;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+import com.bullhorn.dataloader.util.StringConsts;
+import com.bullhornsdk.data.exception.RestApiException;
+import com.bullhornsdk.data.model.entity.core.standard.Candidate;
+import com.bullhornsdk.data.model.entity.core.standard.Sendout;
+import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class PrefetcherTest {
+
+    private RestApi restApiMock;
+    private PropertyFileUtil propertyFileUtilMock;
+    private PrintUtil printUtilMock;
+    private Cache cache;
+    private Prefetcher prefetcher;
+
+    @Before
+    public void setup() {
+        RestSession restSessionMock = mock(RestSession.class);
+        restApiMock = mock(RestApi.class);
+        propertyFileUtilMock = mock(PropertyFileUtil.class);
+        printUtilMock = mock(PrintUtil.class);
+        cache = new Cache(propertyFileUtilMock);
+        prefetcher = new Prefetcher(restSessionMock, cache, propertyFileUtilMock, printUtilMock);
+
+        when(restSessionMock.getRestApi()).thenReturn(restApiMock);
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        when(propertyFileUtilMock.getListDelimiter()).thenReturn(";");
+        when(propertyFileUtilMock.getDateParser()).thenReturn(DateTimeFormat.forPattern("yyyy-MM-dd"));
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Lists.newArrayList(StringConsts.EXTERNAL_ID));
+    }
+
+    @Test
+    public void testPrefetchLoadSearch() throws IOException {
+        Candidate candidate1 = new Candidate(1);
+        candidate1.setExternalID("ext-1");
+        Candidate candidate2 = new Candidate(2);
+        candidate2.setExternalID("ext-2");
+        when(restApiMock.searchForList(eq(Candidate.class), any(), any(), any())).thenReturn(Lists.newArrayList(candidate1, candidate2));
+        List<Row> rows = Lists.newArrayList(
+            TestUtils.createRow("externalID,firstName", "ext-1,Jack"),
+            TestUtils.createRow("externalID,firstName", "ext-2,Jill"),
+            TestUtils.createRow("externalID,firstName", "ext-3,Spot"),
+            TestUtils.createRow("externalID,firstName", "ext-1,Jack"));
+
+        prefetcher.prefetch(Command.LOAD, EntityInfo.CANDIDATE, rows);
+
+        verify(restApiMock, times(1)).searchForList(eq(Candidate.class),
+            eq("(externalID:\"ext-1\" OR externalID:\"ext-2\" OR externalID:\"ext-3\")"),
+            eq(Sets.newHashSet("id", "externalID")), any());
+        List<BullhornEntity> entry1 = cache.getEntry(EntityInfo.CANDIDATE, getFields(EntityInfo.CANDIDATE, "externalID", "ext-1"),
+            Sets.newHashSet("id", "externalID"));
+        Assert.assertEquals(1, entry1.size());
+        Assert.assertEquals(Integer.valueOf(1), entry1.get(0).getId());
+        List<BullhornEntity> entry2 = cache.getEntry(EntityInfo.CANDIDATE, getFields(EntityInfo.CANDIDATE, "externalID", "ext-2"),
+            Sets.newHashSet("id", "externalID"));
+        Assert.assertEquals(Integer.valueOf(2), entry2.get(0).getId());
+        Assert.assertNull(cache.getEntry(EntityInfo.CANDIDATE, getFields(EntityInfo.CANDIDATE, "externalID", "ext-3"),
+            Sets.newHashSet("id", "externalID")));
+    }
+
+    @Test
+    public void testPrefetchLoadOnlyUpdateChangedFields() throws IOException {
+        when(propertyFileUtilMock.getOnlyUpdateChangedFields()).thenReturn(true);
+        when(restApiMock.searchForList(eq(Candidate.class), any(), any(), any())).thenReturn(Lists.newArrayList(new Candidate(1)));
+        List<Row> rows = Lists.newArrayList(
+            TestUtils.createRow("externalID,firstName,primarySkills.id", "ext-1,Jack,1"),
+            TestUtils.createRow("externalID,firstName,primarySkills.id", "ext-2,Jill,2"));
+
+        prefetcher.prefetch(Command.LOAD, EntityInfo.CANDIDATE, rows);
+
+        // The current values are fetched for the same fields as the lookup in the task, without To-Many fields
+        verify(restApiMock, times(1)).searchForList(eq(Candidate.class),
+            eq("(externalID:\"ext-1\" OR externalID:\"ext-2\")"),
+            eq(Sets.newHashSet("id", "externalID", "firstName")), any());
+    }
+
+    @Test
+    public void testPrefetchExportHeadersThatDiffer() throws IOException {
+        when(restApiMock.searchForList(eq(Candidate.class), any(), any(), any())).thenReturn(Lists.newArrayList(new Candidate(1)));
+        List<Row> rows = Lists.newArrayList(
+            TestUtils.createRow("externalid,firstname", "ext-1,Jack"),
+            TestUtils.createRow("externalid,firstname", "ext-2,Jill"),
+            TestUtils.createRow("externalid,firstname,lastName", "ext-3,Spot,Dog"));
+
+        prefetcher.prefetch(Command.EXPORT, EntityInfo.CANDIDATE, rows);
+
+        // The fields parameter covers every set of headers, with the capitalization corrected
+        verify(restApiMock, times(1)).searchForList(eq(Candidate.class),
+            eq("(externalID:\"ext-1\" OR externalID:\"ext-2\" OR externalID:\"ext-3\")"),
+            eq(Sets.newHashSet("id", "externalID", "firstName", "lastName")), any());
+    }
+
+    @Test
+    public void testPrefetchDeleteQuery() throws IOException {
+        Sendout sendout = new Sendout();
+        sendout.setId(1);
+        when(restApiMock.queryForList(eq(Sendout.class), any(), any(), any())).thenReturn(Lists.newArrayList(sendout));
+        List<Row> rows = Lists.newArrayList(TestUtils.createRow("id", "1"), TestUtils.createRow("id", "2"));
+
+        prefetcher.prefetch(Command.DELETE, EntityInfo.SENDOUT, rows);
+
+        verify(restApiMock, times(1)).queryForList(eq(Sendout.class), eq("(id=1 OR id=2)"), eq(Sets.newHashSet("id")), any());
+        List<BullhornEntity> entry = cache.getEntry(EntityInfo.SENDOUT, getFields(EntityInfo.SENDOUT, "id", "1"),
+            Sets.newHashSet("id"));
+        Assert.assertEquals(Integer.valueOf(1), entry.get(0).getId());
+        Assert.assertNull(cache.getEntry(EntityInfo.SENDOUT, getFields(EntityInfo.SENDOUT, "id", "2"), Sets.newHashSet("id")));
+    }
+
+    @Test
+    public void testPrefetchDeleteSoftDeletable() throws IOException {
+        when(restApiMock.searchForList(eq(Candidate.class), any(), any(), any())).thenReturn(Lists.newArrayList(new Candidate(2)));
+        List<Row> rows = Lists.newArrayList(TestUtils.createRow("id", "1"), TestUtils.createRow("id", "2"));
+
+        prefetcher.prefetch(Command.DELETE, EntityInfo.CANDIDATE, rows);
+
+        verify(restApiMock, times(1)).searchForList(eq(Candidate.class), eq("(id:1 OR id:2) AND isDeleted:0"),
+            eq(Sets.newHashSet("id", "isDeleted")), any());
+        List<Field> fields = getFields(EntityInfo.CANDIDATE, "id", "2");
+        fields.add(new Field(EntityInfo.CANDIDATE, new Cell("isDeleted", "0"), true,
+            propertyFileUtilMock.getDateParser()));
+        List<BullhornEntity> entry = cache.getEntry(EntityInfo.CANDIDATE, fields, Sets.newHashSet("id", "isDeleted"));
+        Assert.assertEquals(Integer.valueOf(2), entry.get(0).getId());
+    }
+
+    @Test
+    public void testPrefetchSingleRow() throws IOException {
+        List<Row> rows = Lists.newArrayList(TestUtils.createRow("externalID,firstName", "ext-1,Jack"),
+            TestUtils.createRow("externalID,firstName", "ext-1,Jack"));
+
+        prefetcher.prefetch(Command.LOAD, EntityInfo.CANDIDATE, rows);
+
+        verify(restApiMock, never()).searchForList(any(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testPrefetchCachingDisabled() throws IOException {
+        when(propertyFileUtilMock.getCaching()).thenReturn(false);
+        List<Row> rows = Lists.newArrayList(TestUtils.createRow("externalID,firstName", "ext-1,Jack"),
+            TestUtils.createRow("externalID,firstName", "ext-2,Jill"));
+
+        prefetcher.prefetch(Command.LOAD, EntityInfo.CANDIDATE, rows);
+
+        verify(restApiMock, never()).searchForList(any(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testPrefetchNoExistFields() throws IOException {
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Lists.newArrayList());
+        List<Row> rows = Lists.newArrayList(TestUtils.createRow("externalID,firstName", "ext-1,Jack"),
+            TestUtils.createRow("externalID,firstName", "ext-2,Jill"));
+
+        prefetcher.prefetch(Command.LOAD, EntityInfo.CANDIDATE, rows);
+
+        verify(restApiMock, never()).searchForList(any(), anyString(), any(), any());
+    }
+
+    @Test
+    public void testPrefetchError() throws IOException {
+        when(restApiMock.searchForList(eq(Candidate.class), any(), any(), any())).thenThrow(new RestApiException("Flaky API Error"));
+        List<Row> rows = Lists.newArrayList(TestUtils.createRow("externalID,firstName", "ext-1,Jack"),
+            TestUtils.createRow("externalID,firstName", "ext-2,Jill"));
+
+        prefetcher.prefetch(Command.LOAD, EntityInfo.CANDIDATE, rows);
+
+        verify(printUtilMock, times(1)).log(Level.WARN, "Failed to prefetch Candidate records: Flaky API Error");
+        Assert.assertNull(cache.getEntry(EntityInfo.CANDIDATE, getFields(EntityInfo.CANDIDATE, "externalID", "ext-1"),
+            Sets.newHashSet("id", "externalID")));
+    }
+
+    private List<Field> getFields(EntityInfo entityInfo, String name, String value) {
+        return Lists.newArrayList(new Field(entityInfo, new Cell(name, value), true,
+            propertyFileUtilMock.getDateParser()));
+    }
+}
@@ -102,5 +102,7 @@ public class RecordTest {
         Record record = new Record(EntityInfo.CANDIDATE, row, propertyFileUtilMock);
 
         Assert.assertEquals(expected, record.getFieldsParameter());
+        expected.remove("primarySkills(id)");
+        Assert.assertEquals(expected, record.getFieldsParameter(false));
     }
 }
@@ -1,6 +1,7 @@
 package com.bullhorn.dataloader.rest;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -15,6 +16,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.Assert;
@@ -22,6 +26,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.bullhorn.dataloader.TestUtils;
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.util.CallRateLimiter;
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhornsdk.data.api.StandardBullhornData;
@@ -34,17 +41,29 @@ import com.bullhornsdk.data.model.entity.core.standard.JobOrder;
 import com.bullhornsdk.data.model.entity.core.standard.JobSubmissionHistory;
 import com.bullhornsdk.data.model.entity.core.standard.Lead;
 import com.bullhornsdk.data.model.entity.core.standard.Opportunity;
+import com.bullhornsdk.data.model.entity.core.standard.Skill;
+import com.bullhornsdk.data.model.entity.embedded.OneToMany;
 import com.bullhornsdk.data.model.enums.MetaParameter;
 import com.bullhornsdk.data.model.file.FileMeta;
 import com.bullhornsdk.data.model.file.standard.StandardFileMeta;
+import com.bullhornsdk.data.exception.RestApiException;
+import com.bullhornsdk.data.model.parameter.AssociationParams;
+import com.bullhornsdk.data.model.parameter.QueryParams;
+import com.bullhornsdk.data.model.parameter.SearchParams;
 import com.bullhornsdk.data.model.parameter.standard.ParamFactory;
 import com.bullhornsdk.data.model.response.crud.AbstractCrudResponse;
 import com.bullhornsdk.data.model.response.crud.CrudResponse;
+import com.bullhornsdk.data.model.response.list.ListWrapper;
+import com.bullhornsdk.data.model.response.list.StandardListWrapper;
 import com.google.common.collect.Sets;
 
 public class RestApiTest {
     private StandardBullhornData bullhornDataMock;
     private RestApiExtension restApiExtensionMock;
+    private ConcurrencyLimiter concurrencyLimiterMock;
+    private CallRateLimiter callRateLimiterMock;
+    private CallRetrier callRetrier;
+    private PropertyFileUtil propertyFileUtilMock;
     private PrintUtil printUtilMock;
     private RestApi restApi;
 
@@ -52,9 +71,13 @@ public class RestApiTest {
     public void setup() {
         bullhornDataMock = mock(StandardBullhornData.class);
         restApiExtensionMock = mock(RestApiExtension.class);
-        PropertyFileUtil propertyFileUtilMock = mock(PropertyFileUtil.class);
+        concurrencyLimiterMock = mock(ConcurrencyLimiter.class);
+        callRateLimiterMock = mock(CallRateLimiter.class);
+        propertyFileUtilMock = mock(PropertyFileUtil.class);
         printUtilMock = mock(PrintUtil.class);
-        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, propertyFileUtilMock, printUtilMock);
+        callRetrier = new CallRetrier(2, 0, printUtilMock);
+        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            callRetrier, propertyFileUtilMock, printUtilMock);
 
         when(bullhornDataMock.associateWithEntity(any(), any(), any(), any())).thenReturn(
             new AbstractCrudResponse(), new AbstractCrudResponse(), new AbstractCrudResponse(), new AbstractCrudResponse());
@@ -295,6 +318,124 @@ public class RestApiTest {
         Assert.assertEquals(20000, list.size());
     }
 
+    @Test
+    public void testSearchForListParallelPages() {
+        when(propertyFileUtilMock.getPageFetchThreads()).thenReturn(4);
+        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            callRetrier, propertyFileUtilMock, printUtilMock);
+        when(bullhornDataMock.search(eq(ClientContact.class), any(), any(), any())).thenAnswer(invocation -> {
+            SearchParams params = invocation.getArgument(3);
+            return getPage(params.getStart(), 1600);
+        });
+
+        List<ClientContact> list = restApi.searchForList(ClientContact.class, "name='Data Loader'", null, ParamFactory.searchParams());
+
+        verify(bullhornDataMock, times(4)).search(eq(ClientContact.class), eq("name='Data Loader'"), eq(Sets.newHashSet("id")), any());
+        verify(printUtilMock, times(1)).log(any(), eq("--> Follow On Find(500 - 1000)"));
+        verify(printUtilMock, times(1)).log(any(), eq("--> Follow On Find(1500 - 1600)"));
+        Assert.assertEquals(1600, list.size());
+        for (int i = 0; i < list.size(); ++i) {
+            Assert.assertEquals(Integer.valueOf(i + 1), list.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testQueryForListParallelPagesMaximumReturnSize() {
+        when(propertyFileUtilMock.getPageFetchThreads()).thenReturn(4);
+        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            callRetrier, propertyFileUtilMock, printUtilMock);
+        when(bullhornDataMock.query(eq(ClientContact.class), any(), any(), any())).thenAnswer(invocation -> {
+            QueryParams params = invocation.getArgument(3);
+            return getPage(params.getStart(), 25000);
+        });
+
+        List<ClientContact> list = restApi.queryForList(ClientContact.class, "name='Data Loader'", null, ParamFactory.queryParams());
+
+        verify(bullhornDataMock, times(40)).query(eq(ClientContact.class), eq("name='Data Loader'"), eq(Sets.newHashSet("id")), any());
+        verify(printUtilMock, never()).log(any(), eq("--> Follow On Find(20000 - 20500)"));
+        Assert.assertEquals(20000, list.size());
+        Assert.assertEquals(Integer.valueOf(20000), list.get(19999).getId());
+    }
+
+    @Test(expected = RestApiException.class)
+    public void testSearchForListParallelPagesError() {
+        when(propertyFileUtilMock.getPageFetchThreads()).thenReturn(4);
+        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            callRetrier, propertyFileUtilMock, printUtilMock);
+        when(bullhornDataMock.search(eq(ClientContact.class), any(), any(), any())).thenAnswer(invocation -> {
+            SearchParams params = invocation.getArgument(3);
+            if (params.getStart() != null && params.getStart() == 1000) {
+                throw new RestApiException("Flaky API Error");
+            }
+            return getPage(params.getStart(), 1600);
+        });
+
+        restApi.searchForList(ClientContact.class, "name='Data Loader'", null, ParamFactory.searchParams());
+    }
+
+    @Test
+    public void testSearchForStreamPullsPagesAsNeeded() {
+        when(bullhornDataMock.search(eq(ClientContact.class), any(), any(), any())).thenAnswer(invocation -> {
+            SearchParams params = invocation.getArgument(3);
+            return getPage(params.getStart(), 1600);
+        });
+
+        List<ClientContact> list = restApi.searchForStream(ClientContact.class, "name='Data Loader'", null, ParamFactory.searchParams())
+            .limit(600).collect(Collectors.toList());
+
+        verify(bullhornDataMock, times(2)).search(eq(ClientContact.class), eq("name='Data Loader'"), eq(Sets.newHashSet("id")), any());
+        verify(printUtilMock, times(1)).log(any(), eq("Find(ClientContact Search Stream): name='Data Loader', fields: [id]"));
+        Assert.assertEquals(600, list.size());
+        Assert.assertEquals(Integer.valueOf(600), list.get(599).getId());
+    }
+
+    @Test
+    public void testQueryForStreamPrefetchesPages() {
+        when(propertyFileUtilMock.getPageFetchThreads()).thenReturn(4);
+        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            callRetrier, propertyFileUtilMock, printUtilMock);
+        when(bullhornDataMock.query(eq(ClientContact.class), any(), any(), any())).thenAnswer(invocation -> {
+            QueryParams params = invocation.getArgument(3);
+            return getPage(params.getStart(), 25000);
+        });
+
+        List<Integer> ids = restApi.queryForStream(ClientContact.class, "name='Data Loader'", null, ParamFactory.queryParams())
+            .map(ClientContact::getId).collect(Collectors.toList());
+
+        verify(bullhornDataMock, times(40)).query(eq(ClientContact.class), eq("name='Data Loader'"), eq(Sets.newHashSet("id")), any());
+        Assert.assertEquals(20000, ids.size());
+        for (int i = 0; i < ids.size(); ++i) {
+            Assert.assertEquals(Integer.valueOf(i + 1), ids.get(i));
+        }
+    }
+
+    @Test
+    public void testGetAllAssociationsStream() throws InstantiationException, IllegalAccessException {
+        Set<Integer> entityIDs = Sets.newHashSet(1);
+        Set<String> fields = Sets.newHashSet("id");
+        AssociationParams params = ParamFactory.associationParams();
+        List<Skill> fullPage = TestUtils.getList(Skill.class, IntStream.rangeClosed(1, 500).toArray());
+        when(bullhornDataMock.getAssociation(eq(Candidate.class), eq(entityIDs), eq(CandidateAssociations.getInstance().primarySkills()),
+            eq(fields), eq(params))).thenReturn(fullPage, TestUtils.getList(Skill.class, 501));
+
+        List<Skill> skills = restApi.getAllAssociationsStream(Candidate.class, entityIDs, CandidateAssociations.getInstance().primarySkills(),
+            fields, params).collect(Collectors.toList());
+
+        verify(bullhornDataMock, times(2)).getAssociation(eq(Candidate.class), eq(entityIDs),
+            eq(CandidateAssociations.getInstance().primarySkills()), eq(fields), eq(params));
+        Assert.assertEquals(501, skills.size());
+        Assert.assertEquals(Integer.valueOf(501), skills.get(500).getId());
+    }
+
+    /**
+     * Returns the page of up to 500 records that begins at the given start, with ids numbered from one.
+     */
+    private ListWrapper<ClientContact> getPage(Integer start, Integer total) throws InstantiationException, IllegalAccessException {
+        int pageStart = start == null ? 0 : start;
+        int pageEnd = Math.min(pageStart + 500, total);
+        return TestUtils.getListWrapper(ClientContact.class, pageStart, total, IntStream.rangeClosed(pageStart + 1, pageEnd).toArray());
+    }
+
     @Test
     public void testInsertEntity() {
         Candidate candidate = new Candidate();
@@ -304,6 +445,107 @@ public class RestApiTest {
         verify(bullhornDataMock, times(1)).insertEntity(eq(candidate));
         verify(restApiExtensionMock, times(1)).checkForRestSdkErrorMessages(eq(crudResponse));
         verify(printUtilMock, times(1)).log(any(), eq("Insert(Candidate)"));
+        verify(concurrencyLimiterMock, times(1)).recordResponse(anyLong(), eq(200));
+        verify(callRateLimiterMock, times(1)).acquireWrite();
+        verify(callRateLimiterMock, never()).acquireRead();
+    }
+
+    @Test
+    public void testInsertEntityThrottled() {
+        CrudResponse throttledResponse = new AbstractCrudResponse();
+        throttledResponse.setErrorCode("429 TOO_MANY_REQUESTS");
+        when(bullhornDataMock.insertEntity(any())).thenReturn(throttledResponse);
+
+        restApi.insertEntity(new Candidate());
+
+        verify(concurrencyLimiterMock, times(3)).recordResponse(anyLong(), eq(429));
+    }
+
+    @Test
+    public void testInsertEntityRetriedWhenThrottled() {
+        CrudResponse throttledResponse = new AbstractCrudResponse();
+        throttledResponse.setErrorCode("429");
+        CrudResponse successResponse = new AbstractCrudResponse();
+        when(bullhornDataMock.insertEntity(any())).thenReturn(throttledResponse, successResponse);
+
+        CrudResponse crudResponse = restApi.insertEntity(new Candidate());
+
+        Assert.assertEquals(successResponse, crudResponse);
+        verify(bullhornDataMock, times(2)).insertEntity(any());
+        verify(callRateLimiterMock, times(2)).acquireWrite();
+        Assert.assertEquals(Integer.valueOf(1), callRetrier.getRetries(ErrorInfo.API_THROTTLED));
+    }
+
+    @Test
+    public void testInsertEntityNotRetriedAfterServerError() {
+        CrudResponse serverErrorResponse = new AbstractCrudResponse();
+        serverErrorResponse.setErrorCode("500");
+        when(bullhornDataMock.insertEntity(any())).thenReturn(serverErrorResponse);
+
+        CrudResponse crudResponse = restApi.insertEntity(new Candidate());
+
+        Assert.assertEquals(serverErrorResponse, crudResponse);
+        verify(bullhornDataMock, times(1)).insertEntity(any());
+    }
+
+    @Test
+    public void testAssociateWithEntityNotRetriedAfterServerError() {
+        AssociationField categoriesAssociationField = AssociationFactory.candidateAssociations().getAssociation("categories");
+        CrudResponse serverErrorResponse = new AbstractCrudResponse();
+        serverErrorResponse.setErrorCode("500");
+        when(bullhornDataMock.associateWithEntity(any(), any(), any(), any())).thenReturn(serverErrorResponse);
+        when(bullhornDataMock.disassociateWithEntity(any(), any(), any(), any())).thenReturn(serverErrorResponse);
+
+        restApi.associateWithEntity(Candidate.class, 1, categoriesAssociationField, Arrays.asList(1, 2));
+        restApi.disassociateWithEntity(Candidate.class, 1, categoriesAssociationField, Arrays.asList(3, 4));
+
+        verify(bullhornDataMock, times(1)).associateWithEntity(any(), any(), any(), any());
+        verify(bullhornDataMock, times(1)).disassociateWithEntity(any(), any(), any(), any());
+        Assert.assertEquals(0, callRetrier.getRetries());
+    }
+
+    @Test
+    public void testUpdateEntityRetriedAfterServerError() {
+        CrudResponse serverErrorResponse = new AbstractCrudResponse();
+        serverErrorResponse.setErrorCode("500");
+        when(bullhornDataMock.updateEntity(any())).thenReturn(serverErrorResponse);
+
+        CrudResponse crudResponse = restApi.updateEntity(new Candidate(123));
+
+        Assert.assertEquals(serverErrorResponse, crudResponse);
+        verify(bullhornDataMock, times(3)).updateEntity(any());
+        Assert.assertEquals(Integer.valueOf(2), callRetrier.getRetries(ErrorInfo.INTERNAL_SERVER_ERROR));
+    }
+
+    @Test
+    public void testQueryForListRetriedAfterConnectionError() throws InstantiationException, IllegalAccessException {
+        ListWrapper<ClientContact> listWrapper = TestUtils.getListWrapper(ClientContact.class, 0, 1, 1);
+        when(bullhornDataMock.query(eq(ClientContact.class), any(), any(), any()))
+            .thenThrow(new RestApiException("Error getting ClientContact url variables {}"))
+            .thenReturn(listWrapper);
+
+        List<ClientContact> list = restApi.queryForList(ClientContact.class, "id=1", null, ParamFactory.queryParams());
+
+        Assert.assertEquals(1, list.size());
+        verify(callRateLimiterMock, times(2)).acquireRead();
+        Assert.assertEquals(Integer.valueOf(1), callRetrier.getRetries(ErrorInfo.CONNECTION_TIMEOUT));
+    }
+
+    @Test
+    public void testUpdateEntityServerError() {
+        RestApiException serverError = new RestApiException("Error posting data. Http status code: 503. Response body: ");
+        when(bullhornDataMock.updateEntity(any())).thenThrow(serverError);
+
+        RestApiException actualException = null;
+        try {
+            restApi.updateEntity(new Candidate(123));
+        } catch (RestApiException e) {
+            actualException = e;
+        }
+
+        Assert.assertEquals(serverError, actualException);
+        verify(bullhornDataMock, times(3)).updateEntity(any());
+        verify(concurrencyLimiterMock, times(3)).recordResponse(anyLong(), eq(503));
     }
 
     @Test
@@ -337,6 +579,80 @@ public class RestApiTest {
         verify(bullhornDataMock, times(1)).getAllAssociations(eq(Candidate.class),
             eq(entityIDs), eq(CandidateAssociations.getInstance().primarySkills()), eq(fields), any());
         verify(printUtilMock, times(1)).log(any(), eq("FindAssociations(Candidate): #[1, 2, 3] - primarySkills, fields: [id, name]"));
+        verify(callRateLimiterMock, times(1)).acquireRead();
+        verify(callRateLimiterMock, never()).acquireWrite();
+    }
+
+    @Test
+    public void testGetAllAssociationsListSingleEntity() {
+        restApi.getAllAssociationsList(Candidate.class, Sets.newHashSet(1), CandidateAssociations.getInstance().primarySkills(),
+            Sets.newHashSet("id"), ParamFactory.associationParams());
+
+        verify(bullhornDataMock, times(1)).getAllAssociations(eq(Candidate.class),
+            eq(Sets.newHashSet(1)), eq(CandidateAssociations.getInstance().primarySkills()), eq(Sets.newHashSet("id")), any());
+        verify(bullhornDataMock, never()).findMultipleEntity(any(), any(), any());
+    }
+
+    @Test
+    public void testGetAssociationsOfEntities() {
+        Candidate complete = new Candidate(1);
+        complete.setPrimarySkills(new OneToMany<>(TestUtils.createSkill(11, "Java"), TestUtils.createSkill(12, "SQL")));
+        complete.getPrimarySkills().setTotal(2);
+        Candidate truncated = new Candidate(2);
+        truncated.setPrimarySkills(new OneToMany<>(TestUtils.createSkill(21, "Go")));
+        truncated.getPrimarySkills().setTotal(7);
+        Candidate empty = new Candidate(3);
+        empty.setPrimarySkills(new OneToMany<>());
+        empty.getPrimarySkills().setTotal(0);
+        ListWrapper<Candidate> listWrapper = new StandardListWrapper<>(Arrays.asList(complete, truncated, empty));
+        when(bullhornDataMock.findMultipleEntity(eq(Candidate.class), any(), any())).thenReturn(listWrapper);
+
+        Map<Integer, List<Skill>> associationsMap = restApi.getAssociationsOfEntities(Candidate.class,
+            Sets.newHashSet(1, 2, 3), CandidateAssociations.getInstance().primarySkills(), Sets.newHashSet("id"));
+
+        verify(bullhornDataMock, times(1)).findMultipleEntity(eq(Candidate.class), eq(Sets.newHashSet(1, 2, 3)),
+            eq(Sets.newHashSet("id", "primarySkills(id)")));
+        verify(printUtilMock, times(1)).log(any(), eq("FindAssociations(Candidate Batch): #[1, 2, 3] - primarySkills, fields: [id]"));
+        verify(callRateLimiterMock, times(1)).acquireRead();
+        Assert.assertEquals(Sets.newHashSet(1, 3), associationsMap.keySet());
+        Assert.assertEquals(Arrays.asList(11, 12), associationsMap.get(1).stream().map(Skill::getId).collect(Collectors.toList()));
+        Assert.assertTrue(associationsMap.get(3).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAssociateAndDisassociateChunksInParallel() throws InterruptedException {
+        when(propertyFileUtilMock.getPageFetchThreads()).thenReturn(4);
+        restApi = new RestApi(bullhornDataMock, restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            callRetrier, propertyFileUtilMock, printUtilMock);
+        AssociationField categoriesAssociationField = AssociationFactory.candidateAssociations().getAssociation("categories");
+        List<Integer> idList = IntStream.rangeClosed(1, 1200).boxed().collect(Collectors.toList());
+        CountDownLatch allChunksStarted = new CountDownLatch(3);
+        when(bullhornDataMock.associateWithEntity(any(), any(), any(), any())).thenAnswer(invocation -> {
+            allChunksStarted.countDown();
+            Assert.assertTrue(allChunksStarted.await(5, TimeUnit.SECONDS));
+            return new AbstractCrudResponse();
+        });
+        when(bullhornDataMock.disassociateWithEntity(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Set<Integer> ids = invocation.getArgument(3);
+            if (ids.contains(1)) {
+                throw new RestApiException("Disassociate failed");
+            }
+            return new AbstractCrudResponse();
+        });
+
+        List<CrudResponse> crudResponses = restApi.associateWithEntity(Candidate.class, 1, categoriesAssociationField, idList);
+
+        // All three chunks must be in flight at the same time for the latch to open
+        Assert.assertEquals(3, crudResponses.size());
+        verify(bullhornDataMock, times(1)).associateWithEntity(eq(Candidate.class), eq(1), eq(categoriesAssociationField),
+            eq(new HashSet<>(idList.subList(1000, 1200))));
+        try {
+            restApi.disassociateWithEntity(Candidate.class, 1, categoriesAssociationField, idList);
+            Assert.fail("Expected exception");
+        } catch (RestApiException e) {
+            Assert.assertEquals("Disassociate failed", e.getMessage());
+        }
     }
 
     @Test
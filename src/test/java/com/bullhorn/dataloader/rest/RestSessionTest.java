@@ -9,6 +9,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.bullhorn.dataloader.util.CallRateLimiter;
+import com.bullhorn.dataloader.util.ConcurrencyLimiter;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhornsdk.data.exception.RestApiException;
@@ -17,6 +19,8 @@ public class RestSessionTest {
 
     private RestApi restApiMock;
     private RestApiExtension restApiExtensionMock;
+    private ConcurrencyLimiter concurrencyLimiterMock;
+    private CallRateLimiter callRateLimiterMock;
     private PropertyFileUtil propertyFileUtilMock;
     private PrintUtil printUtilMock;
 
@@ -24,6 +28,8 @@ public class RestSessionTest {
     public void setup() {
         restApiMock = mock(RestApi.class);
         restApiExtensionMock = mock(RestApiExtension.class);
+        concurrencyLimiterMock = mock(ConcurrencyLimiter.class);
+        callRateLimiterMock = mock(CallRateLimiter.class);
         propertyFileUtilMock = mock(PropertyFileUtil.class);
         printUtilMock = mock(PrintUtil.class);
     }
@@ -33,7 +39,8 @@ public class RestSessionTest {
         RestApiException expectedException = new RestApiException("Failed to create rest session");
         RestApiException actualException = null;
 
-        RestSession restSession = new RestSession(restApiExtensionMock, propertyFileUtilMock, printUtilMock);
+        RestSession restSession = new RestSession(restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            mock(CallRetrier.class), mock(HttpTransport.class), propertyFileUtilMock, printUtilMock);
         try {
             restSession.getRestApi();
         } catch (RestApiException e) {
@@ -46,7 +53,8 @@ public class RestSessionTest {
 
     @Test
     public void testConnectExistingSession() throws NoSuchFieldException, IllegalAccessException {
-        RestSession restSession = new RestSession(restApiExtensionMock, propertyFileUtilMock, printUtilMock);
+        RestSession restSession = new RestSession(restApiExtensionMock, concurrencyLimiterMock, callRateLimiterMock,
+            mock(CallRetrier.class), mock(HttpTransport.class), propertyFileUtilMock, printUtilMock);
         Field privateField = restSession.getClass().getDeclaredField("restApi");
         privateField.setAccessible(true);
         privateField.set(restSession, restApiMock);
@@ -0,0 +1,178 @@
+package com.bullhorn.dataloader.service;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.TestUtils;
+import com.bullhorn.dataloader.data.ActionTotals;
+import com.bullhorn.dataloader.data.CsvFileWriter;
+import com.bullhorn.dataloader.data.Result;
+import com.bullhorn.dataloader.enums.Command;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.rest.CompleteUtil;
+import com.bullhorn.dataloader.util.DataLoaderException;
+import com.bullhorn.dataloader.util.PrintUtil;
+import com.bullhorn.dataloader.util.PropertyFileUtil;
+
+public class DirectoryLoadSchedulerTest {
+
+    private CompleteUtil completeUtilMock;
+    private PrintUtil printUtilMock;
+    private ProcessRunner processRunnerMock;
+    private DirectoryLoadScheduler directoryLoadScheduler;
+    private SortedMap<EntityInfo, List<String>> entityToFileListMap;
+    private List<String> events;
+
+    @Before
+    public void setup() {
+        completeUtilMock = mock(CompleteUtil.class);
+        printUtilMock = mock(PrintUtil.class);
+        processRunnerMock = mock(ProcessRunner.class);
+        PropertyFileUtil propertyFileUtilMock = mock(PropertyFileUtil.class);
+        when(propertyFileUtilMock.getNumParallelFiles()).thenReturn(2);
+        when(propertyFileUtilMock.getWaitSecondsBetweenFilesInDirectory()).thenReturn(0);
+        when(processRunnerMock.createExecutorService()).thenReturn(Executors.newFixedThreadPool(2));
+        directoryLoadScheduler = new DirectoryLoadScheduler(printUtilMock, propertyFileUtilMock, completeUtilMock,
+            processRunnerMock);
+
+        entityToFileListMap = new TreeMap<>(EntityInfo.loadOrderComparator);
+        entityToFileListMap.put(EntityInfo.BRANCH, Arrays.asList("Branch_1.csv", "Branch_2.csv"));
+        entityToFileListMap.put(EntityInfo.GENERAL_LEDGER_ACCOUNT, Collections.singletonList("GeneralLedgerAccount.csv"));
+        entityToFileListMap.put(EntityInfo.CLIENT_CORPORATION, Collections.singletonList("ClientCorporation.csv"));
+        events = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    public void testGetPrerequisites() {
+        HashSet<EntityInfo> scheduledEntities = new HashSet<>(Arrays.asList(EntityInfo.BRANCH,
+            EntityInfo.GENERAL_LEDGER_ACCOUNT));
+
+        Assert.assertEquals(Collections.singleton(EntityInfo.BRANCH),
+            DirectoryLoadScheduler.getPrerequisites(EntityInfo.CLIENT_CORPORATION, scheduledEntities));
+        Assert.assertEquals(Collections.emptySet(), DirectoryLoadScheduler.getPrerequisites(
+            EntityInfo.GENERAL_LEDGER_ACCOUNT, Collections.singleton(EntityInfo.BRANCH)));
+    }
+
+    @Test
+    public void testIndependentFilesLoadTogetherAndDependentFilesLoadAfter() throws IOException, InterruptedException {
+        // The first Branch file and the GeneralLedgerAccount file can only both finish if they are loaded at the same time
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(processRunnerMock.run(eq(Command.LOAD), any(), any(), any())).then(invocation -> {
+            String fileName = invocation.getArgument(2);
+            events.add("start " + fileName);
+            if (fileName.equals("Branch_1.csv") || fileName.equals("GeneralLedgerAccount.csv")) {
+                bothStarted.countDown();
+                events.add((bothStarted.await(5, TimeUnit.SECONDS) ? "together " : "alone ") + fileName);
+            }
+            events.add("end " + fileName);
+            return new ActionTotals();
+        });
+
+        directoryLoadScheduler.run(entityToFileListMap);
+
+        Assert.assertTrue(events.contains("together Branch_1.csv"));
+        Assert.assertTrue(events.contains("together GeneralLedgerAccount.csv"));
+        Assert.assertTrue(events.indexOf("end Branch_1.csv") < events.indexOf("start Branch_2.csv"));
+        Assert.assertTrue(events.indexOf("end Branch_2.csv") < events.indexOf("start ClientCorporation.csv"));
+        verify(completeUtilMock, times(4)).complete(eq(Command.LOAD), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    public void testFilesLoadedTogetherWriteTheirOwnResultsFiles() throws IOException, InterruptedException {
+        entityToFileListMap.clear();
+        entityToFileListMap.put(EntityInfo.BRANCH, Collections.singletonList("path/to/BranchTogether.csv"));
+        entityToFileListMap.put(EntityInfo.GENERAL_LEDGER_ACCOUNT,
+            Collections.singletonList("path/to/GeneralLedgerAccountTogether.csv"));
+
+        // Both results writers are created before either one writes a row, as when both files start at once
+        CountDownLatch bothCreated = new CountDownLatch(2);
+        when(processRunnerMock.run(eq(Command.LOAD), any(), any(), any())).then(invocation -> {
+            EntityInfo entityInfo = invocation.getArgument(1);
+            String fileName = invocation.getArgument(2);
+            CsvFileWriter csvFileWriter = new CsvFileWriter(Command.LOAD, fileName, new String[]{"name"}, false);
+            bothCreated.countDown();
+            Assert.assertTrue(bothCreated.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 3; ++i) {
+                csvFileWriter.writeRow(TestUtils.createRow("name", entityInfo.getEntityName() + " " + i), Result.insert(i));
+            }
+            csvFileWriter.close();
+            return new ActionTotals();
+        });
+
+        directoryLoadScheduler.run(entityToFileListMap);
+
+        for (EntityInfo entityInfo : entityToFileListMap.keySet()) {
+            File successFile = new File(CsvFileWriter.getResultsFilePath(entityToFileListMap.get(entityInfo).get(0),
+                Command.LOAD, Result.Status.SUCCESS));
+            Assert.assertEquals(Arrays.asList("id,dataloader_action,name",
+                "1,INSERT," + entityInfo.getEntityName() + " 1",
+                "2,INSERT," + entityInfo.getEntityName() + " 2",
+                "3,INSERT," + entityInfo.getEntityName() + " 3"),
+                FileUtils.readLines(successFile, StandardCharsets.UTF_8));
+            successFile.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testFailureSkipsDependentFiles() throws IOException, InterruptedException {
+        DataLoaderException exception = new DataLoaderException(ErrorInfo.MISSING_PROPERTIES_FILE, "Load failed");
+        when(processRunnerMock.run(eq(Command.LOAD), any(), any(), any())).then(invocation -> {
+            if (invocation.getArgument(1) == EntityInfo.BRANCH) {
+                throw exception;
+            }
+            return new ActionTotals();
+        });
+
+        try {
+            directoryLoadScheduler.run(entityToFileListMap);
+            Assert.fail("Expected exception");
+        } catch (DataLoaderException e) {
+            Assert.assertSame(exception, e);
+        }
+
+        verify(processRunnerMock, times(1)).run(eq(Command.LOAD), eq(EntityInfo.BRANCH), any(), any());
+        verify(processRunnerMock, times(1)).run(eq(Command.LOAD), eq(EntityInfo.GENERAL_LEDGER_ACCOUNT), any(), any());
+        verify(processRunnerMock, never()).run(eq(Command.LOAD), eq(EntityInfo.CLIENT_CORPORATION), any(), any());
+        verify(completeUtilMock, times(1)).complete(eq(Command.LOAD), eq("GeneralLedgerAccount.csv"),
+            eq(EntityInfo.GENERAL_LEDGER_ACCOUNT), any(), anyLong());
+    }
+
+    @Test
+    public void testSharedThreadPoolIsShutDown() throws IOException, InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(1);
+        when(processRunnerMock.createExecutorService()).thenReturn(executorService);
+        when(processRunnerMock.run(eq(Command.LOAD), any(), any(), eq(executorService))).thenReturn(new ActionTotals());
+
+        directoryLoadScheduler.run(entityToFileListMap);
+
+        Assert.assertTrue(executorService.isTerminated());
+        verify(processRunnerMock, times(4)).run(eq(Command.LOAD), any(), any(), eq(executorService));
+    }
+}
@@ -1,6 +1,7 @@
 package com.bullhorn.dataloader.service;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
@@ -13,6 +14,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
@@ -130,6 +132,21 @@ public class LoadServiceTest {
         verify(printUtilMock, times(1)).printAndLog("   4. CandidateWorkHistory records from CandidateWorkHistory.csv");
     }
 
+    @Test
+    public void testRunDirectoryFourFilesInParallel() throws IOException, InterruptedException {
+        final String filePath = TestUtils.getResourceFilePath("loadFromDirectory");
+        final String[] testArgs = {Command.LOAD.getMethodName(), filePath};
+        doReturn(2).when(propertyFileUtilMock).getNumParallelFiles();
+        doReturn(actionTotalsMock).when(processRunnerMock).run(any(), any(), any(), any());
+        doReturn(Executors.newFixedThreadPool(1)).when(processRunnerMock).createExecutorService();
+
+        loadService.run(testArgs);
+
+        verify(processRunnerMock, never()).run(any(), any(), any());
+        verify(processRunnerMock, times(4)).run(eq(Command.LOAD), any(), any(), any());
+        verify(completeUtilMock, times(4)).complete(eq(Command.LOAD), any(), any(), eq(actionTotalsMock), anyLong());
+    }
+
     @Test
     public void testRunDirectoryFourFilesContinueNo() throws IOException, InterruptedException {
         inputStreamFake = IOUtils.toInputStream("No", StandardCharsets.UTF_8);
@@ -5,14 +5,20 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.startsWith;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.Level;
 import org.joda.time.format.DateTimeFormat;
 import org.junit.Assert;
 import org.junit.Before;
@@ -21,10 +27,20 @@ import org.mockito.ArgumentCaptor;
 
 import com.bullhorn.dataloader.TestUtils;
 import com.bullhorn.dataloader.data.ActionTotals;
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.data.CheckpointJournal;
+import com.bullhorn.dataloader.data.DeltaIndex;
+import com.bullhorn.dataloader.data.Result;
+import com.bullhorn.dataloader.data.Row;
 import com.bullhorn.dataloader.enums.Command;
 import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.enums.ErrorInfo;
+import com.bullhorn.dataloader.rest.AssociationPreloader;
 import com.bullhorn.dataloader.rest.Cache;
+import com.bullhorn.dataloader.rest.CallRetrier;
 import com.bullhorn.dataloader.rest.CompleteUtil;
+import com.bullhorn.dataloader.rest.HttpTransport;
+import com.bullhorn.dataloader.rest.Prefetcher;
 import com.bullhorn.dataloader.rest.Preloader;
 import com.bullhorn.dataloader.rest.RestApi;
 import com.bullhorn.dataloader.rest.RestSession;
@@ -35,6 +51,7 @@ import com.bullhorn.dataloader.task.DeleteTask;
 import com.bullhorn.dataloader.task.ExportTask;
 import com.bullhorn.dataloader.task.LoadAttachmentTask;
 import com.bullhorn.dataloader.task.LoadTask;
+import com.bullhorn.dataloader.util.DataLoaderException;
 import com.bullhorn.dataloader.util.PrintUtil;
 import com.bullhorn.dataloader.util.PropertyFileUtil;
 import com.bullhorn.dataloader.util.StringConsts;
@@ -46,6 +63,9 @@ public class ProcessRunnerTest {
     private ExecutorService executorServiceMock;
     private PropertyFileUtil propertyFileUtilMock;
     private PrintUtil printUtilMock;
+    private Cache cacheMock;
+    private Prefetcher prefetcherMock;
+    private AssociationPreloader associationPreloaderMock;
     private ProcessRunner processRunner;
     private final String idExistFieldWarning = "WARNING: The 'id' column is not being used for "
         + "duplicate checking. The id value will be ignored.";
@@ -56,14 +76,17 @@ public class ProcessRunnerTest {
         RestSession restSessionMock = mock(RestSession.class);
         executorServiceMock = mock(ExecutorService.class);
         Preloader preloaderMock = mock(Preloader.class);
+        prefetcherMock = mock(Prefetcher.class);
+        associationPreloaderMock = mock(AssociationPreloader.class);
         propertyFileUtilMock = mock(PropertyFileUtil.class);
         printUtilMock = mock(PrintUtil.class);
-        Cache cacheMock = mock(Cache.class);
+        cacheMock = mock(Cache.class);
         CompleteUtil completeUtilMock = mock(CompleteUtil.class);
         ThreadPoolUtil threadPoolUtilMock = mock(ThreadPoolUtil.class);
 
-        processRunner = new ProcessRunner(restSessionMock, preloaderMock, printUtilMock, propertyFileUtilMock,
-            threadPoolUtilMock, cacheMock, completeUtilMock);
+        processRunner = new ProcessRunner(restSessionMock, preloaderMock, prefetcherMock, associationPreloaderMock,
+            printUtilMock, propertyFileUtilMock, threadPoolUtilMock, cacheMock, mock(CallRetrier.class),
+            mock(HttpTransport.class), completeUtilMock);
 
         when(restSessionMock.getRestApi()).thenReturn(restApiMock);
         when(threadPoolUtilMock.getExecutorService()).thenReturn(executorServiceMock);
@@ -93,6 +116,7 @@ public class ProcessRunnerTest {
     public void testRunDelete() throws IOException, InterruptedException {
         String filePath = TestUtils.getResourceFilePath("Candidate.csv");
         ArgumentCaptor taskCaptor = ArgumentCaptor.forClass(AbstractTask.class);
+        new DeltaIndex(filePath, EntityInfo.CANDIDATE, Lists.newArrayList("email"), "null@null").save();
 
         ActionTotals actualTotals = processRunner.run(Command.DELETE, EntityInfo.CANDIDATE, filePath);
 
@@ -100,8 +124,10 @@ public class ProcessRunnerTest {
         verify(executorServiceMock, times(1)).shutdown();
         verify(executorServiceMock).execute((Runnable) taskCaptor.capture());
         verify(printUtilMock, times(1)).printActionTotals(eq(Command.DELETE), eq(actualTotals));
+        verify(associationPreloaderMock, never()).preload(any(), any());
         AbstractTask actualTask = (AbstractTask) taskCaptor.getValue();
         Assert.assertEquals(actualTask.getClass(), DeleteTask.class);
+        Assert.assertFalse(new File(DeltaIndex.getDeltaFilePath(filePath)).exists());
     }
 
     @Test
@@ -147,6 +173,7 @@ public class ProcessRunnerTest {
         verify(printUtilMock, times(1)).printActionTotals(eq(Command.EXPORT), eq(actualTotals));
         AbstractTask actualTask = (AbstractTask) taskCaptor.getValue();
         Assert.assertEquals(actualTask.getClass(), ExportTask.class);
+        Assert.assertFalse(new File(CheckpointJournal.getJournalFilePath(filePath, Command.EXPORT)).exists());
     }
 
     @Test
@@ -162,10 +189,101 @@ public class ProcessRunnerTest {
         verify(executorServiceMock).execute((Runnable) taskCaptor.capture());
         verify(printUtilMock, times(1)).printActionTotals(eq(Command.LOAD), eq(actualTotals));
         verify(printUtilMock, never()).printAndLog(eq(idExistFieldWarning));
+        verify(cacheMock, never()).printStatistics(any());
+        verify(prefetcherMock, times(1)).prefetch(eq(Command.LOAD), eq(EntityInfo.CANDIDATE), any());
+        verify(associationPreloaderMock, times(1)).preload(eq(EntityInfo.CANDIDATE), eq(filePath));
+        verify(printUtilMock, times(1)).log(eq(Level.INFO), startsWith("Reader: 1 rows"));
+        verify(printUtilMock, times(1)).log(eq(Level.INFO), startsWith("Converter: 1 rows"));
         AbstractTask actualTask = (AbstractTask) taskCaptor.getValue();
         Assert.assertEquals(actualTask.getClass(), LoadTask.class);
     }
 
+    @Test(timeout = 10000)
+    public void testRunLoadInvalidRow() throws IOException, InterruptedException {
+        String filePath = TestUtils.getResourceFilePath("ClientCorporation_MissingHeader.csv");
+
+        DataLoaderException actualException = null;
+        try {
+            processRunner.run(Command.LOAD, EntityInfo.CLIENT_CORPORATION, filePath);
+        } catch (DataLoaderException e) {
+            actualException = e;
+        }
+
+        Assert.assertNotNull(actualException);
+        Assert.assertEquals(ErrorInfo.INVALID_NUMBER_OF_COLUMNS, actualException.getErrorInfo());
+        Assert.assertEquals("Row 1: Header column count 2 does not match row column count 3", actualException.getMessage());
+        verify(executorServiceMock, never()).execute(any());
+    }
+
+    @Test
+    public void testRunLoadSharedExecutorService() throws IOException, InterruptedException {
+        String filePath = TestUtils.getResourceFilePath("Candidate.csv");
+        ExecutorService sharedExecutorService = Executors.newSingleThreadExecutor();
+
+        ActionTotals actualTotals = processRunner.run(Command.LOAD, EntityInfo.CANDIDATE, filePath, sharedExecutorService);
+
+        Assert.assertEquals(1, (int) actualTotals.getAllActionsTotal());
+        Assert.assertFalse(sharedExecutorService.isShutdown());
+        verify(executorServiceMock, never()).execute(any());
+        verify(executorServiceMock, never()).shutdown();
+        verify(printUtilMock, times(1)).printActionTotals(eq(Command.LOAD), eq(actualTotals));
+        sharedExecutorService.shutdown();
+    }
+
+    @Test
+    public void testRunLoadResumeSkipsCompletedRows() throws IOException, InterruptedException {
+        String filePath = TestUtils.getResourceFilePath("Candidate.csv");
+        File journalFile = new File(CheckpointJournal.getJournalFilePath(filePath, Command.LOAD));
+        FileUtils.writeStringToFile(journalFile, "1,INSERT,1001\n", StandardCharsets.UTF_8);
+        when(propertyFileUtilMock.getResume()).thenReturn(true);
+
+        ActionTotals actualTotals = processRunner.run(Command.LOAD, EntityInfo.CANDIDATE, filePath);
+
+        verify(executorServiceMock, never()).execute(any());
+        verify(prefetcherMock, never()).prefetch(any(), any(), any());
+        verify(printUtilMock, times(1)).printAndLog("Resuming: skipping 1 rows that were completed by an earlier run...");
+        Assert.assertEquals(0, (int) actualTotals.getAllActionsTotal());
+        Assert.assertEquals("1,INSERT,1001\n", FileUtils.readFileToString(journalFile, StandardCharsets.UTF_8));
+        journalFile.deleteOnExit();
+    }
+
+    @Test
+    public void testRunLoadDeltaSkipsUnchangedRows() throws IOException, InterruptedException {
+        String filePath = TestUtils.getResourceFilePath("Candidate.csv");
+        File deltaFile = new File(DeltaIndex.getDeltaFilePath(filePath));
+        when(propertyFileUtilMock.getDeltaLoad()).thenReturn(true);
+        when(propertyFileUtilMock.getEntityExistFields(any())).thenReturn(Lists.newArrayList("email"));
+        Row row = new Row(filePath, 1);
+        row.addCell(new Cell("id", "1"));
+        row.addCell(new Cell("firstName", "John"));
+        row.addCell(new Cell("lastName", "Smith"));
+        row.addCell(new Cell("email", "j.smith@example.com"));
+        DeltaIndex previousDeltaIndex = new DeltaIndex(filePath, EntityInfo.CANDIDATE, Lists.newArrayList("email"), "null@null");
+        previousDeltaIndex.record(row, Result.insert(1001));
+        previousDeltaIndex.save();
+
+        ActionTotals actualTotals = processRunner.run(Command.LOAD, EntityInfo.CANDIDATE, filePath);
+
+        verify(executorServiceMock, never()).execute(any());
+        verify(prefetcherMock, never()).prefetch(any(), any(), any());
+        Assert.assertEquals(1, actualTotals.getActionTotal(Result.Action.UNCHANGED));
+        DeltaIndex deltaIndex = new DeltaIndex(filePath, EntityInfo.CANDIDATE, Lists.newArrayList("email"), "null@null");
+        Assert.assertEquals(1, deltaIndex.getPreviousRowCount());
+        Assert.assertEquals(Integer.valueOf(1001), deltaIndex.getUnchangedId(row));
+        deltaFile.deleteOnExit();
+    }
+
+    @Test
+    public void testRunLoadCacheStatistics() throws IOException, InterruptedException {
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        String filePath = TestUtils.getResourceFilePath("Candidate.csv");
+
+        ActionTotals actualTotals = processRunner.run(Command.LOAD, EntityInfo.CANDIDATE, filePath);
+
+        verify(printUtilMock, times(1)).printActionTotals(eq(Command.LOAD), eq(actualTotals));
+        verify(cacheMock, times(1)).printStatistics(eq(printUtilMock));
+    }
+
     @Test
     public void testRunLoadIdColumnWarning() throws IOException, InterruptedException {
         String filePath = TestUtils.getResourceFilePath("Candidate.csv");
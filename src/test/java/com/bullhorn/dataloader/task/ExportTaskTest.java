@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -106,9 +107,9 @@ public class ExportTaskTest {
             TestUtils.createSkill(1005, "skill_5")));
         when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"ext-1001\""), any(), any()))
             .thenReturn(TestUtils.getList(fakeCandidate));
-        when(restApiMock.getAllAssociationsList(eq(Candidate.class), any(),
+        when(restApiMock.getAllAssociationsStream(eq(Candidate.class), any(),
             eq(CandidateAssociations.getInstance().primarySkills()), any(), any()))
-            .thenReturn(TestUtils.getList(
+            .thenReturn(Stream.of(
                 TestUtils.createSkill(1001, "skill_1"),
                 TestUtils.createSkill(1002, "skill_2"),
                 TestUtils.createSkill(1003, "skill_3"),
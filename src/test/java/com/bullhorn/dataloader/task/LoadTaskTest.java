@@ -12,6 +12,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.joda.time.format.DateTimeFormat;
@@ -30,6 +33,7 @@ import com.bullhorn.dataloader.enums.EntityInfo;
 import com.bullhorn.dataloader.enums.ErrorInfo;
 import com.bullhorn.dataloader.rest.Cache;
 import com.bullhorn.dataloader.rest.CompleteUtil;
+import com.bullhorn.dataloader.rest.Field;
 import com.bullhorn.dataloader.rest.RestApi;
 import com.bullhorn.dataloader.util.DataLoaderException;
 import com.bullhorn.dataloader.util.PrintUtil;
@@ -54,6 +58,7 @@ import com.bullhornsdk.data.model.entity.core.standard.Opportunity;
 import com.bullhornsdk.data.model.entity.core.standard.Person;
 import com.bullhornsdk.data.model.entity.core.standard.Placement;
 import com.bullhornsdk.data.model.entity.core.standard.Skill;
+import com.bullhornsdk.data.model.entity.core.type.BullhornEntity;
 import com.bullhornsdk.data.model.entity.embedded.OneToMany;
 import com.bullhornsdk.data.model.enums.ChangeType;
 import com.google.common.collect.Lists;
@@ -530,6 +535,86 @@ public class LoadTaskTest {
         TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.SKIP, 1);
     }
 
+    @Test
+    public void testRunUpdateUnchangedOnlyUpdateChangedFields() throws Exception {
+        Row row = TestUtils.createRow("externalID,customDate1,firstName,lastName,owner.id",
+            "11,2016-08-30,Data,Loader,1");
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(propertyFileUtilMock.getOnlyUpdateChangedFields()).thenReturn(true);
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"11\""),
+            eq(Sets.newHashSet("id", "externalID", "customDate1", "firstName", "lastName", "owner(id)")), any()))
+            .thenReturn(Lists.newArrayList(createCurrentCandidate("Loader")));
+        when(restApiMock.updateEntity(any())).thenThrow(new RestApiException("This update should have been skipped!"));
+        when(restApiMock.queryForList(any(), any(), any(), any()))
+            .thenThrow(new RestApiException("This lookup should have been skipped!"));
+
+        LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
+            propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
+        task.run();
+
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.upToDate(1)));
+        TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.UP_TO_DATE, 1);
+    }
+
+    @Test
+    public void testRunUpdateChangedFieldsOnly() throws Exception {
+        Row row = TestUtils.createRow("externalID,customDate1,firstName,lastName,owner.id",
+            "11,2016-08-30,Data,Loader,1");
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(propertyFileUtilMock.getOnlyUpdateChangedFields()).thenReturn(true);
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"11\""), any(), any()))
+            .thenReturn(Lists.newArrayList(createCurrentCandidate("Lodaer")));
+        when(restApiMock.updateEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.UPDATE, 1));
+
+        LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
+            propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
+        task.run();
+
+        ArgumentCaptor<Candidate> candidateArgumentCaptor = ArgumentCaptor.forClass(Candidate.class);
+        verify(restApiMock).updateEntity(candidateArgumentCaptor.capture());
+        Candidate actualCandidate = candidateArgumentCaptor.getValue();
+        Assert.assertEquals(Integer.valueOf(1), actualCandidate.getId());
+        Assert.assertEquals("Loader", actualCandidate.getLastName());
+        Assert.assertNull(actualCandidate.getFirstName());
+        Assert.assertNull(actualCandidate.getCustomDate1());
+        Assert.assertNull(actualCandidate.getOwner());
+        verify(restApiMock, never()).queryForList(eq(CorporateUser.class), any(), any(), any());
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.update(1)));
+        TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.UPDATE, 1);
+    }
+
+    @Test
+    public void testRunSameRecordTwiceOnlyUpdateChangedFields() throws Exception {
+        Row insertRow = TestUtils.createRow("externalID,firstName,lastName", "ext-1,Data,Loader");
+        Row updateRow = TestUtils.createRow("externalID,firstName,lastName", "ext-1,Data,Lodaer");
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(propertyFileUtilMock.getOnlyUpdateChangedFields()).thenReturn(true);
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"ext-1\""), any(), any()))
+            .thenReturn(TestUtils.getList(Candidate.class));
+        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 1));
+        when(restApiMock.updateEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.UPDATE, 1));
+        Cache cache = new Cache(propertyFileUtilMock);
+
+        for (Row row : Arrays.asList(insertRow, updateRow, updateRow)) {
+            LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
+                propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cache, completeUtilMock);
+            task.run();
+        }
+
+        verify(restApiMock, times(1)).searchForList(any(), any(), any(), any());
+        verify(restApiMock, times(1)).insertEntity(any());
+        ArgumentCaptor<Candidate> candidateArgumentCaptor = ArgumentCaptor.forClass(Candidate.class);
+        verify(restApiMock, times(1)).updateEntity(candidateArgumentCaptor.capture());
+        Candidate actualCandidate = candidateArgumentCaptor.getValue();
+        Assert.assertEquals(Integer.valueOf(1), actualCandidate.getId());
+        Assert.assertEquals("Lodaer", actualCandidate.getLastName());
+        Assert.assertNull(actualCandidate.getFirstName());
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(1)));
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.update(1)));
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.upToDate(1)));
+    }
+
     @Test
     public void testRunUpdateSuccessForNote() throws Exception {
         Row row = TestUtils.createRow(
@@ -877,7 +962,10 @@ public class LoadTaskTest {
         String[] headerArray = new String[]{"externalID", "primarySkills.id"};
         String[] valueArray = new String[]{"11", ""};
         Row row = TestUtils.createRow(headerArray, valueArray);
-        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 1));
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"11\""), any(), any()))
+            .thenReturn(TestUtils.getList(Candidate.class, 1));
+        when(restApiMock.updateEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.UPDATE, 1));
         when(restApiMock.getAllAssociationsList(eq(Candidate.class), any(),
             eq(CandidateAssociations.getInstance().primarySkills()), any(), any()))
             .thenReturn(TestUtils.getList(Skill.class, 1, 2, 3));
@@ -891,8 +979,8 @@ public class LoadTaskTest {
         verify(restApiMock, times(1)).disassociateWithEntity(eq(Candidate.class),
             eq(1), eq(CandidateAssociations.getInstance().primarySkills()), eq(Arrays.asList(1, 2, 3)));
 
-        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(1)));
-        TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.INSERT, 1);
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.update(1)));
+        TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.UPDATE, 1);
     }
 
     @Test
@@ -1023,7 +1111,10 @@ public class LoadTaskTest {
     @Test
     public void testRunAssociationAlreadyExists() throws Exception {
         Row row = TestUtils.createRow("externalID,primarySkills.id", "ext-1,1;2;3");
-        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 100));
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"ext-1\""), any(), any()))
+            .thenReturn(TestUtils.getList(Candidate.class, 100));
+        when(restApiMock.updateEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.UPDATE, 100));
         when(restApiMock.queryForList(eq(Skill.class), any(), any(), any())).
             thenReturn(TestUtils.getList(Skill.class, 1, 2, 3));
         when(restApiMock.getAllAssociationsList(eq(Candidate.class), any(),
@@ -1041,7 +1132,10 @@ public class LoadTaskTest {
     @Test
     public void testRunAssociationMultipleAlreadyExist() throws Exception {
         Row row = TestUtils.createRow("externalID,primarySkills.id", "ext-1,1;2;3");
-        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 100));
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"ext-1\""), any(), any()))
+            .thenReturn(TestUtils.getList(Candidate.class, 100));
+        when(restApiMock.updateEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.UPDATE, 100));
         when(restApiMock.queryForList(eq(Skill.class), any(), any(), any())).
             thenReturn(TestUtils.getList(Skill.class, 1, 2, 3));
         when(restApiMock.getAllAssociationsList(eq(Candidate.class), any(),
@@ -1057,10 +1151,34 @@ public class LoadTaskTest {
         verify(restApiMock, never()).disassociateWithEntity(any(), any(), any(), any());
     }
 
+    @Test
+    public void testRunInsertPrepopulatesAssociations() throws Exception {
+        Row row = TestUtils.createRow("externalID,categories.id", "ext-1,1;2");
+        when(restApiMock.queryForList(eq(Category.class), any(), any(), any()))
+            .thenReturn(TestUtils.getList(Category.class, 1, 2));
+        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 100));
+
+        LoadTask task = new LoadTask(EntityInfo.CLIENT_CONTACT, row, csvFileWriterMock, propertyFileUtilMock,
+            restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
+        task.run();
+
+        ArgumentCaptor<ClientContact> entityArgumentCaptor = ArgumentCaptor.forClass(ClientContact.class);
+        verify(restApiMock).insertEntity(entityArgumentCaptor.capture());
+        ClientContact actualClientContact = entityArgumentCaptor.getValue();
+        Assert.assertEquals(Arrays.asList(1, 2), actualClientContact.getCategories().getData().stream()
+            .map(Category::getId).collect(Collectors.toList()));
+        verify(restApiMock, never()).getAllAssociationsList(any(), any(), any(), any(), any());
+        verify(restApiMock, never()).associateWithEntity(any(), any(), any(), any());
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(100)));
+    }
+
     @Test
     public void testRunAssociateAndDisassociate() throws Exception {
         Row row = TestUtils.createRow("externalID,primarySkills.id", "ext-1,3;4");
-        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 100));
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Collections.singletonList("externalID"));
+        when(restApiMock.searchForList(eq(Candidate.class), eq("externalID:\"ext-1\""), any(), any()))
+            .thenReturn(TestUtils.getList(Candidate.class, 100));
+        when(restApiMock.updateEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.UPDATE, 100));
         when(restApiMock.queryForList(eq(Skill.class), any(), any(), any())).
             thenReturn(TestUtils.getList(Skill.class, 3, 4));
         when(restApiMock.getAllAssociationsList(eq(Candidate.class), any(),
@@ -1336,9 +1454,6 @@ public class LoadTaskTest {
         when(propertyFileUtilMock.getWildcardMatching()).thenReturn(true);
         when(restApiMock.queryForList(eq(Skill.class), any(), any(), any())).thenReturn(TestUtils.getList
             (Skill.class, 1, 2, 3, 4, 5, 6));
-        when(restApiMock.getAllAssociationsList(eq(Candidate.class), any(),
-            eq(CandidateAssociations.getInstance().primarySkills()), any(), any()))
-            .thenReturn(TestUtils.getList(Skill.class, 1, 2));
         when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 100));
 
         LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
@@ -1349,7 +1464,9 @@ public class LoadTaskTest {
         verify(restApiMock, times(1)).queryForList(eq(Skill.class), eq(expectedQuery),
             any(), any());
         verify(restApiMock, times(1)).associateWithEntity(eq(Candidate.class),
-            eq(100), eq(CandidateAssociations.getInstance().primarySkills()), eq(Arrays.asList(3, 4, 5, 6)));
+            eq(100), eq(CandidateAssociations.getInstance().primarySkills()), eq(Arrays.asList(1, 2, 3, 4, 5, 6)));
+        // A new record has no existing associations to look up
+        verify(restApiMock, never()).getAllAssociationsList(any(), any(), any(), any(), any());
         verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(100)));
         TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.INSERT, 1);
     }
@@ -1489,7 +1606,8 @@ public class LoadTaskTest {
 
         verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(1)));
         TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.INSERT, 1);
-        verify(completeUtilMock, times(1)).rowComplete(eq(row), eq(Result.insert(1)), eq(actionTotalsMock));
+        verify(completeUtilMock, times(1)).rowComplete(eq(row), eq(Result.insert(1)), eq(actionTotalsMock),
+            eq(csvFileWriterMock));
     }
 
     @Test
@@ -1499,6 +1617,8 @@ public class LoadTaskTest {
         when(propertyFileUtilMock.getCaching()).thenReturn(true);
         when(restApiMock.queryForList(eq(Skill.class), any(), any(), any()))
             .thenReturn(TestUtils.getList(TestUtils.createSkill(1001, "Java")));
+        when(cacheMock.loadEntry(any(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<List<BullhornEntity>>>getArgument(3).get());
 
         LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
             propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
@@ -1507,6 +1627,7 @@ public class LoadTaskTest {
         verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(1)));
         TestUtils.verifyActionTotals(actionTotalsMock, Result.Action.INSERT, 1);
         verify(cacheMock, times(1)).getEntry(eq(EntityInfo.SKILL), any(), eq(Sets.newHashSet("id", "name")));
+        verify(cacheMock, times(1)).loadEntry(eq(EntityInfo.SKILL), any(), eq(Sets.newHashSet("id", "name")), any());
     }
 
     @Test
@@ -1544,6 +1665,75 @@ public class LoadTaskTest {
         verify(cacheMock, never()).getEntry(any(), any(), any());
     }
 
+    @Test
+    public void testRunCacheInsertedEntity() throws Exception {
+        Row row = TestUtils.createRow("externalID,firstName,lastName", "ext-1,Data,Loader");
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Lists.newArrayList("externalID"));
+        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 1));
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        when(propertyFileUtilMock.getWildcardMatching()).thenReturn(false);
+
+        LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
+            propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
+        task.run();
+
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(1)));
+        ArgumentCaptor<List<Field>> existFieldsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<BullhornEntity>> entitiesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(cacheMock, times(1)).setEntry(eq(EntityInfo.CANDIDATE), existFieldsCaptor.capture(),
+            eq(Sets.newHashSet("id", "externalID")), entitiesCaptor.capture());
+        verify(cacheMock, times(1)).setEntry(eq(EntityInfo.CANDIDATE), existFieldsCaptor.capture(),
+            eq(Sets.newHashSet("id", "externalID", "isDeleted")), entitiesCaptor.capture());
+        List<List<Field>> actualExistFields = existFieldsCaptor.getAllValues();
+        Assert.assertEquals("externalID", actualExistFields.get(0).stream().map(Field::getName).collect(Collectors.joining(",")));
+        Assert.assertEquals("externalID,isDeleted", actualExistFields.get(1).stream().map(Field::getName).collect(Collectors.joining(",")));
+        for (List<BullhornEntity> actualEntities : entitiesCaptor.getAllValues()) {
+            Assert.assertEquals(1, actualEntities.size());
+            Candidate actualCandidate = (Candidate) actualEntities.get(0);
+            Assert.assertEquals(Integer.valueOf(1), actualCandidate.getId());
+            Assert.assertEquals("ext-1", actualCandidate.getExternalID());
+            Assert.assertNull(actualCandidate.getFirstName());
+        }
+    }
+
+    @Test
+    public void testRunCacheUpdatedEntityMultipleExistFields() throws Exception {
+        Row row = TestUtils.createRow("firstName,lastName,email", "Data,Loader,dloader@bullhorn.com");
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.CANDIDATE)).thenReturn(Lists.newArrayList("firstName", "lastName", "email"));
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        when(propertyFileUtilMock.getWildcardMatching()).thenReturn(false);
+        when(cacheMock.getEntry(eq(EntityInfo.CANDIDATE), any(), any())).thenReturn(TestUtils.getConcreteList(Candidate.class, 1));
+
+        LoadTask task = new LoadTask(EntityInfo.CANDIDATE, row, csvFileWriterMock,
+            propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
+        task.run();
+
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.update(1)));
+        verify(cacheMock, times(1)).setEntry(eq(EntityInfo.CANDIDATE), any(),
+            eq(Sets.newHashSet("id", "firstName", "lastName", "email")), any());
+    }
+
+    @Test
+    public void testRunCacheEntityWithAssociationExistField() throws Exception {
+        Row row = TestUtils.createRow("person.customText1,text1", "ext-1,Text");
+        when(propertyFileUtilMock.getEntityExistFields(EntityInfo.PERSON_CUSTOM_OBJECT_INSTANCE_2))
+            .thenReturn(Lists.newArrayList("person.customText1"));
+        when(restApiMock.insertEntity(any())).thenReturn(TestUtils.getResponse(ChangeType.INSERT, 1));
+        when(restApiMock.queryForList(eq(Person.class), any(), any(), any()))
+            .thenReturn(TestUtils.getList(TestUtils.createPerson(1, "Candidate", false)));
+        when(propertyFileUtilMock.getCaching()).thenReturn(true);
+        when(propertyFileUtilMock.getWildcardMatching()).thenReturn(false);
+        when(cacheMock.loadEntry(any(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<List<BullhornEntity>>>getArgument(3).get());
+
+        LoadTask task = new LoadTask(EntityInfo.PERSON_CUSTOM_OBJECT_INSTANCE_2, row, csvFileWriterMock,
+            propertyFileUtilMock, restApiMock, printUtilMock, actionTotalsMock, cacheMock, completeUtilMock);
+        task.run();
+
+        verify(csvFileWriterMock, times(1)).writeRow(any(), eq(Result.insert(1)));
+        verify(cacheMock, never()).setEntry(any(), any(), any(), any());
+    }
+
     @Test
     public void testRunInternetConnectivityIssues() throws Exception {
         Row row = TestUtils.createRow("firstName,lastName,email", "Data,Loader,data@example.com");
@@ -1559,4 +1749,14 @@ public class LoadTaskTest {
             internetConnectivityIssueException.getMessage()));
         verify(csvFileWriterMock, times(1)).writeRow(any(), eq(expectedResult));
     }
+
+    private Candidate createCurrentCandidate(String lastName) {
+        Candidate candidate = new Candidate(1);
+        candidate.setExternalID("11");
+        candidate.setCustomDate1(DateTimeFormat.forPattern("yyyy-MM-dd").parseDateTime("2016-08-30"));
+        candidate.setFirstName("Data");
+        candidate.setLastName(lastName);
+        candidate.setOwner(new CorporateUser(1));
+        return candidate;
+    }
 }
@@ -0,0 +1,59 @@
+package com.bullhorn.dataloader.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AssociationDiffTest {
+
+    @Test
+    public void testAddAndRemove() {
+        AssociationDiff associationDiff = new AssociationDiff(Arrays.asList(5, 3, 4), Arrays.asList(1, 3, 2));
+
+        Assert.assertEquals(Arrays.asList(5, 4), associationDiff.getAddIds());
+        Assert.assertEquals(Arrays.asList(1, 2), associationDiff.getRemoveIds());
+    }
+
+    @Test
+    public void testNoChanges() {
+        AssociationDiff associationDiff = new AssociationDiff(Arrays.asList(1, 2, 3), Arrays.asList(3, 2, 1));
+
+        Assert.assertTrue(associationDiff.getAddIds().isEmpty());
+        Assert.assertTrue(associationDiff.getRemoveIds().isEmpty());
+    }
+
+    @Test
+    public void testEmpty() {
+        AssociationDiff associationDiff = new AssociationDiff(Collections.emptyList(), Arrays.asList(1, 2));
+        Assert.assertTrue(associationDiff.getAddIds().isEmpty());
+        Assert.assertEquals(Arrays.asList(1, 2), associationDiff.getRemoveIds());
+
+        associationDiff = new AssociationDiff(Arrays.asList(1, 2), Collections.emptyList());
+        Assert.assertEquals(Arrays.asList(1, 2), associationDiff.getAddIds());
+        Assert.assertTrue(associationDiff.getRemoveIds().isEmpty());
+    }
+
+    @Test
+    public void testDuplicateExistingIds() {
+        AssociationDiff associationDiff = new AssociationDiff(Arrays.asList(1, 4), Arrays.asList(1, 1, 2, 2));
+
+        Assert.assertEquals(Collections.singletonList(4), associationDiff.getAddIds());
+        Assert.assertEquals(Arrays.asList(2, 2), associationDiff.getRemoveIds());
+    }
+
+    @Test
+    public void testLargeSets() {
+        List<Integer> newIds = IntStream.range(50000, 150000).boxed().collect(Collectors.toList());
+        List<Integer> existingIds = IntStream.range(0, 100000).boxed().collect(Collectors.toList());
+
+        AssociationDiff associationDiff = new AssociationDiff(newIds, existingIds);
+
+        Assert.assertEquals(IntStream.range(100000, 150000).boxed().collect(Collectors.toList()), associationDiff.getAddIds());
+        Assert.assertEquals(IntStream.range(0, 50000).boxed().collect(Collectors.toList()), associationDiff.getRemoveIds());
+    }
+}
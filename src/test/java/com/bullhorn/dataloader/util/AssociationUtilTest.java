@@ -1,6 +1,7 @@
 package com.bullhorn.dataloader.util;
 
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -108,4 +109,44 @@ public class AssociationUtilTest {
         Cell cell = new Cell("name.first", "bill");
         AssociationUtil.getFieldEntity(EntityInfo.CANDIDATE, cell);
     }
+
+    @Test
+    public void testGetReferencedEntitiesToOne() {
+        Set<EntityInfo> referencedEntities = AssociationUtil.getReferencedEntities(EntityInfo.CLIENT_CONTACT);
+
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.CLIENT_CORPORATION));
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.CORPORATE_USER));
+        Assert.assertFalse(referencedEntities.contains(EntityInfo.CLIENT_CONTACT));
+    }
+
+    @Test
+    public void testGetReferencedEntitiesToMany() {
+        Set<EntityInfo> referencedEntities = AssociationUtil.getReferencedEntities(EntityInfo.NOTE);
+
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.CANDIDATE));
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.CLIENT_CONTACT));
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.LEAD));
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.JOB_ORDER));
+        Assert.assertTrue(referencedEntities.contains(EntityInfo.PLACEMENT));
+        Assert.assertFalse(referencedEntities.contains(EntityInfo.PERSON));
+    }
+
+    @Test
+    public void testGetReferencedEntitiesNone() {
+        Set<EntityInfo> referencedEntities = AssociationUtil.getReferencedEntities(EntityInfo.BUSINESS_SECTOR);
+
+        Assert.assertTrue(referencedEntities.isEmpty());
+    }
+
+    @Test
+    public void testIsSentOnInsert() {
+        Assert.assertTrue(AssociationUtil.isSentOnInsert(EntityInfo.CLIENT_CONTACT,
+            AssociationUtil.getToManyField(EntityInfo.CLIENT_CONTACT, "categories")));
+        Assert.assertTrue(AssociationUtil.isSentOnInsert(EntityInfo.NOTE,
+            AssociationUtil.getToManyField(EntityInfo.NOTE, "candidates")));
+        Assert.assertFalse(AssociationUtil.isSentOnInsert(EntityInfo.CANDIDATE,
+            AssociationUtil.getToManyField(EntityInfo.CANDIDATE, "primarySkills")));
+        Assert.assertFalse(AssociationUtil.isSentOnInsert(EntityInfo.JOB_ORDER,
+            AssociationUtil.getToManyField(EntityInfo.JOB_ORDER, "categories")));
+    }
 }
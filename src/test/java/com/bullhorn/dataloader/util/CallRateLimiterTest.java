@@ -0,0 +1,62 @@
+package com.bullhorn.dataloader.util;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CallRateLimiterTest {
+
+    private PropertyFileUtil propertyFileUtilMock;
+
+    @Before
+    public void setup() {
+        propertyFileUtilMock = mock(PropertyFileUtil.class);
+        when(propertyFileUtilMock.getReadCallsPerSecond()).thenReturn(0);
+        when(propertyFileUtilMock.getWriteCallsPerSecond()).thenReturn(0);
+    }
+
+    @Test
+    public void testUnlimited() {
+        CallRateLimiter callRateLimiter = new CallRateLimiter(propertyFileUtilMock);
+
+        long elapsedMillis = timeCalls(callRateLimiter::acquireRead, 100) + timeCalls(callRateLimiter::acquireWrite, 100);
+
+        Assert.assertTrue(elapsedMillis < 200);
+    }
+
+    @Test
+    public void testSpacesCallsEvenly() {
+        when(propertyFileUtilMock.getWriteCallsPerSecond()).thenReturn(20);
+        CallRateLimiter callRateLimiter = new CallRateLimiter(propertyFileUtilMock);
+
+        // The first call is allowed right away, and each call after that waits 50 ms for its turn
+        long elapsedMillis = timeCalls(callRateLimiter::acquireWrite, 11);
+
+        Assert.assertTrue("Took " + elapsedMillis + " ms", elapsedMillis >= 450);
+    }
+
+    @Test
+    public void testSeparateBudgets() {
+        when(propertyFileUtilMock.getWriteCallsPerSecond()).thenReturn(1);
+        CallRateLimiter callRateLimiter = new CallRateLimiter(propertyFileUtilMock);
+        callRateLimiter.acquireWrite();
+
+        // Reads are not held up by the write budget being used up
+        long elapsedMillis = timeCalls(callRateLimiter::acquireRead, 100);
+
+        Assert.assertTrue(elapsedMillis < 200);
+    }
+
+    private long timeCalls(Runnable acquire, int calls) {
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < calls; ++i) {
+            acquire.run();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,129 @@
+package com.bullhorn.dataloader.util;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long TEN_MILLIS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private PropertyFileUtil propertyFileUtilMock;
+    private PrintUtil printUtilMock;
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Before
+    public void setup() {
+        propertyFileUtilMock = mock(PropertyFileUtil.class);
+        printUtilMock = mock(PrintUtil.class);
+        when(propertyFileUtilMock.getAdaptiveConcurrency()).thenReturn(true);
+        when(propertyFileUtilMock.getNumThreads()).thenReturn(10);
+        concurrencyLimiter = new ConcurrencyLimiter(propertyFileUtilMock, printUtilMock);
+    }
+
+    @Test
+    public void testIncreasesWhileSteady() {
+        recordWindow(TEN_MILLIS, 200);
+        Assert.assertEquals(Integer.valueOf(11), concurrencyLimiter.getLimit());
+
+        recordWindow(TEN_MILLIS, 200);
+        Assert.assertEquals(Integer.valueOf(12), concurrencyLimiter.getLimit());
+        verify(printUtilMock).log(Level.INFO, "Concurrency limit changed from 11 to 12: average latency of 10 ms is steady");
+    }
+
+    @Test
+    public void testStopsIncreasingAtMaximum() {
+        for (int i = 0; i < 10; ++i) {
+            recordWindow(TEN_MILLIS, 200);
+        }
+
+        Assert.assertEquals(PropertyValidationUtil.MAX_NUM_THREADS, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void testBacksOffWhenThrottled() {
+        for (int i = 0; i < ConcurrencyLimiter.WINDOW_SIZE - 3; ++i) {
+            concurrencyLimiter.recordResponse(TEN_MILLIS, 200);
+        }
+        for (int i = 0; i < 3; ++i) {
+            concurrencyLimiter.recordResponse(TEN_MILLIS, 429);
+        }
+
+        Assert.assertEquals(Integer.valueOf(7), concurrencyLimiter.getLimit());
+        verify(printUtilMock).log(Level.INFO, "Concurrency limit changed from 10 to 7: 3 throttled (HTTP 429) responses");
+    }
+
+    @Test
+    public void testBacksOffOnServerErrors() {
+        recordWindow(TEN_MILLIS, 503);
+
+        Assert.assertEquals(Integer.valueOf(7), concurrencyLimiter.getLimit());
+        verify(printUtilMock).log(eq(Level.INFO), startsWith("Concurrency limit changed from 10 to 7: 20 server error"));
+    }
+
+    @Test
+    public void testBacksOffWhenLatencyRises() {
+        recordWindow(TEN_MILLIS, 200);
+        recordWindow(TEN_MILLIS * 3, 200);
+
+        Assert.assertEquals(Integer.valueOf(9), concurrencyLimiter.getLimit());
+        verify(printUtilMock).log(Level.INFO, "Concurrency limit changed from 11 to 9: "
+            + "average latency of 30 ms is more than double the baseline of 10 ms");
+    }
+
+    @Test
+    public void testNeverBelowOne() {
+        for (int i = 0; i < 20; ++i) {
+            recordWindow(TEN_MILLIS, 429);
+        }
+
+        Assert.assertEquals(Integer.valueOf(1), concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void testDisabled() {
+        when(propertyFileUtilMock.getAdaptiveConcurrency()).thenReturn(false);
+        concurrencyLimiter = new ConcurrencyLimiter(propertyFileUtilMock, printUtilMock);
+
+        recordWindow(TEN_MILLIS, 429);
+
+        Assert.assertFalse(concurrencyLimiter.isEnabled());
+        Assert.assertEquals(Integer.valueOf(10), concurrencyLimiter.getLimit());
+        verify(printUtilMock, never()).log(any(), any(String.class));
+    }
+
+    @Test
+    public void testResizesThreadPool() {
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(10, 10, 10, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1));
+        concurrencyLimiter.setThreadPoolExecutor(threadPoolExecutor);
+
+        recordWindow(TEN_MILLIS, 200);
+        Assert.assertEquals(11, threadPoolExecutor.getCorePoolSize());
+        Assert.assertEquals(11, threadPoolExecutor.getMaximumPoolSize());
+
+        recordWindow(TEN_MILLIS, 429);
+        Assert.assertEquals(8, threadPoolExecutor.getCorePoolSize());
+        Assert.assertEquals(8, threadPoolExecutor.getMaximumPoolSize());
+        threadPoolExecutor.shutdown();
+    }
+
+    private void recordWindow(long latencyNanos, int statusCode) {
+        for (int i = 0; i < ConcurrencyLimiter.WINDOW_SIZE; ++i) {
+            concurrencyLimiter.recordResponse(latencyNanos, statusCode);
+        }
+    }
+}
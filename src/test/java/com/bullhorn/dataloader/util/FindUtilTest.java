@@ -1,10 +1,19 @@
 package com.bullhorn.dataloader.util;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
 import java.util.Set;
 
+import org.joda.time.format.DateTimeFormat;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.bullhorn.dataloader.data.Cell;
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhorn.dataloader.rest.Field;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 public class FindUtilTest {
@@ -64,6 +73,39 @@ public class FindUtilTest {
         Assert.assertEquals("", externalIdValue);
     }
 
+    @Test
+    public void testGetExternalIdSearchValueGroupFailure() {
+        String externalIdValue = FindUtil.getExternalIdSearchValue(
+            "(externalID:\"ext 1\" OR externalID:\"ext 2\")");
+        Assert.assertEquals("", externalIdValue);
+    }
+
+    @Test
+    public void testGetLuceneSearchForAnyValue() {
+        PropertyFileUtil propertyFileUtilMock = mock(PropertyFileUtil.class);
+        List<Field> fields = Lists.newArrayList(
+            new Field(EntityInfo.CANDIDATE, new Cell("externalID", "ext-1"), true, DateTimeFormat.forPattern("yyyy-MM-dd")),
+            new Field(EntityInfo.CANDIDATE, new Cell("externalID", "ext-2"), true, DateTimeFormat.forPattern("yyyy-MM-dd")));
+
+        String searchString = FindUtil.getLuceneSearchForAnyValue(fields, propertyFileUtilMock, true);
+
+        Assert.assertEquals("(externalID:\"ext-1\" OR externalID:\"ext-2\")", searchString);
+    }
+
+    @Test
+    public void testGetSqlQueryForAnyValue() {
+        PropertyFileUtil propertyFileUtilMock = mock(PropertyFileUtil.class);
+        when(propertyFileUtilMock.getWildcardMatching()).thenReturn(false);
+        List<Field> fields = Lists.newArrayList(
+            new Field(EntityInfo.PLACEMENT, new Cell("id", "1"), true, DateTimeFormat.forPattern("yyyy-MM-dd")),
+            new Field(EntityInfo.PLACEMENT, new Cell("id", "2"), true, DateTimeFormat.forPattern("yyyy-MM-dd")),
+            new Field(EntityInfo.PLACEMENT, new Cell("id", "3"), true, DateTimeFormat.forPattern("yyyy-MM-dd")));
+
+        String where = FindUtil.getSqlQueryForAnyValue(fields, propertyFileUtilMock, true);
+
+        Assert.assertEquals("(id=1 OR id=2 OR id=3)", where);
+    }
+
     @Test
     public void testGetCorrectedFieldSet() {
         Set<String> correctedFieldSet = FindUtil.getCorrectedFieldSet(Sets.newHashSet("id", "firstName", "lastName"));
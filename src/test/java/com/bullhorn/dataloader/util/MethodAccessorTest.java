@@ -0,0 +1,60 @@
+package com.bullhorn.dataloader.util;
+
+import java.lang.reflect.Method;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.bullhorn.dataloader.enums.EntityInfo;
+import com.bullhornsdk.data.model.entity.core.standard.Candidate;
+import com.bullhornsdk.data.model.entity.core.standard.ClientCorporation;
+import com.bullhornsdk.data.model.entity.core.standard.JobOrder;
+
+public class MethodAccessorTest {
+
+    @Test
+    public void testGetterAndSetter() throws Exception {
+        MethodAccessor getter = MethodAccessor.of(MethodUtil.getGetterMethod(EntityInfo.CANDIDATE, "firstName"));
+        MethodAccessor setter = MethodAccessor.of(MethodUtil.getSetterMethod(EntityInfo.CANDIDATE, "firstName"));
+        Candidate candidate = new Candidate();
+
+        setter.set(candidate, "Jack");
+
+        Assert.assertTrue(getter.isGenerated());
+        Assert.assertTrue(setter.isGenerated());
+        Assert.assertEquals("Jack", candidate.getFirstName());
+        Assert.assertEquals("Jack", getter.get(candidate));
+    }
+
+    @Test
+    public void testSetterWithNullValue() throws Exception {
+        MethodAccessor setter = MethodAccessor.of(MethodUtil.getSetterMethod(EntityInfo.JOB_ORDER, "title"));
+        JobOrder jobOrder = new JobOrder();
+        jobOrder.setTitle("Developer");
+
+        setter.set(jobOrder, null);
+
+        Assert.assertNull(jobOrder.getTitle());
+    }
+
+    @Test
+    public void testAccessorIsCachedPerMethod() {
+        Method method = MethodUtil.getSetterMethod(EntityInfo.CANDIDATE, "lastName");
+
+        Assert.assertSame(MethodAccessor.of(method), MethodAccessor.of(method));
+        Assert.assertSame(method, MethodAccessor.of(method).getMethod());
+        Assert.assertNull(MethodAccessor.of(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetterWrongTargetType() throws Exception {
+        MethodAccessor getter = MethodAccessor.of(MethodUtil.getGetterMethod(EntityInfo.CANDIDATE, "firstName"));
+        getter.get(new ClientCorporation());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetterWrongValueType() throws Exception {
+        MethodAccessor setter = MethodAccessor.of(MethodUtil.getSetterMethod(EntityInfo.CANDIDATE, "firstName"));
+        setter.set(new Candidate(), 1);
+    }
+}
@@ -135,6 +135,8 @@ public class PrintUtilTest {
         verify(printUtil, times(1)).printAndLog("Total records processed: " + total);
         verify(printUtil, times(1)).printAndLog("Total records inserted: " + totals.getActionTotal(Result.Action.INSERT));
         verify(printUtil, times(1)).printAndLog("Total records updated: " + totals.getActionTotal(Result.Action.UPDATE));
+        verify(printUtil, times(1)).printAndLog("Total records unchanged: " + totals.getActionTotal(Result.Action.UNCHANGED));
+        verify(printUtil, times(1)).printAndLog("Total records up to date: " + totals.getActionTotal(Result.Action.UP_TO_DATE));
         verify(printUtil, times(1)).printAndLog("Total records skipped: " + totals.getActionTotal(Result.Action.SKIP));
         verify(printUtil, times(1)).printAndLog("Total records failed: " + totals.getActionTotal(Result.Action.FAILURE));
     }
@@ -157,6 +159,8 @@ public class PrintUtilTest {
         verify(printUtil, times(1)).printAndLog("Total records processed: " + total);
         verify(printUtil, times(1)).printAndLog("Total records inserted: " + totals.getActionTotal(Result.Action.INSERT));
         verify(printUtil, times(1)).printAndLog("Total records updated: " + totals.getActionTotal(Result.Action.UPDATE));
+        verify(printUtil, times(1)).printAndLog("Total records unchanged: " + totals.getActionTotal(Result.Action.UNCHANGED));
+        verify(printUtil, times(1)).printAndLog("Total records up to date: " + totals.getActionTotal(Result.Action.UP_TO_DATE));
         verify(printUtil, times(1)).printAndLog("Total records skipped: " + totals.getActionTotal(Result.Action.SKIP));
         verify(printUtil, times(1)).printAndLog("Total records failed: " + totals.getActionTotal(Result.Action.FAILURE));
     }
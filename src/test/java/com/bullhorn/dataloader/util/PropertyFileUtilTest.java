@@ -70,11 +70,24 @@ public class PropertyFileUtilTest {
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getProcessEmptyAssociations());
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getSingleByteEncoding());
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getSkipDuplicates());
+        Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getOnlyUpdateChangedFields());
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getExecuteFormTriggers());
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getWildcardMatching());
         Assert.assertNull(propertyFileUtil.getEntity());
         Assert.assertEquals(Integer.valueOf(10), propertyFileUtil.getNumThreads());
         Assert.assertEquals(Boolean.TRUE, propertyFileUtil.getCaching());
+        Assert.assertEquals(Integer.valueOf(0), propertyFileUtil.getCacheMaxEntries());
+        Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getPreloadAssociations());
+        Assert.assertEquals(Integer.valueOf(1), propertyFileUtil.getPageFetchThreads());
+        Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getDurableResults());
+        Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getAdaptiveConcurrency());
+        Assert.assertEquals(Integer.valueOf(0), propertyFileUtil.getReadCallsPerSecond());
+        Assert.assertEquals(Integer.valueOf(0), propertyFileUtil.getWriteCallsPerSecond());
+        Assert.assertEquals(Integer.valueOf(3), propertyFileUtil.getMaxRetries());
+        Assert.assertEquals(Integer.valueOf(0), propertyFileUtil.getCallTimeoutSeconds());
+        Assert.assertEquals(Integer.valueOf(1), propertyFileUtil.getNumParallelFiles());
+        Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getResume());
+        Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getDeltaLoad());
         Assert.assertEquals(Integer.valueOf(0), propertyFileUtil.getWaitSecondsBetweenFilesInDirectory());
         Assert.assertEquals(Boolean.TRUE, propertyFileUtil.getVerbose());
     }
@@ -196,6 +209,7 @@ public class PropertyFileUtilTest {
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getResultsFileEnabled());
         Assert.assertEquals("./results.json", propertyFileUtil.getResultsFilePath());
         Assert.assertEquals(Integer.valueOf(500), propertyFileUtil.getResultsFileWriteIntervalMsec());
+        Assert.assertEquals(Integer.valueOf(0), propertyFileUtil.getResultsFileMaxErrors());
         Assert.assertEquals(Boolean.FALSE, propertyFileUtil.getVerbose());
     }
 
@@ -269,8 +283,11 @@ public class PropertyFileUtilTest {
         args.add("../results/output.json");
         args.add("-resultsFileWriteIntervalMSEC");
         args.add("100");
+        args.add("-resultsFileMaxErrors");
+        args.add("50");
         args.add("--verbose");
         args.add("true");
+        args.add("--resume");
         String[] argsArray = args.toArray(new String[]{});
 
         PropertyFileUtil propertyFileUtil = new PropertyFileUtil(path, envVars, systemProperties, argsArray, printUtilMock);
@@ -295,7 +312,19 @@ public class PropertyFileUtilTest {
         Assert.assertEquals(Boolean.TRUE, propertyFileUtil.getResultsFileEnabled());
         Assert.assertEquals("../results/output.json", propertyFileUtil.getResultsFilePath());
         Assert.assertEquals(Integer.valueOf(100), propertyFileUtil.getResultsFileWriteIntervalMsec());
+        Assert.assertEquals(Integer.valueOf(50), propertyFileUtil.getResultsFileMaxErrors());
         Assert.assertEquals(Boolean.TRUE, propertyFileUtil.getVerbose());
+        Assert.assertEquals(Boolean.TRUE, propertyFileUtil.getResume());
+    }
+
+    @Test
+    public void testResumeFlag() {
+        String[] argsArray = {"--resume", "load", "Candidate.csv"};
+
+        PropertyFileUtil propertyFileUtil = new PropertyFileUtil(path, envVars, systemProperties, argsArray, printUtilMock);
+
+        Assert.assertEquals(Boolean.TRUE, propertyFileUtil.getResume());
+        Assert.assertArrayEquals(new String[]{"load", "Candidate.csv"}, propertyFileUtil.getRemainingArgs());
     }
 
     @Test
@@ -130,6 +130,57 @@ public class PropertyValidationUtilTest {
         Assert.assertEquals("./results.json", value);
     }
 
+    @Test
+    public void testMissingResultsFileMaxErrors() {
+        Integer value = PropertyValidationUtil.validateResultsFileMaxErrors(null);
+        Assert.assertEquals(Integer.valueOf(0), value);
+    }
+
+    @Test
+    public void testValidResultsFileMaxErrors() {
+        Integer value = PropertyValidationUtil.validateResultsFileMaxErrors("100");
+        Assert.assertEquals(Integer.valueOf(100), value);
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testInvalidResultsFileMaxErrors() {
+        PropertyValidationUtil.validateResultsFileMaxErrors("-1");
+    }
+
+    @Test
+    public void testMissingMaxRetries() {
+        Integer value = PropertyValidationUtil.validateMaxRetries(null);
+        Assert.assertEquals(Integer.valueOf(3), value);
+    }
+
+    @Test
+    public void testValidMaxRetries() {
+        Integer value = PropertyValidationUtil.validateMaxRetries("0");
+        Assert.assertEquals(Integer.valueOf(0), value);
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testInvalidMaxRetries() {
+        PropertyValidationUtil.validateMaxRetries("11");
+    }
+
+    @Test
+    public void testMissingCallsPerSecond() {
+        Integer value = PropertyValidationUtil.validateNonNegativeInteger(null, Property.READ_CALLS_PER_SECOND);
+        Assert.assertEquals(Integer.valueOf(0), value);
+    }
+
+    @Test
+    public void testValidCallsPerSecond() {
+        Integer value = PropertyValidationUtil.validateNonNegativeInteger("25", Property.WRITE_CALLS_PER_SECOND);
+        Assert.assertEquals(Integer.valueOf(25), value);
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testInvalidCallsPerSecond() {
+        PropertyValidationUtil.validateNonNegativeInteger("-5", Property.READ_CALLS_PER_SECOND);
+    }
+
     @Test
     public void testMissingIntervalMsec() {
         Integer value = PropertyValidationUtil.validateIntervalMsec(null);
@@ -163,6 +214,67 @@ public class PropertyValidationUtilTest {
         PropertyValidationUtil.validateNumThreads(16);
     }
 
+    @Test
+    public void testNullCacheMaxEntries() {
+        Integer cacheMaxEntries = PropertyValidationUtil.validateCacheMaxEntries(null);
+        Assert.assertEquals(Integer.valueOf(0), cacheMaxEntries);
+    }
+
+    @Test
+    public void testValidCacheMaxEntries() {
+        Integer cacheMaxEntries = PropertyValidationUtil.validateCacheMaxEntries("50000");
+        Assert.assertEquals(Integer.valueOf(50000), cacheMaxEntries);
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testLowerBoundCacheMaxEntries() {
+        PropertyValidationUtil.validateCacheMaxEntries("-1");
+    }
+
+    @Test
+    public void testNullPageFetchThreads() {
+        Integer pageFetchThreads = PropertyValidationUtil.validatePageFetchThreads(null);
+        Assert.assertEquals(Integer.valueOf(1), pageFetchThreads);
+    }
+
+    @Test
+    public void testValidPageFetchThreads() {
+        Integer pageFetchThreads = PropertyValidationUtil.validatePageFetchThreads("4");
+        Assert.assertEquals(Integer.valueOf(4), pageFetchThreads);
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testLowerBoundPageFetchThreads() {
+        PropertyValidationUtil.validatePageFetchThreads("0");
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testUpperBoundPageFetchThreads() {
+        PropertyValidationUtil.validatePageFetchThreads("11");
+    }
+
+    @Test
+    public void testNullNumParallelFiles() {
+        Integer numParallelFiles = PropertyValidationUtil.validateNumParallelFiles(null);
+        Assert.assertEquals(Integer.valueOf(1), numParallelFiles);
+    }
+
+    @Test
+    public void testValidNumParallelFiles() {
+        Integer numParallelFiles = PropertyValidationUtil.validateNumParallelFiles("3");
+        Assert.assertEquals(Integer.valueOf(3), numParallelFiles);
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testLowerBoundNumParallelFiles() {
+        PropertyValidationUtil.validateNumParallelFiles("0");
+    }
+
+    @Test(expected = DataLoaderException.class)
+    public void testUpperBoundNumParallelFiles() {
+        PropertyValidationUtil.validateNumParallelFiles("11");
+    }
+
     @Test
     public void testNullWaitSeconds() {
         Integer waitSeconds = PropertyValidationUtil.validateWaitSeconds(null);
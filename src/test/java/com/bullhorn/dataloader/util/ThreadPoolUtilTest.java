@@ -3,7 +3,13 @@ package com.bullhorn.dataloader.util;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -17,7 +23,7 @@ public class ThreadPoolUtilTest {
     public void setup() {
         PropertyFileUtil propertyFileUtilMock = mock(PropertyFileUtil.class);
         when(propertyFileUtilMock.getNumThreads()).thenReturn(10);
-        threadPoolUtil = new ThreadPoolUtil(propertyFileUtilMock);
+        threadPoolUtil = new ThreadPoolUtil(propertyFileUtilMock, mock(ConcurrencyLimiter.class));
     }
 
     @Test
@@ -31,4 +37,51 @@ public class ThreadPoolUtilTest {
         Integer taskPoolSize = threadPoolUtil.getTaskPoolSize();
         Assert.assertNotNull(taskPoolSize);
     }
+
+    @Test
+    public void testBlockingPolicyWaitsForRoomInQueue() throws InterruptedException {
+        CountDownLatch taskStarted = new CountDownLatch(1);
+        CountDownLatch releaseTask = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolUtil.BlockingPolicy());
+        AtomicInteger tasksRun = new AtomicInteger(0);
+        executor.execute(() -> {
+            taskStarted.countDown();
+            try {
+                releaseTask.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            tasksRun.incrementAndGet();
+        });
+        taskStarted.await();
+        executor.execute(tasksRun::incrementAndGet);
+
+        // The queue is full, so the third task waits for room instead of running on this thread
+        Thread callingThread = Thread.currentThread();
+        Thread releaseThread = new Thread(() -> {
+            while (callingThread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            releaseTask.countDown();
+        });
+        releaseThread.start();
+        executor.execute(() -> {
+            Assert.assertNotEquals(callingThread, Thread.currentThread());
+            tasksRun.incrementAndGet();
+        });
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(3, tasksRun.get());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testBlockingPolicyAfterShutdown() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolUtil.BlockingPolicy());
+        executor.shutdown();
+
+        executor.execute(() -> { });
+    }
 }
@@ -0,0 +1,90 @@
+package com.bullhorn.dataloader.util;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bullhornsdk.data.model.entity.core.paybill.optionslookup.SimplifiedOptionsLookup;
+
+public class ValueConverterTest {
+
+    private DateTimeFormatter dateTimeFormatter;
+
+    @Before
+    public void setup() {
+        dateTimeFormatter = DateTimeFormat.forPattern("MM/dd/yyyy");
+    }
+
+    @Test
+    public void testFromType() {
+        Assert.assertEquals(ValueConverter.STRING, ValueConverter.fromType(String.class));
+        Assert.assertEquals(ValueConverter.INTEGER, ValueConverter.fromType(Integer.class));
+        Assert.assertEquals(ValueConverter.BOOLEAN, ValueConverter.fromType(Boolean.class));
+        Assert.assertEquals(ValueConverter.DATE_TIME, ValueConverter.fromType(DateTime.class));
+        Assert.assertEquals(ValueConverter.BIG_DECIMAL, ValueConverter.fromType(BigDecimal.class));
+        Assert.assertEquals(ValueConverter.SIMPLIFIED_OPTIONS_LOOKUP, ValueConverter.fromType(SimplifiedOptionsLookup.class));
+        Assert.assertEquals(ValueConverter.UNSUPPORTED, ValueConverter.fromType(MethodUtil.class));
+        Assert.assertEquals(ValueConverter.UNSUPPORTED, ValueConverter.fromType(null));
+    }
+
+    @Test
+    public void testString() throws ParseException {
+        Assert.assertEquals("Jack", ValueConverter.STRING.convert(" Jack ", dateTimeFormatter));
+    }
+
+    @Test
+    public void testInteger() throws ParseException {
+        Assert.assertEquals(42, ValueConverter.INTEGER.convert(" 42 ", dateTimeFormatter));
+        Assert.assertEquals(0, ValueConverter.INTEGER.convert("", dateTimeFormatter));
+    }
+
+    @Test
+    public void testBoolean() throws ParseException {
+        Assert.assertEquals(true, ValueConverter.BOOLEAN.convert("1", dateTimeFormatter));
+        Assert.assertEquals(true, ValueConverter.BOOLEAN.convert("TRUE", dateTimeFormatter));
+        Assert.assertEquals(false, ValueConverter.BOOLEAN.convert("0", dateTimeFormatter));
+        Assert.assertEquals(false, ValueConverter.BOOLEAN.convert("", dateTimeFormatter));
+    }
+
+    @Test
+    public void testDateTime() throws ParseException {
+        Assert.assertEquals(dateTimeFormatter.parseDateTime("02/09/2001"),
+            ValueConverter.DATE_TIME.convert("02/09/2001", dateTimeFormatter));
+        Assert.assertNull(ValueConverter.DATE_TIME.convert("", dateTimeFormatter));
+    }
+
+    @Test
+    public void testDateRange() throws ParseException {
+        Assert.assertNull(ValueConverter.DATE_TIME.convert("[20010101 TO 20020101]", dateTimeFormatter));
+        Assert.assertNull(ValueConverter.DATE_TIME.convert(">=20010101", dateTimeFormatter));
+        Assert.assertNull(ValueConverter.DATE_TIME.convert("<20010101", dateTimeFormatter));
+    }
+
+    @Test
+    public void testBigDecimal() throws ParseException {
+        Assert.assertEquals(new BigDecimal("12.5"), ValueConverter.BIG_DECIMAL.convert("12.5", dateTimeFormatter));
+        Assert.assertEquals(new BigDecimal("0.0"), ValueConverter.BIG_DECIMAL.convert("", dateTimeFormatter));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testBigDecimalParseException() throws ParseException {
+        ValueConverter.BIG_DECIMAL.convert("bogus", dateTimeFormatter);
+    }
+
+    @Test
+    public void testSimplifiedOptionsLookup() throws ParseException {
+        SimplifiedOptionsLookup actual = (SimplifiedOptionsLookup) ValueConverter.SIMPLIFIED_OPTIONS_LOOKUP.convert("3", dateTimeFormatter);
+        Assert.assertEquals(Integer.valueOf(3), actual.getId());
+    }
+
+    @Test
+    public void testUnsupported() throws ParseException {
+        Assert.assertNull(ValueConverter.UNSUPPORTED.convert("bogus", dateTimeFormatter));
+    }
+}